@@ -0,0 +1,36 @@
+package com.github.colommar.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * 读取 {@code fixtures/} 下随工程提交的接口响应样本，保证离线运行的结果可复现
+ */
+final class Fixtures {
+
+    private Fixtures() {
+    }
+
+    /**
+     * @param name 文件名，如 {@code conclusion-medium.json}
+     * @return 文件内容
+     */
+    static byte[] load(String name) {
+        try (InputStream input = Fixtures.class.getClassLoader().getResourceAsStream("fixtures/" + name)) {
+            if (input == null) {
+                throw new IllegalArgumentException("Fixture not found: " + name);
+            }
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(64 * 1024);
+            byte[] chunk = new byte[8192];
+            int read;
+            while ((read = input.read(chunk)) != -1) {
+                buffer.write(chunk, 0, read);
+            }
+            return buffer.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.github.colommar.benchmark;
+
+import com.github.colommar.application.export.ExportFormat;
+import com.github.colommar.application.export.SummaryExporter;
+import com.github.colommar.application.export.SummaryRenderer;
+import com.github.colommar.application.export.TextRenderer;
+import com.github.colommar.domain.model.AISummaryResponse;
+import com.google.gson.Gson;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 控制台和文件输出的渲染基准测试
+ * <p>
+ * 与命令行的输出路径一致：{@code console} 是带时间戳的文本输出，
+ * {@code allFormats} 是一次遍历同时写出全部文件格式。
+ * 输出经过UTF-8编码后丢弃，只测量渲染和编码，不包含磁盘和终端的开销。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RenderBenchmark {
+
+    private static final String BVID = "BV1L94y1H7CV";
+
+    @Param({"small", "medium", "huge"})
+    public String size;
+
+    private AISummaryResponse.ModelResult result;
+
+    @Setup
+    public void setUp() {
+        String json = new String(Fixtures.load("conclusion-" + size + ".json"), StandardCharsets.UTF_8);
+        result = new Gson().fromJson(json, AISummaryResponse.class).getData().getModel_result();
+    }
+
+    @Benchmark
+    public long console() throws IOException {
+        CountingOutputStream output = new CountingOutputStream();
+        Writer writer = new OutputStreamWriter(output, StandardCharsets.UTF_8);
+        SummaryExporter.render(BVID, result, Collections.singletonList(new TextRenderer(writer, true, false)));
+        writer.flush();
+        return output.count;
+    }
+
+    @Benchmark
+    public long allFormats() throws IOException {
+        CountingOutputStream output = new CountingOutputStream();
+        List<Writer> writers = new ArrayList<>();
+        List<SummaryRenderer> renderers = new ArrayList<>();
+        for (ExportFormat format : ExportFormat.values()) {
+            Writer writer = new OutputStreamWriter(output, StandardCharsets.UTF_8);
+            writers.add(writer);
+            renderers.add(format.createRenderer(writer, true));
+        }
+        SummaryExporter.render(BVID, result, renderers);
+        for (Writer writer : writers) {
+            writer.flush();
+        }
+        return output.count;
+    }
+
+    /**
+     * 只统计字节数的输出流
+     */
+    private static class CountingOutputStream extends OutputStream {
+
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.github.colommar.benchmark;
+
+import com.github.colommar.domain.model.AISummaryResponse;
+import com.github.colommar.infrastructure.gateway.impl.BiliResponseParser;
+import com.google.gson.Gson;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AI摘要响应反序列化基准测试
+ * <p>
+ * 三种规模的样本分别对应短视频、半小时左右的视频和数小时的直播回放。
+ * 输入都是UTF-8字节流，与从HTTP响应体读取时一致：
+ * {@code gsonBind} 直接绑定到模型，{@code gsonTree} 先构建JSON树再绑定，
+ * {@code streaming} 是网关实际使用的 {@link BiliResponseParser}。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SummaryParseBenchmark {
+
+    @Param({"small", "medium", "huge"})
+    public String size;
+
+    private byte[] payload;
+    private Gson gson;
+    private BiliResponseParser parser;
+
+    @Setup
+    public void setUp() {
+        payload = Fixtures.load("conclusion-" + size + ".json");
+        gson = new Gson();
+        parser = new BiliResponseParser(gson);
+    }
+
+    @Benchmark
+    public AISummaryResponse gsonBind() {
+        return gson.fromJson(reader(), AISummaryResponse.class);
+    }
+
+    @Benchmark
+    public AISummaryResponse gsonTree() {
+        return gson.fromJson(JsonParser.parseReader(reader()), AISummaryResponse.class);
+    }
+
+    @Benchmark
+    public AISummaryResponse streaming() throws IOException {
+        return parser.parseAISummary(new JsonReader(reader()));
+    }
+
+    private Reader reader() {
+        return new InputStreamReader(new ByteArrayInputStream(payload), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,77 @@
+package com.github.colommar.benchmark;
+
+import com.github.colommar.domain.model.VideoDetails;
+import com.github.colommar.domain.model.VideoPage;
+import com.github.colommar.infrastructure.gateway.impl.BiliResponseParser;
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 视频详情字段提取基准测试
+ * <p>
+ * 响应中绝大部分字段用不到，只需要分P列表和UP主mid。
+ * {@code jsonTree} 先解析出完整的JSON树再取字段，{@code streaming} 是网关实际使用的单遍流式解析。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ViewParseBenchmark {
+
+    private byte[] payload;
+    private BiliResponseParser parser;
+
+    @Setup
+    public void setUp() {
+        payload = Fixtures.load("view.json");
+        parser = new BiliResponseParser(new Gson());
+    }
+
+    @Benchmark
+    public VideoDetails jsonTree() {
+        JsonObject data = JsonParser.parseReader(reader()).getAsJsonObject().getAsJsonObject("data");
+        JsonArray pagesJson = data.getAsJsonArray("pages");
+        List<VideoPage> pages = new ArrayList<>(pagesJson.size());
+        for (JsonElement element : pagesJson) {
+            JsonObject page = element.getAsJsonObject();
+            pages.add(new VideoPage(page.get("cid").getAsLong(), page.get("page").getAsInt(),
+                    page.get("part").getAsString()));
+        }
+        long upMid = data.getAsJsonObject("owner").get("mid").getAsLong();
+        return new VideoDetails(pages.get(0).getCid(), upMid, pages);
+    }
+
+    @Benchmark
+    public VideoDetails streaming() throws IOException {
+        return parser.parseVideoDetails(new JsonReader(reader())).getData();
+    }
+
+    private Reader reader() {
+        return new InputStreamReader(new ByteArrayInputStream(payload), StandardCharsets.UTF_8);
+    }
+}
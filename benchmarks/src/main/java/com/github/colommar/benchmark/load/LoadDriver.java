@@ -0,0 +1,284 @@
+package com.github.colommar.benchmark.load;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.github.colommar.benchmark.mock.MockBiliServer;
+import com.github.colommar.benchmark.mock.MockOptions;
+import com.github.colommar.domain.model.AISummaryResponse;
+import com.github.colommar.domain.model.VideoDetails;
+import com.github.colommar.domain.model.WbiKeys;
+import com.github.colommar.domain.service.impl.BiliWebDomainServiceImpl;
+import com.github.colommar.infrastructure.config.ConfigLoader;
+import com.github.colommar.infrastructure.gateway.impl.BiliWebGatewayImpl;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 端到端闭环压测：网关或领域服务对接本地模拟服务，逐级提高并发
+ * <p>
+ * 每个并发级别先预热再测量，每个工作线程完成一次请求后立即发起下一次。
+ * 每次请求使用不同的bvid，避免同一视频的并发请求被合并。
+ * 限流和缓存通过配置覆盖关闭，测量的是客户端自身的开销和调度。
+ * <p>
+ * 参数：
+ * <ul>
+ *     <li>{@code --base-url URL}：使用已启动的模拟服务，不指定时在进程内启动</li>
+ *     <li>{@code --target gateway|domain|both}：压测对象，默认both</li>
+ *     <li>{@code --levels 1,4,16,64,256}：并发级别</li>
+ *     <li>{@code --duration S} / {@code --warmup S}：每级测量和预热的秒数</li>
+ *     <li>{@code --set key=value}：额外的配置覆盖，可重复</li>
+ *     <li>其余参数交给 {@link MockOptions}</li>
+ * </ul>
+ */
+public class LoadDriver {
+
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    public static void main(String[] args) throws Exception {
+        List<String> rest = new ArrayList<>(Arrays.asList(args));
+        MockOptions mockOptions = MockOptions.parse(rest);
+        String baseUrl = null;
+        String target = "both";
+        int[] levels = {1, 4, 16, 64, 256};
+        int durationSeconds = 10;
+        int warmupSeconds = 3;
+        Map<String, String> overrides = new HashMap<>();
+        for (int i = 0; i < rest.size(); i++) {
+            String name = rest.get(i);
+            if (i + 1 >= rest.size()) {
+                throw new IllegalArgumentException("Missing value for " + name);
+            }
+            String value = rest.get(++i);
+            switch (name) {
+                case "--base-url":
+                    baseUrl = value;
+                    break;
+                case "--target":
+                    target = value;
+                    break;
+                case "--levels":
+                    levels = Arrays.stream(value.split(",")).mapToInt(level -> Integer.parseInt(level.trim())).toArray();
+                    break;
+                case "--duration":
+                    durationSeconds = Integer.parseInt(value);
+                    break;
+                case "--warmup":
+                    warmupSeconds = Integer.parseInt(value);
+                    break;
+                case "--set":
+                    int eq = value.indexOf('=');
+                    if (eq <= 0) {
+                        throw new IllegalArgumentException("Expected key=value: " + value);
+                    }
+                    overrides.put(value.substring(0, eq), value.substring(eq + 1));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown argument: " + name);
+            }
+        }
+        if (!"gateway".equals(target) && !"domain".equals(target) && !"both".equals(target)) {
+            throw new IllegalArgumentException("Unknown target: " + target);
+        }
+
+        ((Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+        MockBiliServer mock = null;
+        if (baseUrl == null) {
+            mock = new MockBiliServer(mockOptions);
+            mock.start();
+            baseUrl = mock.baseUrl();
+            System.out.println("Mock API on " + baseUrl + " with " + mockOptions);
+        }
+
+        // 必须在共享HTTP客户端和网关创建之前生效
+        ConfigLoader.applyOverrides(loadTestConfig(baseUrl, overrides));
+
+        try {
+            System.out.printf("%-8s %6s %10s %9s %9s %9s %9s %8s %9s%n",
+                    "target", "conc", "ops/s", "p50(ms)", "p99(ms)", "p999(ms)", "max(ms)", "errors", "notReady");
+            if (!"domain".equals(target)) {
+                BiliWebGatewayImpl gateway = new BiliWebGatewayImpl();
+                WbiKeys keys = gateway.getWbiKeys();
+                runLevels("gateway", bvid -> {
+                    VideoDetails details = gateway.getVideoDetails(bvid);
+                    return gateway.getAISummary(bvid, details, keys);
+                }, levels, warmupSeconds, durationSeconds);
+            }
+            if (!"gateway".equals(target)) {
+                BiliWebDomainServiceImpl domainService = new BiliWebDomainServiceImpl();
+                runLevels("domain", domainService::getAISummary, levels, warmupSeconds, durationSeconds);
+            }
+        } finally {
+            if (mock != null) {
+                System.out.println(mock.stats());
+                mock.close();
+            }
+        }
+        System.exit(0);
+    }
+
+    /**
+     * 压测配置：指向模拟服务，关闭缓存，限流放到不影响结果的程度，HTTP并发上限放开
+     */
+    private static Map<String, String> loadTestConfig(String baseUrl, Map<String, String> overrides) {
+        Map<String, String> config = new HashMap<>();
+        config.put("apiBaseUrl", baseUrl);
+        config.put("sessdata", "load-test");
+        config.put("cacheEnabled", "false");
+        config.put("viewRatePerSecond", "1000000");
+        config.put("navRatePerSecond", "1000000");
+        config.put("conclusionRatePerSecond", "1000000");
+        config.put("rateLimitBurst", "1000000");
+        config.put("httpMaxRequests", "4096");
+        config.put("httpMaxRequestsPerHost", "4096");
+        config.put("httpMaxIdleConnections", "512");
+        config.putAll(overrides);
+        return config;
+    }
+
+    private static void runLevels(String name, Operation operation, int[] levels,
+                                  int warmupSeconds, int durationSeconds) throws InterruptedException {
+        for (int concurrency : levels) {
+            if (warmupSeconds > 0) {
+                runClosedLoop(operation, concurrency, TimeUnit.SECONDS.toNanos(warmupSeconds));
+            }
+            Result result = runClosedLoop(operation, concurrency, TimeUnit.SECONDS.toNanos(durationSeconds));
+            System.out.printf("%-8s %6d %10.1f %9.2f %9.2f %9.2f %9.2f %8d %9d%n",
+                    name, concurrency, result.throughput(), result.percentileMillis(0.50), result.percentileMillis(0.99),
+                    result.percentileMillis(0.999), result.percentileMillis(1.0), result.errors, result.notReady);
+            if (result.firstError != null) {
+                System.out.println("  first error: " + result.firstError);
+            }
+        }
+    }
+
+    private static Result runClosedLoop(Operation operation, int concurrency, long durationNanos)
+            throws InterruptedException {
+        Worker[] workers = new Worker[concurrency];
+        CountDownLatch start = new CountDownLatch(1);
+        long deadline = System.nanoTime() + durationNanos;
+        for (int i = 0; i < concurrency; i++) {
+            workers[i] = new Worker(operation, start, deadline);
+            Thread thread = new Thread(workers[i], "load-" + i);
+            thread.setDaemon(true);
+            workers[i].thread = thread;
+            thread.start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Worker worker : workers) {
+            worker.thread.join();
+        }
+        long elapsed = System.nanoTime() - begin;
+
+        Result result = new Result(elapsed);
+        int total = 0;
+        for (Worker worker : workers) {
+            total += worker.count;
+        }
+        result.latencies = new long[total];
+        int offset = 0;
+        for (Worker worker : workers) {
+            System.arraycopy(worker.latencies, 0, result.latencies, offset, worker.count);
+            offset += worker.count;
+            result.errors += worker.errors;
+            result.notReady += worker.notReady;
+            if (result.firstError == null) {
+                result.firstError = worker.firstError;
+            }
+        }
+        Arrays.sort(result.latencies);
+        return result;
+    }
+
+    /**
+     * 每次请求使用新的bvid
+     */
+    private static String nextBvid() {
+        return String.format("BV1%09d", SEQUENCE.incrementAndGet());
+    }
+
+    @FunctionalInterface
+    private interface Operation {
+        AISummaryResponse call(String bvid) throws Exception;
+    }
+
+    private static class Worker implements Runnable {
+
+        private final Operation operation;
+        private final CountDownLatch start;
+        private final long deadline;
+        private Thread thread;
+        private long[] latencies = new long[1024];
+        private int count;
+        private long errors;
+        private long notReady;
+        private String firstError;
+
+        Worker(Operation operation, CountDownLatch start, long deadline) {
+            this.operation = operation;
+            this.start = start;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public void run() {
+            try {
+                start.await();
+            } catch (InterruptedException e) {
+                return;
+            }
+            while (System.nanoTime() < deadline) {
+                String bvid = nextBvid();
+                long begin = System.nanoTime();
+                try {
+                    AISummaryResponse response = operation.call(bvid);
+                    if (response.getData() == null || response.getData().getModel_result() == null) {
+                        notReady++;
+                    }
+                } catch (Exception e) {
+                    errors++;
+                    if (firstError == null) {
+                        firstError = e.toString();
+                    }
+                }
+                if (count == latencies.length) {
+                    latencies = Arrays.copyOf(latencies, count * 2);
+                }
+                latencies[count++] = System.nanoTime() - begin;
+            }
+        }
+    }
+
+    private static class Result {
+
+        private final long elapsedNanos;
+        private long[] latencies;
+        private long errors;
+        private long notReady;
+        private String firstError;
+
+        Result(long elapsedNanos) {
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        double throughput() {
+            return latencies.length * 1e9 / elapsedNanos;
+        }
+
+        double percentileMillis(double quantile) {
+            if (latencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(quantile * latencies.length) - 1;
+            return latencies[Math.max(0, Math.min(index, latencies.length - 1))] / 1e6;
+        }
+    }
+}
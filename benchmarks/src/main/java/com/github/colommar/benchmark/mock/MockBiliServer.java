@@ -0,0 +1,533 @@
+package com.github.colommar.benchmark.mock;
+
+import com.google.gson.stream.JsonWriter;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 本地B站接口替身，用于端到端压测
+ * <p>
+ * 提供 {@code /x/web-interface/view}、{@code /x/web-interface/nav}、{@code /x/web-interface/view/conclusion/get}
+ * 和 {@code /x/space/wbi/arc/search}，响应结构与线上一致。摘要和投稿列表接口独立校验WBI签名，签名错误返回-403。
+ * 延迟服从对数正态分布，并可按比例注入HTTP 500、风控错误码-352和摘要尚未生成。
+ * 响应体在启动时预先生成，服务本身的开销不影响压测结果。
+ */
+@Slf4j
+public class MockBiliServer implements AutoCloseable {
+
+    public static final String IMG_KEY = "7cd084941338484aae1ad9425b84077c";
+    public static final String SUB_KEY = "4932caff0ff746eab6f01bf08b70ac45";
+    public static final long UP_MID = 297242063L;
+
+    private static final int MAX_PAGES = 999;
+    private static final int MAX_WTS_SKEW_SECONDS = 300;
+    private static final String JSON_TYPE = "application/json; charset=utf-8";
+    private static final int[] MIXIN_KEY_ENC_TAB = {
+            46, 47, 18, 2, 53, 8, 23, 32, 15, 50, 10, 31, 58, 3, 45, 35, 27, 43, 5, 49,
+            33, 9, 42, 19, 29, 28, 14, 39, 12, 38, 41, 13, 37, 48, 7, 16, 24, 55, 40,
+            61, 26, 17, 0, 1, 60, 51, 30, 4, 22, 25, 54, 21, 56, 59, 6, 63, 57, 62, 11,
+            36, 20, 34, 44, 52
+    };
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private static final ThreadLocal<MessageDigest> MD5 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    static {
+        // 默认开启Nagle算法，与客户端的延迟确认叠加后每个请求多出约40ms
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    private final MockOptions options;
+    private final String mixinKey;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final byte[] navBody;
+    private final byte[] summaryBody;
+    private final byte[] notReadyBody;
+    private final byte[] riskControlBody;
+    private final byte[] badSignatureBody;
+    private final byte[] badRequestBody;
+    private final String descPadding;
+
+    private final AtomicLong viewRequests = new AtomicLong();
+    private final AtomicLong navRequests = new AtomicLong();
+    private final AtomicLong conclusionRequests = new AtomicLong();
+    private final AtomicLong spaceRequests = new AtomicLong();
+    private final AtomicLong injectedErrors = new AtomicLong();
+    private final AtomicLong injectedRiskControl = new AtomicLong();
+    private final AtomicLong badSignatures = new AtomicLong();
+
+    /**
+     * @param options 模拟服务参数
+     * @throws IOException 端口绑定失败时抛出异常
+     */
+    public MockBiliServer(MockOptions options) throws IOException {
+        this.options = options;
+        this.mixinKey = mixinKey(IMG_KEY + SUB_KEY);
+        this.navBody = navBody();
+        this.summaryBody = summaryBody(options.getSubtitles());
+        this.notReadyBody = utf8("{\"code\":0,\"message\":\"0\",\"ttl\":1,\"data\":{\"code\":1,\"model_result\":null,"
+                + "\"stid\":\"\",\"status\":0,\"like_num\":0,\"dislike_num\":0}}");
+        this.riskControlBody = utf8("{\"code\":-352,\"message\":\"风控校验失败\",\"ttl\":1}");
+        this.badSignatureBody = utf8("{\"code\":-403,\"message\":\"访问权限不足\",\"ttl\":1}");
+        this.badRequestBody = utf8("{\"code\":-400,\"message\":\"请求错误\",\"ttl\":1}");
+        char[] padding = new char[options.getDescBytes()];
+        Arrays.fill(padding, 'x');
+        this.descPadding = new String(padding);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "mock-bili-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", options.getPort()), 1024);
+        server.setExecutor(executor);
+        server.createContext("/x/web-interface/view/conclusion/get", exchange -> serve(exchange, this::conclusion));
+        server.createContext("/x/web-interface/view", exchange -> serve(exchange, this::view));
+        server.createContext("/x/web-interface/nav", exchange -> serve(exchange, this::nav));
+        server.createContext("/x/space/wbi/arc/search", exchange -> serve(exchange, this::space));
+        server.createContext("/", exchange -> send(exchange, 404, badRequestBody));
+    }
+
+    /**
+     * 单独启动模拟服务，参数见 {@link MockOptions}
+     */
+    public static void main(String[] args) throws Exception {
+        List<String> rest = new ArrayList<>(Arrays.asList(args));
+        MockOptions options = MockOptions.parse(rest);
+        if (!rest.isEmpty()) {
+            throw new IllegalArgumentException("Unknown arguments: " + rest);
+        }
+        MockBiliServer server = new MockBiliServer(options);
+        server.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.close();
+            System.out.println(server.stats());
+        }));
+        System.out.println("Mock API listening on " + server.baseUrl() + " with " + options);
+        Thread.currentThread().join();
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * 供 {@code apiBaseUrl} 使用的地址
+     */
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    /**
+     * 请求计数和注入的错误数
+     */
+    public String stats() {
+        return String.format("mock: view=%d nav=%d conclusion=%d space=%d injected_500=%d injected_352=%d bad_signature=%d",
+                viewRequests.get(), navRequests.get(), conclusionRequests.get(), spaceRequests.get(),
+                injectedErrors.get(), injectedRiskControl.get(), badSignatures.get());
+    }
+
+    public long getBadSignatures() {
+        return badSignatures.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void serve(HttpExchange exchange, Handler handler) throws IOException {
+        try {
+            sleep(sampleLatency());
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            if (random.nextDouble() < options.getErrorRate()) {
+                injectedErrors.incrementAndGet();
+                send(exchange, 500, utf8("Internal Server Error"));
+                return;
+            }
+            handler.handle(exchange, random);
+        } catch (RuntimeException e) {
+            log.warn("Mock handler failed: {}", e.toString());
+            send(exchange, 500, utf8(String.valueOf(e)));
+        }
+    }
+
+    private void nav(HttpExchange exchange, Random random) throws IOException {
+        navRequests.incrementAndGet();
+        send(exchange, 200, navBody);
+    }
+
+    private void view(HttpExchange exchange, Random random) throws IOException {
+        viewRequests.incrementAndGet();
+        String bvid = param(exchange.getRequestURI().getRawQuery(), "bvid");
+        if (bvid == null || bvid.isEmpty()) {
+            send(exchange, 200, badRequestBody);
+            return;
+        }
+        if (random.nextDouble() < options.getRiskControlRate()) {
+            injectedRiskControl.incrementAndGet();
+            send(exchange, 200, riskControlBody);
+            return;
+        }
+        send(exchange, 200, viewBody(bvid));
+    }
+
+    private void conclusion(HttpExchange exchange, Random random) throws IOException {
+        conclusionRequests.incrementAndGet();
+        String query = exchange.getRequestURI().getRawQuery();
+        if (!verifySignature(query)) {
+            badSignatures.incrementAndGet();
+            send(exchange, 200, badSignatureBody);
+            return;
+        }
+        String bvid = param(query, "bvid");
+        String cid = param(query, "cid");
+        String upMid = param(query, "up_mid");
+        if (bvid == null || cid == null || !String.valueOf(UP_MID).equals(upMid) || !validCid(bvid, cid)) {
+            send(exchange, 200, badRequestBody);
+            return;
+        }
+        if (random.nextDouble() < options.getRiskControlRate()) {
+            injectedRiskControl.incrementAndGet();
+            send(exchange, 200, riskControlBody);
+            return;
+        }
+        send(exchange, 200, random.nextDouble() < options.getNotReadyRate() ? notReadyBody : summaryBody);
+    }
+
+    /**
+     * 每个UP主有 {@code uploads} 个投稿，BV号由mid和序号生成，从新到旧排列
+     */
+    private void space(HttpExchange exchange, Random random) throws IOException {
+        spaceRequests.incrementAndGet();
+        String query = exchange.getRequestURI().getRawQuery();
+        if (!verifySignature(query)) {
+            badSignatures.incrementAndGet();
+            send(exchange, 200, badSignatureBody);
+            return;
+        }
+        long mid;
+        int pn;
+        int ps;
+        try {
+            mid = Long.parseLong(String.valueOf(param(query, "mid")));
+            pn = Integer.parseInt(String.valueOf(param(query, "pn")));
+            ps = Integer.parseInt(String.valueOf(param(query, "ps")));
+        } catch (NumberFormatException e) {
+            send(exchange, 200, badRequestBody);
+            return;
+        }
+        if (mid <= 0 || pn <= 0 || ps <= 0 || ps > 50) {
+            send(exchange, 200, badRequestBody);
+            return;
+        }
+        if (random.nextDouble() < options.getRiskControlRate()) {
+            injectedRiskControl.incrementAndGet();
+            send(exchange, 200, riskControlBody);
+            return;
+        }
+        send(exchange, 200, spaceBody(mid, pn, ps));
+    }
+
+    private byte[] spaceBody(long mid, int pn, int ps) throws IOException {
+        int total = options.getUploads();
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(4096);
+        try (JsonWriter json = new JsonWriter(new OutputStreamWriter(buffer, StandardCharsets.UTF_8))) {
+            json.beginObject();
+            json.name("code").value(0);
+            json.name("message").value("0");
+            json.name("ttl").value(1);
+            json.name("data").beginObject();
+            json.name("list").beginObject();
+            json.name("tlist").beginObject().endObject();
+            json.name("vlist").beginArray();
+            for (long index = (long) (pn - 1) * ps; index < Math.min(total, (long) pn * ps); index++) {
+                json.beginObject();
+                json.name("aid").value(index + 1);
+                json.name("bvid").value(uploadBvid(mid, total - index));
+                json.name("title").value("投稿 " + (total - index));
+                json.name("mid").value(mid);
+                json.endObject();
+            }
+            json.endArray();
+            json.endObject();
+            json.name("page").beginObject();
+            json.name("pn").value(pn);
+            json.name("ps").value(ps);
+            json.name("count").value(total);
+            json.endObject();
+            json.endObject();
+            json.endObject();
+        }
+        return buffer.toByteArray();
+    }
+
+    /**
+     * 投稿的BV号
+     *
+     * @param mid UP主mid
+     * @param number 投稿序号，从1开始
+     */
+    public static String uploadBvid(long mid, long number) {
+        return "BV1" + Long.toString(mid, 36) + "u" + number;
+    }
+
+    /**
+     * 按WBI规则独立重算签名：去掉w_rid后参数须按名称排序且带有未过期的wts，
+     * 其余部分原样拼接混合密钥后取MD5
+     */
+    boolean verifySignature(String query) {
+        if (query == null) {
+            return false;
+        }
+        StringBuilder signed = new StringBuilder(query.length());
+        String wRid = null;
+        String wts = null;
+        String previousName = null;
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            String name = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "" : pair.substring(eq + 1);
+            if ("w_rid".equals(name)) {
+                wRid = value;
+                continue;
+            }
+            if (previousName != null && previousName.compareTo(name) > 0) {
+                return false;
+            }
+            previousName = name;
+            if ("wts".equals(name)) {
+                wts = value;
+            }
+            if (signed.length() > 0) {
+                signed.append('&');
+            }
+            signed.append(pair);
+        }
+        if (wRid == null || wts == null) {
+            return false;
+        }
+        try {
+            long skew = Math.abs(System.currentTimeMillis() / 1000 - Long.parseLong(wts));
+            if (skew > MAX_WTS_SKEW_SECONDS) {
+                return false;
+            }
+        } catch (NumberFormatException e) {
+            return false;
+        }
+        return md5Hex(signed.append(mixinKey).toString()).equals(wRid);
+    }
+
+    private byte[] viewBody(String bvid) throws IOException {
+        long cidBase = cidBase(bvid);
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(512 + descPadding.length());
+        try (JsonWriter json = new JsonWriter(new OutputStreamWriter(buffer, StandardCharsets.UTF_8))) {
+            json.beginObject();
+            json.name("code").value(0);
+            json.name("message").value("0");
+            json.name("ttl").value(1);
+            json.name("data").beginObject();
+            json.name("bvid").value(bvid);
+            json.name("title").value("压测视频 " + bvid);
+            json.name("desc").value(descPadding);
+            json.name("owner").beginObject();
+            json.name("mid").value(UP_MID);
+            json.name("name").value("mock");
+            json.endObject();
+            json.name("pages").beginArray();
+            int pages = Math.min(options.getPages(), MAX_PAGES);
+            for (int page = 1; page <= pages; page++) {
+                json.beginObject();
+                json.name("cid").value(cidBase + page);
+                json.name("page").value(page);
+                json.name("part").value("P" + page);
+                json.name("duration").value(600);
+                json.endObject();
+            }
+            json.endArray();
+            json.endObject();
+            json.endObject();
+        }
+        return buffer.toByteArray();
+    }
+
+    private boolean validCid(String bvid, String cid) {
+        long value;
+        try {
+            value = Long.parseLong(cid);
+        } catch (NumberFormatException e) {
+            return false;
+        }
+        long page = value - cidBase(bvid);
+        return page >= 1 && page <= Math.min(options.getPages(), MAX_PAGES);
+    }
+
+    /**
+     * 同一视频的cid在视频详情和摘要请求之间保持一致
+     */
+    private static long cidBase(String bvid) {
+        return (bvid.hashCode() & 0x7fffffffL) * (MAX_PAGES + 1);
+    }
+
+    private static byte[] navBody() {
+        return utf8("{\"code\":0,\"message\":\"0\",\"ttl\":1,\"data\":{\"isLogin\":true,\"wbi_img\":{"
+                + "\"img_url\":\"https://i0.hdslb.com/bfs/wbi/" + IMG_KEY + ".png\","
+                + "\"sub_url\":\"https://i0.hdslb.com/bfs/wbi/" + SUB_KEY + ".png\"}}}");
+    }
+
+    private static byte[] summaryBody(int subtitles) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(1024 + subtitles * 96);
+        try (JsonWriter json = new JsonWriter(new OutputStreamWriter(buffer, StandardCharsets.UTF_8))) {
+            json.beginObject();
+            json.name("code").value(0);
+            json.name("message").value("0");
+            json.name("ttl").value(1);
+            json.name("data").beginObject();
+            json.name("code").value(0);
+            json.name("model_result").beginObject();
+            json.name("result_type").value(2);
+            json.name("summary").value("这是压测用的视频摘要，内容由本地模拟服务生成。");
+            json.name("outline").beginArray();
+            int sections = Math.max(1, subtitles / 50);
+            for (int i = 0; i < sections; i++) {
+                json.beginObject();
+                json.name("title").value("第" + (i + 1) + "部分");
+                json.name("timestamp").value(i * 150);
+                json.name("part_outline").beginArray();
+                json.beginObject();
+                json.name("timestamp").value(i * 150);
+                json.name("content").value("第" + (i + 1) + "部分的要点");
+                json.endObject();
+                json.endArray();
+                json.endObject();
+            }
+            json.endArray();
+            json.name("subtitle").beginArray();
+            json.beginObject();
+            json.name("title").value("");
+            json.name("timestamp").value(0);
+            json.name("part_subtitle").beginArray();
+            for (int i = 0; i < subtitles; i++) {
+                json.beginObject();
+                json.name("start_timestamp").value(i * 3);
+                json.name("end_timestamp").value(i * 3 + 3);
+                json.name("content").value("第" + (i + 1) + "句字幕，用于测试解析和渲染的吞吐");
+                json.endObject();
+            }
+            json.endArray();
+            json.endObject();
+            json.endArray();
+            json.endObject();
+            json.name("stid").value("0");
+            json.name("status").value(0);
+            json.name("like_num").value(0);
+            json.name("dislike_num").value(0);
+            json.endObject();
+            json.endObject();
+        }
+        return buffer.toByteArray();
+    }
+
+    private long sampleLatency() {
+        double median = options.getLatencyMedianMillis();
+        if (median <= 0) {
+            return 0;
+        }
+        double sigma = options.getLatencySigma();
+        double millis = sigma > 0 ? median * Math.exp(sigma * ThreadLocalRandom.current().nextGaussian()) : median;
+        return Math.round(millis);
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void send(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", JSON_TYPE);
+        if ("HEAD".equals(exchange.getRequestMethod())) {
+            // 命令行启动时的连接预热使用HEAD请求
+            exchange.sendResponseHeaders(status, -1);
+            exchange.close();
+            return;
+        }
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(body);
+        }
+    }
+
+    private static String param(String query, String name) throws IOException {
+        if (query == null) {
+            return null;
+        }
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0 && pair.regionMatches(0, name, 0, eq) && name.length() == eq) {
+                return URLDecoder.decode(pair.substring(eq + 1), "UTF-8");
+            }
+        }
+        return null;
+    }
+
+    private static String mixinKey(String rawKey) {
+        StringBuilder key = new StringBuilder(32);
+        for (int i = 0; i < 32; i++) {
+            key.append(rawKey.charAt(MIXIN_KEY_ENC_TAB[i]));
+        }
+        return key.toString();
+    }
+
+    private static String md5Hex(String value) {
+        byte[] digest = MD5.get().digest(value.getBytes(StandardCharsets.UTF_8));
+        char[] hex = new char[digest.length * 2];
+        for (int i = 0; i < digest.length; i++) {
+            hex[i * 2] = HEX[(digest[i] >> 4) & 0xf];
+            hex[i * 2 + 1] = HEX[digest[i] & 0xf];
+        }
+        return new String(hex);
+    }
+
+    private static byte[] utf8(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @FunctionalInterface
+    private interface Handler {
+        void handle(HttpExchange exchange, Random random) throws IOException;
+    }
+}
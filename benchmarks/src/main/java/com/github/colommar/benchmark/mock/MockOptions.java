@@ -0,0 +1,99 @@
+package com.github.colommar.benchmark.mock;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 模拟服务参数
+ */
+@Data
+public class MockOptions {
+
+    /** 监听端口，0表示随机端口 */
+    private int port = 0;
+    /** 响应延迟的中位数（毫秒） */
+    private double latencyMedianMillis = 20;
+    /** 响应延迟的对数正态分布sigma，0表示固定延迟 */
+    private double latencySigma = 0.5;
+    /** 返回HTTP 500的比例 */
+    private double errorRate = 0;
+    /** 返回风控错误码-352的比例 */
+    private double riskControlRate = 0;
+    /** 摘要尚未生成的比例 */
+    private double notReadyRate = 0;
+    /** 每个视频的分P数 */
+    private int pages = 1;
+    /** 摘要中的字幕行数 */
+    private int subtitles = 200;
+    /** 视频详情中简介的字节数，用于模拟较大的响应 */
+    private int descBytes = 2048;
+    /** 每个UP主的投稿数 */
+    private int uploads = 100;
+
+    /**
+     * 从命令行参数中读取模拟服务参数，识别的参数会从列表中移除
+     *
+     * @param args 命令行参数
+     * @return 参数
+     * @throws IllegalArgumentException 参数值无效时抛出异常
+     */
+    public static MockOptions parse(List<String> args) {
+        MockOptions options = new MockOptions();
+        for (int i = 0; i < args.size(); ) {
+            String name = args.get(i);
+            if (i + 1 >= args.size() || !options.apply(name, args.get(i + 1))) {
+                i++;
+                continue;
+            }
+            args.remove(i + 1);
+            args.remove(i);
+        }
+        return options;
+    }
+
+    private boolean apply(String name, String value) {
+        switch (name) {
+            case "--port":
+                port = Integer.parseInt(value);
+                return true;
+            case "--latency-ms":
+                latencyMedianMillis = Double.parseDouble(value);
+                return true;
+            case "--latency-sigma":
+                latencySigma = Double.parseDouble(value);
+                return true;
+            case "--error-rate":
+                errorRate = rate(name, value);
+                return true;
+            case "--risk-rate":
+                riskControlRate = rate(name, value);
+                return true;
+            case "--not-ready-rate":
+                notReadyRate = rate(name, value);
+                return true;
+            case "--pages":
+                pages = Math.max(1, Integer.parseInt(value));
+                return true;
+            case "--subtitles":
+                subtitles = Math.max(0, Integer.parseInt(value));
+                return true;
+            case "--desc-bytes":
+                descBytes = Math.max(0, Integer.parseInt(value));
+                return true;
+            case "--uploads":
+                uploads = Math.max(0, Integer.parseInt(value));
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static double rate(String name, String value) {
+        double rate = Double.parseDouble(value);
+        if (rate < 0 || rate > 1) {
+            throw new IllegalArgumentException(name + " must be between 0 and 1: " + value);
+        }
+        return rate;
+    }
+}
@@ -0,0 +1,187 @@
+package com.github.colommar.benchmark.startup;
+
+import com.github.colommar.benchmark.mock.MockBiliServer;
+import com.github.colommar.benchmark.mock.MockOptions;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 命令行冷启动基准测试
+ * <p>
+ * 每次启动一个新的JVM，对本地模拟服务做一次单视频查询，记录从启动进程到打印出查询结果的时间，
+ * 以及进程退出的时间。指定CDS归档时与不使用归档的启动交替运行，减少机器状态漂移的影响。
+ * <p>
+ * 参数：
+ * <ul>
+ *     <li>{@code --jar PATH}：命令行工具的JAR，默认 {@code ../target/bilibiliAISubtitles-1.0.0.jar}</li>
+ *     <li>{@code --archive PATH}：{@code mvn package -Pcds} 生成的CDS归档，指定时增加一组使用归档的启动</li>
+ *     <li>{@code --java PATH}：启动子进程的java，默认与当前JVM相同</li>
+ *     <li>{@code --runs N}：每组的启动次数，默认10</li>
+ *     <li>{@code --jvm-arg ARG}：每次启动都加上的JVM参数，可重复</li>
+ *     <li>其余参数交给 {@link MockOptions}</li>
+ * </ul>
+ */
+public class StartupBenchmark {
+
+    /** 查询结果的第一行，命令行输出摘要之前打印 */
+    private static final String FIRST_OUTPUT = "AI summary retrieved successfully";
+
+    public static void main(String[] args) throws Exception {
+        List<String> rest = new ArrayList<>(Arrays.asList(args));
+        MockOptions mockOptions = MockOptions.parse(rest);
+        Path jar = Paths.get("../target/bilibiliAISubtitles-1.0.0.jar");
+        Path archive = null;
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        int runs = 10;
+        List<String> jvmArgs = new ArrayList<>();
+        for (int i = 0; i < rest.size(); i++) {
+            String name = rest.get(i);
+            if (i + 1 >= rest.size()) {
+                throw new IllegalArgumentException("Missing value for " + name);
+            }
+            String value = rest.get(++i);
+            switch (name) {
+                case "--jar":
+                    jar = Paths.get(value);
+                    break;
+                case "--archive":
+                    archive = Paths.get(value);
+                    break;
+                case "--java":
+                    java = value;
+                    break;
+                case "--runs":
+                    runs = Integer.parseInt(value);
+                    break;
+                case "--jvm-arg":
+                    jvmArgs.add(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown argument: " + name);
+            }
+        }
+        if (!Files.isRegularFile(jar)) {
+            throw new IllegalArgumentException("JAR not found: " + jar + ", run mvn package in the project root first");
+        }
+        if (archive != null && !Files.isRegularFile(archive)) {
+            throw new IllegalArgumentException("CDS archive not found: " + archive);
+        }
+
+        // CDS归档记录了训练时的类路径，启动时使用同样的绝对路径
+        Map<String, List<String>> variants = new LinkedHashMap<>();
+        variants.put("default", command(java, jvmArgs, null, jar.toAbsolutePath()));
+        if (archive != null) {
+            variants.put("cds", command(java, jvmArgs, archive.toAbsolutePath(), jar.toAbsolutePath()));
+        }
+
+        MockBiliServer mock = new MockBiliServer(mockOptions);
+        mock.start();
+        Path config = Files.createTempFile("bili-startup", ".properties");
+        try (Writer writer = Files.newBufferedWriter(config, StandardCharsets.UTF_8)) {
+            writer.write("apiBaseUrl = " + mock.baseUrl() + "\n");
+            writer.write("cacheEnabled = false\n");
+        }
+        System.out.println("Mock API on " + mock.baseUrl() + " with " + mockOptions);
+
+        Map<String, List<Long>> firstOutput = new LinkedHashMap<>();
+        Map<String, List<Long>> exit = new LinkedHashMap<>();
+        try {
+            // 第一轮只用于预热文件缓存，不计入结果
+            for (int run = 0; run <= runs; run++) {
+                for (Map.Entry<String, List<String>> variant : variants.entrySet()) {
+                    long[] times = launch(variant.getValue(), config, run);
+                    if (run == 0) {
+                        continue;
+                    }
+                    firstOutput.computeIfAbsent(variant.getKey(), key -> new ArrayList<>()).add(times[0]);
+                    exit.computeIfAbsent(variant.getKey(), key -> new ArrayList<>()).add(times[1]);
+                }
+            }
+        } finally {
+            mock.close();
+            Files.deleteIfExists(config);
+        }
+
+        System.out.printf("%-8s %5s %16s %16s %16s %12s%n",
+                "variant", "runs", "first min(ms)", "first p50(ms)", "first p90(ms)", "exit p50(ms)");
+        for (String variant : variants.keySet()) {
+            List<Long> first = firstOutput.get(variant);
+            List<Long> total = exit.get(variant);
+            Collections.sort(first);
+            Collections.sort(total);
+            System.out.printf("%-8s %5d %16d %16d %16d %12d%n", variant, first.size(),
+                    first.get(0), percentile(first, 0.5), percentile(first, 0.9), percentile(total, 0.5));
+        }
+    }
+
+    private static List<String> command(String java, List<String> jvmArgs, Path archive, Path jar) {
+        List<String> command = new ArrayList<>();
+        command.add(java);
+        command.addAll(jvmArgs);
+        if (archive != null) {
+            command.add("-XX:SharedArchiveFile=" + archive);
+        }
+        command.add("-jar");
+        command.add(jar.toString());
+        return command;
+    }
+
+    /**
+     * 启动一次命令行查询
+     *
+     * @return 到打印出查询结果和到进程退出的毫秒数
+     */
+    private static long[] launch(List<String> baseCommand, Path config, int run) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>(baseCommand);
+        command.addAll(Arrays.asList("--config", config.toString(), "startup-benchmark",
+                String.format("BV1st%07d", run), "false"));
+        ProcessBuilder builder = new ProcessBuilder(command).redirectErrorStream(true);
+
+        long start = System.nanoTime();
+        Process process = builder.start();
+        long firstOutput = -1;
+        List<String> tail = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (firstOutput < 0 && FIRST_OUTPUT.equals(line)) {
+                    firstOutput = System.nanoTime() - start;
+                }
+                if (line.contains("[cds]") && line.contains("warning")) {
+                    System.out.println("  " + line);
+                }
+                tail.add(line);
+                if (tail.size() > 20) {
+                    tail.remove(0);
+                }
+            }
+        }
+        int exitCode = process.waitFor();
+        long exit = System.nanoTime() - start;
+        if (exitCode != 0 || firstOutput < 0) {
+            throw new IllegalStateException("Launch failed (exit code " + exitCode + "): " + command
+                    + System.lineSeparator() + String.join(System.lineSeparator(), tail));
+        }
+        return new long[]{TimeUnit.NANOSECONDS.toMillis(firstOutput), TimeUnit.NANOSECONDS.toMillis(exit)};
+    }
+
+    private static long percentile(List<Long> sorted, double quantile) {
+        int index = (int) Math.ceil(quantile * sorted.size()) - 1;
+        return sorted.get(Math.max(0, Math.min(index, sorted.size() - 1)));
+    }
+}
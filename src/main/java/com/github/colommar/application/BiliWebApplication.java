@@ -1,16 +1,52 @@
 package com.github.colommar.application;
 
+import com.github.colommar.application.batch.BatchJournal;
+import com.github.colommar.application.batch.BatchResult;
+import com.github.colommar.application.batch.BatchRunner;
+import com.github.colommar.application.batch.BatchSummary;
+import com.github.colommar.application.batch.BvidSource;
+import com.github.colommar.application.batch.UploaderVideoSource;
+import com.github.colommar.application.export.ExportFormat;
+import com.github.colommar.application.export.SummaryExporter;
+import com.github.colommar.application.export.TextRenderer;
+import com.github.colommar.application.repoll.RepollListener;
+import com.github.colommar.application.repoll.RepollPolicy;
+import com.github.colommar.application.repoll.RepollScheduler;
+import com.github.colommar.application.server.BiliWebServer;
 import com.github.colommar.application.service.BiliWebService;
 import com.github.colommar.application.service.impl.BiliWebServiceImpl;
+import com.github.colommar.application.startup.TrainingRun;
+import com.github.colommar.infrastructure.archive.ArchivedVideo;
+import com.github.colommar.infrastructure.archive.SubtitleArchive;
+import com.github.colommar.infrastructure.archive.SubtitleSegment;
+import com.github.colommar.infrastructure.cache.DiskCache;
+import com.github.colommar.infrastructure.cache.MemoryCache;
 import com.github.colommar.infrastructure.config.ConfigLoader;
+import com.github.colommar.infrastructure.config.ConfigWatcher;
+import com.github.colommar.infrastructure.metrics.MetricsReport;
+import com.github.colommar.infrastructure.search.SearchHit;
+import com.github.colommar.infrastructure.search.SubtitleIndex;
+import com.github.colommar.infrastructure.util.HttpUtil;
 import lombok.extern.slf4j.Slf4j;
 import com.github.colommar.domain.model.AISummaryResponse;
+import com.github.colommar.domain.model.PageSummary;
 
-import java.io.FileWriter;
 import java.io.IOException;
-import java.io.PrintWriter;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 /**
  * B站AI字幕应用主类
@@ -19,6 +55,7 @@ import java.util.Date;
 public class BiliWebApplication {
     
     public static void main(String[] args) {
+        args = extractConfigOption(args);
         for(String arg : args) {
             if(arg.equalsIgnoreCase("-h") || arg.equalsIgnoreCase("--help")) {
                 printHelp();
@@ -26,9 +63,44 @@ public class BiliWebApplication {
             }
         }
 
+        if (args.length > 0 && args[0].equalsIgnoreCase("--batch")) {
+            System.exit(runBatch(args));
+        }
+        if (args.length > 0 && args[0].equalsIgnoreCase("--server")) {
+            runServer(args);
+            return;
+        }
+        if (args.length > 0 && args[0].equalsIgnoreCase("--repoll")) {
+            System.exit(runRepoll(args));
+        }
+        if (args.length > 0 && args[0].equalsIgnoreCase("--archive-get")) {
+            System.exit(runArchiveGet(args));
+        }
+        if (args.length > 0 && args[0].equalsIgnoreCase("--search")) {
+            System.exit(runSearch(args));
+        }
+        if (args.length > 0 && args[0].equalsIgnoreCase("--index-archive")) {
+            System.exit(runIndexArchive(args));
+        }
+        if (args.length > 0 && args[0].equalsIgnoreCase("--cds-train")) {
+            System.exit(TrainingRun.run());
+        }
+
+        boolean allPages = false;
+        List<String> positional = new ArrayList<>(args.length);
+        for (String arg : args) {
+            if (arg.equalsIgnoreCase("--all-pages")) {
+                allPages = true;
+            } else {
+                positional.add(arg);
+            }
+        }
+        args = positional.toArray(new String[0]);
+
         try {
             printBanner();
             log.info("Starting Bilibili AI Subtitles application...");
+            HttpUtil.warmUp();
             
             // 检查是否通过命令行参数运行
             boolean useArgs = args.length >= 2;
@@ -54,8 +126,13 @@ public class BiliWebApplication {
                     isTimeDetailOn = Boolean.parseBoolean(args[3]);
                 }
                 
-                // 设置命令行参数值到ConfigLoader
-                ConfigLoader.setArgsValues(sessdata, videoId, isTimeDetailOn, isFileOutput);
+                // 命令行参数优先于配置文件
+                Map<String, String> overrides = new HashMap<>();
+                overrides.put("sessdata", sessdata);
+                overrides.put("videoId", videoId);
+                overrides.put("isTimeDetailOn", String.valueOf(isTimeDetailOn));
+                overrides.put("isFileOutput", String.valueOf(isFileOutput));
+                ConfigLoader.applyOverrides(overrides);
             } else {
                 // 从配置文件加载
                 sessdata = ConfigLoader.loadSessdataFromConfig();
@@ -70,20 +147,35 @@ public class BiliWebApplication {
             
             BiliWebService biliWebService = new BiliWebServiceImpl();
             
+            if (allPages) {
+                List<PageSummary> pages = biliWebService.getPageSummaries(videoId);
+                outputPages(pages, videoId, isTimeDetailOn, isFileOutput);
+                MetricsReport.printSummary(System.err);
+                log.info("Application execution completed");
+                return;
+            }
+            
             AISummaryResponse response = biliWebService.getAISummary(videoId);
 
             if (response.getData() != null && response.getData().getModel_result() != null) {
                 log.info("AI summary retrieved successfully");
                 
-                outputToConsole(response, isTimeDetailOn);
+                outputToConsole(response, videoId, isTimeDetailOn);
                 
                 if (isFileOutput) {
-                    outputToFile(response, videoId, isTimeDetailOn);
+                    outputToFile(response, videoId, videoId, isTimeDetailOn,
+                            ExportFormat.parseList(ConfigLoader.loadOutputFormatsFromConfig()));
                 }
             } else {
                 log.warn("No summary data retrieved");
+                try (RepollScheduler repollScheduler = openRepollScheduler(biliWebService, (bvid, ready) -> { })) {
+                    repollScheduler.submit(videoId);
+                }
+                System.out.println("AI摘要尚未生成，已加入重新检查队列，运行 --repoll 持续检查");
             }
             
+            // 指标输出到标准错误，保持标准输出只有摘要内容
+            MetricsReport.printSummary(System.err);
             log.info("Application execution completed");
             
         } catch (Exception e) {
@@ -92,6 +184,407 @@ public class BiliWebApplication {
         }
     }
 
+    /**
+     * 处理任意位置的 {@code --config <file>}，指定外部配置文件后从参数中移除
+     */
+    private static String[] extractConfigOption(String[] args) {
+        List<String> rest = new ArrayList<>(args.length);
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equalsIgnoreCase("--config") && i + 1 < args.length) {
+                ConfigLoader.setExternalFile(Paths.get(args[++i].trim()));
+            } else {
+                rest.add(args[i]);
+            }
+        }
+        return rest.toArray(new String[0]);
+    }
+
+    /**
+     * 批量模式：从文件或标准输入读取BV号，或者列出UP主的全部投稿，并发获取
+     *
+     * @return 进程退出码，存在失败视频或投稿列表获取失败时返回2
+     */
+    private static int runBatch(String[] args) {
+        String input = null;
+        List<Long> uploaders = null;
+        Integer concurrency = null;
+        String sessdata = null;
+        String journalFile = null;
+        String archiveDir = null;
+        String indexDir = null;
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].equalsIgnoreCase("--concurrency") && i + 1 < args.length) {
+                try {
+                    concurrency = Integer.parseInt(args[++i].trim());
+                } catch (NumberFormatException e) {
+                    System.err.println("Invalid --concurrency value: " + args[i].trim());
+                    return 1;
+                }
+            } else if (args[i].equalsIgnoreCase("--journal") && i + 1 < args.length) {
+                journalFile = args[++i].trim();
+            } else if (args[i].equalsIgnoreCase("--archive") && i + 1 < args.length) {
+                archiveDir = args[++i].trim();
+            } else if (args[i].equalsIgnoreCase("--index") && i + 1 < args.length) {
+                indexDir = args[++i].trim();
+            } else if (args[i].equalsIgnoreCase("--sessdata") && i + 1 < args.length) {
+                sessdata = args[++i].trim();
+            } else if (args[i].equalsIgnoreCase("--uploader") && i + 1 < args.length) {
+                try {
+                    uploaders = UploaderVideoSource.parseMids(args[++i]);
+                } catch (IllegalArgumentException e) {
+                    System.err.println(e.getMessage());
+                    return 1;
+                }
+            } else if (input == null) {
+                input = args[i].trim();
+            }
+        }
+        if (input == null && uploaders == null) {
+            System.err.println("Missing input file for --batch, use - for stdin, or --uploader <mid,...>");
+            return 1;
+        }
+
+        try {
+            printBanner();
+            log.info("Starting Bilibili AI Subtitles batch mode...");
+            HttpUtil.warmUp();
+
+            Map<String, String> overrides = new HashMap<>();
+            overrides.put("sessdata", sessdata);
+            overrides.put("batchConcurrency", concurrency != null ? String.valueOf(concurrency) : null);
+            ConfigLoader.applyOverrides(overrides);
+            boolean isTimeDetailOn = ConfigLoader.loadIsTimeDetailOnFromConfig();
+            boolean isFileOutput = ConfigLoader.loadIsFileOutputFromConfig();
+            Set<ExportFormat> formats = ExportFormat.parseList(ConfigLoader.loadOutputFormatsFromConfig());
+            int workers = ConfigLoader.loadBatchConcurrencyFromConfig();
+
+            BiliWebService biliWebService = new BiliWebServiceImpl();
+            BatchSummary summary;
+            long skipped = 0;
+            List<Long> failedUploaders = Collections.emptyList();
+            try (ConfigWatcher watcher = ConfigWatcher.start();
+                 RepollScheduler repollScheduler = openRepollScheduler(biliWebService, (bvid, ready) -> { });
+                 BatchJournal journal = journalFile != null ? BatchJournal.open(Paths.get(journalFile)) : null;
+                 SubtitleArchive archive = archiveDir != null ? openArchive(archiveDir) : null;
+                 SubtitleIndex index = indexDir != null ? SubtitleIndex.open(Paths.get(indexDir)) : null;
+                 BvidSource source = uploaders == null ? BvidSource.open(input) : null;
+                 UploaderVideoSource uploaderSource = uploaders != null
+                         ? new UploaderVideoSource(biliWebService, uploaders) : null) {
+                Iterator<String> bvids = source != null ? source : uploaderSource;
+                BatchRunner runner = new BatchRunner(biliWebService, workers, result -> {
+                    if (result.getStatus() == BatchResult.Status.SUCCESS && isFileOutput) {
+                        outputToFile(result.getResponse(), result.getBvid(), result.getBvid(), isTimeDetailOn, formats);
+                    } else if (result.getStatus() == BatchResult.Status.NO_SUMMARY) {
+                        repollScheduler.submit(result.getBvid());
+                    }
+                    if (result.getStatus() == BatchResult.Status.SUCCESS && archive != null) {
+                        outputToArchive(archive, result.getBvid(), result.getResponse());
+                    }
+                    if (result.getStatus() == BatchResult.Status.SUCCESS && index != null) {
+                        outputToIndex(index, result.getBvid(), result.getResponse());
+                    }
+                    printBatchResult(result);
+                    // 文件写出后再记录；归档和索引先缓存在内存中，续跑时另行确认已经写出
+                    if (journal != null) {
+                        journal.record(result);
+                    }
+                });
+                ConfigLoader.addListener(config -> {
+                    try {
+                        runner.setConcurrency(ConfigLoader.loadBatchConcurrencyFromConfig());
+                    } catch (IOException e) {
+                        log.error("Keeping current batch concurrency: {}", e.getMessage());
+                    }
+                });
+                summary = runner.run(journal != null
+                        ? journal.skipCompleted(bvids, bvid -> (archive == null || archive.find(bvid) != null)
+                                && (index == null || index.contains(bvid)))
+                        : bvids);
+                if (journal != null) {
+                    skipped = journal.getSkipped();
+                }
+                if (uploaderSource != null) {
+                    failedUploaders = uploaderSource.getFailedMids();
+                }
+            }
+
+            System.out.println("Batch finished: total=" + summary.getTotal()
+                    + ", succeeded=" + summary.getSucceeded()
+                    + ", noSummary=" + summary.getNoSummary()
+                    + ", failed=" + summary.getFailed()
+                    + ", elapsed=" + summary.getElapsedMillis() + "ms"
+                    + (skipped > 0 ? ", skipped=" + skipped : ""));
+            if (!failedUploaders.isEmpty()) {
+                System.out.println("Failed to list uploader(s): " + failedUploaders);
+            }
+            for (DiskCache<?> cache : DiskCache.instances()) {
+                System.out.println(cache);
+            }
+            MetricsReport.printSummary(System.out);
+            return summary.getFailed() > 0 || !failedUploaders.isEmpty() ? 2 : 0;
+
+        } catch (Exception e) {
+            log.error("Batch execution failed: {}", e.getMessage(), e);
+            return 1;
+        }
+    }
+
+    /**
+     * 重新检查模式：持续检查队列中尚未生成摘要的视频，生成后输出文件，直到队列为空
+     *
+     * @return 进程退出码
+     */
+    private static int runRepoll(String[] args) {
+        String sessdata = null;
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].equalsIgnoreCase("--sessdata") && i + 1 < args.length) {
+                sessdata = args[++i].trim();
+            }
+        }
+
+        try {
+            printBanner();
+            log.info("Starting Bilibili AI Subtitles re-poll mode...");
+
+            ConfigLoader.applyOverrides(Collections.singletonMap("sessdata", sessdata));
+            boolean isTimeDetailOn = ConfigLoader.loadIsTimeDetailOnFromConfig();
+            boolean isFileOutput = ConfigLoader.loadIsFileOutputFromConfig();
+            Set<ExportFormat> formats = ExportFormat.parseList(ConfigLoader.loadOutputFormatsFromConfig());
+            ConfigWatcher.start();
+
+            RepollScheduler repollScheduler = openRepollScheduler(new BiliWebServiceImpl(), new RepollListener() {
+                @Override
+                public void onReady(String bvid, AISummaryResponse response) {
+                    System.out.println("[READY] " + bvid);
+                    if (isFileOutput) {
+                        outputToFile(response, bvid, bvid, isTimeDetailOn, formats);
+                    }
+                }
+
+                @Override
+                public void onExpired(String bvid, int attempts) {
+                    System.out.println("[EXPIRED] " + bvid + " (" + attempts + " checks)");
+                }
+            });
+            if (repollScheduler.size() == 0) {
+                System.out.println("Re-poll queue is empty");
+                return 0;
+            }
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    repollScheduler.close();
+                } catch (IOException e) {
+                    log.warn("Failed to save re-poll state: {}", e.getMessage());
+                }
+            }, "repoll-shutdown"));
+
+            System.out.println("Waiting for " + repollScheduler.size() + " video(s)...");
+            repollScheduler.start();
+            repollScheduler.awaitEmpty();
+            repollScheduler.close();
+            return 0;
+
+        } catch (Exception e) {
+            log.error("Re-poll execution failed: {}", e.getMessage(), e);
+            return 1;
+        }
+    }
+
+    /**
+     * 归档查询模式：从字幕归档中读取单个视频并按格式输出到标准输出
+     *
+     * @return 进程退出码，视频不在归档中时返回2
+     */
+    private static int runArchiveGet(String[] args) {
+        if (args.length < 3) {
+            System.err.println("Usage: --archive-get <dir> <bvid> [format]");
+            return 1;
+        }
+        try {
+            SubtitleArchive archive = openArchive(args[1].trim());
+            String bvid = args[2].trim();
+            ArchivedVideo video = archive.find(bvid);
+            if (video == null) {
+                System.err.println("Not found in archive: " + bvid);
+                return 2;
+            }
+            ExportFormat format = ExportFormat.parse(args.length > 3 ? args[3].trim() : "srt");
+            Writer console = new OutputStreamWriter(System.out, StandardCharsets.UTF_8);
+            SummaryExporter.render(bvid, video.toModelResult(),
+                    Collections.singletonList(format.createRenderer(console, true)));
+            console.flush();
+            return 0;
+
+        } catch (Exception e) {
+            log.error("Archive lookup failed: {}", e.getMessage(), e);
+            return 1;
+        }
+    }
+
+    /**
+     * 检索模式：在全文索引中查找提到查询词的视频
+     *
+     * @return 进程退出码，没有命中时返回2
+     */
+    private static int runSearch(String[] args) {
+        if (args.length < 3) {
+            System.err.println("Usage: --search <indexDir> <query> [limit]");
+            return 1;
+        }
+        int limit = 20;
+        if (args.length > 3) {
+            try {
+                limit = Integer.parseInt(args[3].trim());
+            } catch (NumberFormatException ignored) {
+                // 统一在下方报错
+                limit = 0;
+            }
+            if (limit <= 0) {
+                System.err.println("Invalid search limit: " + args[3].trim());
+                System.err.println("Usage: --search <indexDir> <query> [limit]");
+                return 1;
+            }
+        }
+        try {
+            SubtitleIndex index = SubtitleIndex.open(Paths.get(args[1].trim()));
+            List<SearchHit> hits = index.search(args[2], limit);
+            for (SearchHit hit : hits) {
+                StringBuilder line = new StringBuilder(hit.getBvid())
+                        .append(String.format("  %.3f ", hit.getScore()));
+                for (long millis : hit.getTimestampsMillis()) {
+                    long seconds = millis / 1000;
+                    line.append(seconds >= 3600
+                            ? String.format(" %d:%02d:%02d", seconds / 3600, seconds / 60 % 60, seconds % 60)
+                            : String.format(" %d:%02d", seconds / 60, seconds % 60));
+                }
+                System.out.println(line);
+            }
+            return hits.isEmpty() ? 2 : 0;
+
+        } catch (Exception e) {
+            log.error("Search failed: {}", e.getMessage(), e);
+            return 1;
+        }
+    }
+
+    /**
+     * 把字幕归档中的所有视频加入全文索引；归档不保存提纲，只索引摘要和字幕
+     *
+     * @return 进程退出码
+     */
+    private static int runIndexArchive(String[] args) {
+        if (args.length < 3) {
+            System.err.println("Usage: --index-archive <archiveDir> <indexDir>");
+            return 1;
+        }
+        try (SubtitleIndex index = SubtitleIndex.open(Paths.get(args[2].trim()))) {
+            SubtitleArchive archive = openArchive(args[1].trim());
+            List<SubtitleSegment> segments = new ArrayList<>(archive.segments());
+            // 从旧到新写入，同一个视频以最新的一份为准
+            Collections.reverse(segments);
+            long count = 0;
+            for (SubtitleSegment segment : segments) {
+                for (int i = 0; i < segment.videoCount(); i++) {
+                    ArchivedVideo video = segment.video(i);
+                    index.add(video.bvid(), video.toModelResult());
+                    count++;
+                }
+            }
+            System.out.println("Indexed " + count + " video(s) from " + segments.size() + " segment(s)");
+            return 0;
+
+        } catch (Exception e) {
+            log.error("Indexing failed: {}", e.getMessage(), e);
+            return 1;
+        }
+    }
+
+    private static SubtitleArchive openArchive(String directory) throws IOException {
+        return SubtitleArchive.open(Paths.get(directory),
+                ConfigLoader.loadArchiveSegmentMaxMegabytesFromConfig() * 1024L * 1024L);
+    }
+
+    /**
+     * 打开重新检查队列，状态文件位于缓存目录下
+     */
+    private static RepollScheduler openRepollScheduler(BiliWebService biliWebService,
+                                                       RepollListener listener) throws IOException {
+        return new RepollScheduler(biliWebService,
+                Paths.get(ConfigLoader.loadCacheDirFromConfig(), "repoll.json"),
+                RepollPolicy.fromConfig(), listener, ConfigLoader.loadRepollConcurrencyFromConfig());
+    }
+
+    /**
+     * 服务模式：启动常驻HTTP服务，直到进程收到终止信号
+     */
+    private static void runServer(String[] args) {
+        Integer port = null;
+        String sessdata = null;
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].equalsIgnoreCase("--port") && i + 1 < args.length) {
+                try {
+                    port = Integer.parseInt(args[++i].trim());
+                } catch (NumberFormatException e) {
+                    System.err.println("Invalid --port value: " + args[i].trim());
+                    System.exit(1);
+                }
+            } else if (args[i].equalsIgnoreCase("--sessdata") && i + 1 < args.length) {
+                sessdata = args[++i].trim();
+            }
+        }
+
+        try {
+            printBanner();
+            log.info("Starting Bilibili AI Subtitles server mode...");
+            HttpUtil.warmUp();
+
+            ConfigLoader.applyOverrides(Collections.singletonMap("sessdata", sessdata));
+            MemoryCache<String, AISummaryResponse> cache = new MemoryCache<>(
+                    ConfigLoader.loadServerCacheMaxEntriesFromConfig(),
+                    TimeUnit.SECONDS.toMillis(ConfigLoader.loadServerCacheTtlSecondsFromConfig()));
+            BiliWebService biliWebService = new BiliWebServiceImpl();
+            // 摘要生成后直接放入缓存，下次请求无需再访问B站
+            RepollScheduler repollScheduler = openRepollScheduler(biliWebService, cache::put);
+            BiliWebServer server = new BiliWebServer(biliWebService,
+                    port != null ? port : ConfigLoader.loadServerPortFromConfig(),
+                    ConfigLoader.loadServerWorkersFromConfig(),
+                    ConfigLoader.loadServerQueueCapacityFromConfig(),
+                    cache, repollScheduler);
+            int graceSeconds = ConfigLoader.loadServerShutdownGraceSecondsFromConfig();
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> server.stop(graceSeconds), "server-shutdown"));
+            ConfigLoader.addListener(config -> {
+                try {
+                    server.setWorkers(ConfigLoader.loadServerWorkersFromConfig());
+                } catch (IOException e) {
+                    log.error("Keeping current server workers: {}", e.getMessage());
+                }
+            });
+            ConfigWatcher.start();
+            repollScheduler.start();
+            server.start();
+
+        } catch (Exception e) {
+            log.error("Server startup failed: {}", e.getMessage(), e);
+            System.exit(1);
+        }
+    }
+
+    /**
+     * 输出单个视频的批量处理结果
+     */
+    private static synchronized void printBatchResult(BatchResult result) {
+        switch (result.getStatus()) {
+            case SUCCESS:
+                System.out.println("[OK] " + result.getBvid() + " (" + result.getElapsedMillis() + "ms)");
+                break;
+            case NO_SUMMARY:
+                System.out.println("[EMPTY] " + result.getBvid() + " (" + result.getElapsedMillis() + "ms)");
+                break;
+            default:
+                System.out.println("[FAIL] " + result.getBvid() + ": " + result.getError());
+        }
+    }
+
     private static void printBanner() {
         System.out.println("             ,--.                                           \n" +
                 " ,---. ,---. |  | ,---. ,--,--,--.,--,--,--. ,--,--.,--.--. \n" +
@@ -105,13 +598,36 @@ public class BiliWebApplication {
     public static void printHelp() {
         printBanner();
         System.out.println("Usage:");
-        System.out.println("  myapp.exe <sessdata> <videoId> [isTimeDetailOn] [isFileOutput]");
+        System.out.println("  myapp.exe <sessdata> <videoId> [isTimeDetailOn] [isFileOutput] [--all-pages]");
+        System.out.println("  myapp.exe --batch <file|-> [--concurrency N] [--journal F] [--archive DIR] [--index DIR] [--sessdata S]");
+        System.out.println("  myapp.exe --batch --uploader <mid[,mid...]> [--concurrency N] [--journal F] [--archive DIR] [--index DIR] [--sessdata S]");
+        System.out.println("  myapp.exe --server [--port P] [--sessdata S]");
+        System.out.println("  myapp.exe --repoll [--sessdata S]");
+        System.out.println("  myapp.exe --archive-get <dir> <bvid> [format]");
+        System.out.println("  myapp.exe --search <indexDir> <query> [limit]");
+        System.out.println("  myapp.exe --index-archive <archiveDir> <indexDir>");
+        System.out.println("  myapp.exe --cds-train");
         System.out.println();
         System.out.println("Arguments:");
-        System.out.println("  sessdata        (required) Your session data");
+        System.out.println("  --config        (optional, any mode) external config file, default ./config.properties; watched for changes in long-running modes");
+        System.out.println("  sessdata        (required) Your session data, separate several with commas to use an account pool");
         System.out.println("  videoId         (required) Video ID to process");
         System.out.println("  isFileOutput    (optional) true/false, default from config(true)");
         System.out.println("  isTimeDetailOn  (optional) true/false, default from config(false)");
+        System.out.println("  --all-pages     fetch the summary of every page of a multi-part video, in page order");
+        System.out.println("  --batch         read BV IDs from a file (or - for stdin), one per line");
+        System.out.println("  --concurrency   (optional) batch worker count, default from config(batchConcurrency)");
+        System.out.println("  --uploader      batch every upload of the given uploader(s), newest first, instead of reading a file");
+        System.out.println("  --journal       (optional) batch progress journal, videos already done or pending in it are skipped");
+        System.out.println("  --archive       (optional) also write subtitles into compact segment files under DIR");
+        System.out.println("  --archive-get   print one video from a subtitle archive, format srt (default), vtt, txt, json or md");
+        System.out.println("  --index         (optional) also add summaries, outlines and subtitles to a full-text index under DIR");
+        System.out.println("  --search        list videos mentioning the query, best first, with the times it is said");
+        System.out.println("  --index-archive add every video of a subtitle archive to a full-text index");
+        System.out.println("  --server        serve GET /summary/{bvid} and /subtitles/{bvid}?format=srt over HTTP");
+        System.out.println("  --port          (optional) server port, default from config(serverPort)");
+        System.out.println("  --repoll        keep re-checking videos whose summary was not ready, until all are ready or expire");
+        System.out.println("  --cds-train     offline run against a built-in local API, used by the build to create a class-data sharing archive");
         System.out.println();
         System.out.println("Examples:");
         System.out.println("  myapp.exe abc123 xyz789");
@@ -120,6 +636,12 @@ public class BiliWebApplication {
         System.out.println("      -> overrides isFileOutput, uses default isTimeDetailOn");
         System.out.println("  myapp.exe abc123 xyz789 false true");
         System.out.println("      -> overrides both optional parameters");
+        System.out.println("  myapp.exe abc123 xyz789 --all-pages");
+        System.out.println("      -> fetches every page of a multi-part video, pageConcurrency at a time");
+        System.out.println("  myapp.exe --batch bvids.txt --concurrency 8");
+        System.out.println("      -> fetches every BV ID in bvids.txt (one per line) with 8 workers");
+        System.out.println("  myapp.exe --batch bvids.txt --journal bvids.journal");
+        System.out.println("      -> records progress in bvids.journal, rerun the same command to resume after a crash");
         System.out.println("  myapp.exe -h");
         System.out.println("      -> shows this help message");
         System.out.println();
@@ -129,100 +651,81 @@ public class BiliWebApplication {
     /**
      * 输出到控制台
      */
-    private static void outputToConsole(AISummaryResponse response, boolean isTimeDetailOn) {
+    private static void outputToConsole(AISummaryResponse response, String videoId, boolean isTimeDetailOn) throws IOException {
         System.out.println("AI summary retrieved successfully");
-        System.out.println("Summary: " + response.getData().getModel_result().getSummary());
-        
-        // Output outline
-        System.out.println("\n=== Video Outline ===");
-        for (AISummaryResponse.Outline outline : response.getData().getModel_result().getOutline()) {
-            if (isTimeDetailOn) {
-                System.out.println("Title: " + outline.getTitle() + " (Timestamp: " + outline.getTimestamp() + "s)");
-            } else {
-                System.out.println("Title: " + outline.getTitle());
-            }
-            for (AISummaryResponse.PartOutline part : outline.getPart_outline()) {
-                if (isTimeDetailOn) {
-                    System.out.println("  - " + part.getContent() + " (时间戳: " + part.getTimestamp() + "s)");
-                } else {
-                    System.out.println("  - " + part.getContent());
-                }
+        Writer console = new OutputStreamWriter(System.out);
+        SummaryExporter.render(videoId, response.getData().getModel_result(),
+                Collections.singletonList(new TextRenderer(console, isTimeDetailOn, false)));
+    }
+    
+    /**
+     * 按分P顺序输出多P视频的AI摘要，文件名带分P序号
+     */
+    private static void outputPages(List<PageSummary> pages, String videoId, boolean isTimeDetailOn,
+                                    boolean isFileOutput) throws IOException {
+        Set<ExportFormat> formats = isFileOutput
+                ? ExportFormat.parseList(ConfigLoader.loadOutputFormatsFromConfig()) : Collections.emptySet();
+        int succeeded = 0;
+        for (PageSummary page : pages) {
+            System.out.println();
+            System.out.println("===== P" + page.getPage().getPage()
+                    + (page.getPage().getTitle() != null ? " " + page.getPage().getTitle() : "") + " =====");
+            if (page.getError() != null) {
+                System.out.println("获取失败: " + page.getError().getMessage());
+                continue;
             }
-        }
-        
-        // 输出字幕
-        System.out.println("\n=== AI字幕 ===");
-        for (AISummaryResponse.Subtitle subtitle : response.getData().getModel_result().getSubtitle()) {
-            String title = subtitle.getTitle().isEmpty() ? "无标题" : subtitle.getTitle();
-            if (isTimeDetailOn) {
-                System.out.println("标题: " + title + " (时间戳: " + subtitle.getTimestamp() + "s)");
-            } else {
-                System.out.println("标题: " + title);
+            AISummaryResponse response = page.getResponse();
+            if (response.getData() == null || response.getData().getModel_result() == null) {
+                System.out.println("暂无AI摘要");
+                continue;
             }
-            for (AISummaryResponse.PartSubtitle part : subtitle.getPart_subtitle()) {
-                if (isTimeDetailOn) {
-                    System.out.println("  - " + part.getContent() + " (" + part.getStart_timestamp() + "s - " + part.getEnd_timestamp() + "s)");
-                } else {
-                    System.out.println("  - " + part.getContent());
-                }
+            succeeded++;
+            outputToConsole(response, videoId, isTimeDetailOn);
+            if (isFileOutput) {
+                outputToFile(response, videoId, videoId + "_p" + page.getPage().getPage(), isTimeDetailOn, formats);
             }
         }
+        System.out.println();
+        System.out.println("Pages finished: total=" + pages.size() + ", succeeded=" + succeeded);
+    }
+    
+    /**
+     * 写入字幕归档
+     */
+    private static void outputToArchive(SubtitleArchive archive, String videoId, AISummaryResponse response) {
+        try {
+            archive.add(videoId, response.getData().getModel_result());
+        } catch (IOException e) {
+            System.err.println("写入归档失败: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * 写入全文索引
+     */
+    private static void outputToIndex(SubtitleIndex index, String videoId, AISummaryResponse response) {
+        try {
+            index.add(videoId, response.getData().getModel_result());
+        } catch (IOException e) {
+            System.err.println("写入索引失败: " + e.getMessage());
+        }
     }
     
     /**
-     * 输出到文件
+     * 输出到文件，一次遍历写出所有配置的格式
      */
-    private static void outputToFile(AISummaryResponse response, String videoId, boolean isTimeDetailOn) {
+    private static void outputToFile(AISummaryResponse response, String videoId, String fileId,
+                                     boolean isTimeDetailOn, Set<ExportFormat> formats) {
         try {
-            // 生成文件名：VideoId + 时间戳
+            // 生成文件名：VideoId(分P) + 时间戳
             String timestamp = new SimpleDateFormat("yyyyMMdd_HHmmss").format(new Date());
-            String fileName = videoId + "_" + timestamp + ".txt";
+            Map<ExportFormat, Path> files = SummaryExporter.export(videoId, response.getData().getModel_result(),
+                    Paths.get("."), fileId + "_" + timestamp, formats, isTimeDetailOn);
             
-            try (PrintWriter writer = new PrintWriter(new FileWriter(fileName, false))) {
-                writer.println("B站AI字幕摘要 - " + videoId);
-                writer.println("生成时间: " + new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").format(new Date()));
-                writer.println("==================================================");
-                
-                writer.println("摘要: " + response.getData().getModel_result().getSummary());
-                
-                // 输出大纲
-                writer.println("\n=== 视频大纲 ===");
-                for (AISummaryResponse.Outline outline : response.getData().getModel_result().getOutline()) {
-                    if (isTimeDetailOn) {
-                        writer.println("标题: " + outline.getTitle() + " (时间戳: " + outline.getTimestamp() + "s)");
-                    } else {
-                        writer.println("标题: " + outline.getTitle());
-                    }
-                    for (AISummaryResponse.PartOutline part : outline.getPart_outline()) {
-                        if (isTimeDetailOn) {
-                            writer.println("  - " + part.getContent() + " (时间戳: " + part.getTimestamp() + "s)");
-                        } else {
-                            writer.println("  - " + part.getContent());
-                        }
-                    }
-                }
-                
-                // 输出字幕
-                writer.println("\n=== AI字幕 ===");
-                for (AISummaryResponse.Subtitle subtitle : response.getData().getModel_result().getSubtitle()) {
-                    String title = subtitle.getTitle().isEmpty() ? "无标题" : subtitle.getTitle();
-                    if (isTimeDetailOn) {
-                        writer.println("标题: " + title + " (时间戳: " + subtitle.getTimestamp() + "s)");
-                    } else {
-                        writer.println("标题: " + title);
-                    }
-                    for (AISummaryResponse.PartSubtitle part : subtitle.getPart_subtitle()) {
-                        if (isTimeDetailOn) {
-                            writer.println("  - " + part.getContent() + " (" + part.getStart_timestamp() + "s - " + part.getEnd_timestamp() + "s)");
-                        } else {
-                            writer.println("  - " + part.getContent());
-                        }
-                    }
-                }
+            for (Path file : files.values()) {
+                System.out.println("文件已保存: " + file.getFileName());
             }
             
-            System.out.println("文件已保存: " + fileName);
-            
         } catch (IOException e) {
             System.err.println("保存文件失败: " + e.getMessage());
         }
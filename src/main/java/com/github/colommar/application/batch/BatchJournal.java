@@ -0,0 +1,289 @@
+package com.github.colommar.application.batch;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.Predicate;
+
+/**
+ * 批量任务的追加式进度日志
+ * <p>
+ * 每个视频完成后追加一行 {@code 状态\tBV号[\t错误码]}，状态为 DONE、PENDING（尚未生成摘要）或 FAILED。
+ * 写入由单独的线程完成：一次取出队列中所有记录，合并写入后只调用一次 {@code fsync}（组提交），
+ * 调用方只需入队，不等待磁盘。进程崩溃时最多丢失最后一组尚未落盘的记录，重启后这些视频会被重新处理。
+ * <p>
+ * 打开时回放已有日志，DONE 与 PENDING 的视频会被跳过，FAILED 的视频重新处理；
+ * 输出先缓存在内存中（如字幕归档、全文索引）时，DONE 还需要调用方确认输出已经落盘。
+ * 关闭时压缩日志，每个视频只保留最后一条记录。
+ */
+@Slf4j
+public class BatchJournal implements Closeable {
+
+    private static final int QUEUE_CAPACITY = 64 * 1024;
+    private static final int MAX_GROUP = 4096;
+    private static final String DONE = "DONE";
+    private static final String PENDING = "PENDING";
+    private static final String FAILED = "FAILED";
+    private static final String CLOSE_MARKER = new String("close");
+
+    private final Path file;
+    private final Map<String, String> replayed;
+    private final BlockingQueue<String> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final FileChannel channel;
+    private final Thread writer;
+    private volatile IOException failure;
+    private long skipped;
+
+    private BatchJournal(Path file, Map<String, String> replayed) throws IOException {
+        this.file = file;
+        this.replayed = replayed;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        this.writer = new Thread(this::writeLoop, "batch-journal");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * 打开进度日志，存在时先回放
+     *
+     * @param file 日志文件
+     * @return 进度日志
+     * @throws IOException 读取或打开失败时抛出异常
+     */
+    public static BatchJournal open(Path file) throws IOException {
+        Map<String, String> replayed = new LinkedHashMap<>();
+        if (Files.exists(file)) {
+            truncateTornTail(file);
+            replay(file, replayed);
+            log.info("Replayed batch journal {} with {} video(s)", file, replayed.size());
+        }
+        return new BatchJournal(file, replayed);
+    }
+
+    /**
+     * 跳过日志中已完成的视频
+     *
+     * @param bvids BV号输入
+     * @param persisted 记为 DONE 的视频的输出是否已经落盘，未落盘时重新处理
+     * @return 只包含未完成视频的输入
+     */
+    public Iterator<String> skipCompleted(Iterator<String> bvids, Predicate<String> persisted) {
+        return new Iterator<String>() {
+            private String next;
+
+            @Override
+            public boolean hasNext() {
+                while (next == null && bvids.hasNext()) {
+                    String bvid = bvids.next();
+                    String line = replayed.get(bvid);
+                    if (line != null && line.startsWith(DONE) && !persisted.test(bvid)) {
+                        log.debug("{} is done in the journal but its output was never flushed, reprocessing", bvid);
+                        next = bvid;
+                    } else if (isCompleted(bvid)) {
+                        skipped++;
+                    } else {
+                        next = bvid;
+                    }
+                }
+                return next != null;
+            }
+
+            @Override
+            public String next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                String bvid = next;
+                next = null;
+                return bvid;
+            }
+        };
+    }
+
+    /**
+     * 上次运行中已完成或已进入重新检查队列
+     */
+    public boolean isCompleted(String bvid) {
+        String line = replayed.get(bvid);
+        return line != null && !line.startsWith(FAILED);
+    }
+
+    /**
+     * 因日志而跳过的视频数
+     */
+    public long getSkipped() {
+        return skipped;
+    }
+
+    /**
+     * 记录单个视频的结果；只入队不等待落盘，队列满时阻塞
+     *
+     * @param result 处理结果
+     */
+    public void record(BatchResult result) {
+        String line;
+        switch (result.getStatus()) {
+            case SUCCESS:
+                line = DONE + "\t" + result.getBvid();
+                break;
+            case NO_SUMMARY:
+                line = PENDING + "\t" + result.getBvid();
+                break;
+            default:
+                line = FAILED + "\t" + result.getBvid() + "\t" + result.getErrorCode();
+        }
+        try {
+            queue.put(line + "\n");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 写出剩余记录并压缩日志
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            queue.put(CLOSE_MARKER);
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        channel.close();
+        if (failure != null) {
+            throw failure;
+        }
+        compact();
+    }
+
+    private void writeLoop() {
+        List<String> group = new ArrayList<>();
+        StringBuilder buffer = new StringBuilder();
+        boolean closing = false;
+        while (!closing) {
+            try {
+                group.add(queue.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            queue.drainTo(group, MAX_GROUP);
+
+            for (String line : group) {
+                if (line == CLOSE_MARKER) {
+                    closing = true;
+                } else {
+                    buffer.append(line);
+                }
+            }
+            group.clear();
+            if (buffer.length() == 0 || failure != null) {
+                buffer.setLength(0);
+                continue;
+            }
+            try {
+                ByteBuffer bytes = ByteBuffer.wrap(buffer.toString().getBytes(StandardCharsets.UTF_8));
+                while (bytes.hasRemaining()) {
+                    channel.write(bytes);
+                }
+                channel.force(false);
+            } catch (IOException e) {
+                log.error("Failed to write batch journal {}: {}", file, e.getMessage());
+                failure = e;
+            }
+            buffer.setLength(0);
+        }
+    }
+
+    /**
+     * 每个视频只保留最后一条记录，先写临时文件再原子替换
+     */
+    private void compact() throws IOException {
+        Map<String, String> latest = new LinkedHashMap<>();
+        replay(file, latest);
+        Path temp = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName().toString(), ".tmp");
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            StringBuilder content = new StringBuilder(latest.size() * 24);
+            for (String line : latest.values()) {
+                content.append(line).append('\n');
+            }
+            ByteBuffer bytes = ByteBuffer.wrap(content.toString().getBytes(StandardCharsets.UTF_8));
+            while (bytes.hasRemaining()) {
+                out.write(bytes);
+            }
+            out.force(false);
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        try {
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+        log.info("Compacted batch journal {} to {} video(s)", file, latest.size());
+    }
+
+    /**
+     * 截掉崩溃时写了一半的最后一行，避免与之后追加的记录拼在一起
+     */
+    private static void truncateTornTail(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long end = channel.size();
+            ByteBuffer single = ByteBuffer.allocate(1);
+            while (end > 0) {
+                ((Buffer) single).clear();
+                channel.read(single, end - 1);
+                if (single.get(0) == '\n') {
+                    break;
+                }
+                end--;
+            }
+            if (end < channel.size()) {
+                log.warn("Dropping {} byte(s) of incomplete record at the end of {}", channel.size() - end, file);
+                channel.truncate(end);
+            }
+        }
+    }
+
+    /**
+     * 读取日志，后出现的记录覆盖先前的记录；崩溃时写了一半的行会被忽略
+     */
+    private static void replay(Path file, Map<String, String> states) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split("\t");
+                if (fields.length < 2 || !isStatus(fields[0])) {
+                    continue;
+                }
+                states.remove(fields[1]);
+                states.put(fields[1], line);
+            }
+        }
+    }
+
+    private static boolean isStatus(String value) {
+        return DONE.equals(value) || PENDING.equals(value) || FAILED.equals(value);
+    }
+}
@@ -0,0 +1,16 @@
+package com.github.colommar.application.batch;
+
+/**
+ * 批量任务结果回调
+ * <p>
+ * 回调会在工作线程中并发执行，实现类需要自行保证线程安全。
+ */
+public interface BatchListener {
+
+    /**
+     * 单个视频处理完成
+     *
+     * @param result 处理结果
+     */
+    void onResult(BatchResult result);
+}
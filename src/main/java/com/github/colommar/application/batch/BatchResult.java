@@ -0,0 +1,33 @@
+package com.github.colommar.application.batch;
+
+import com.github.colommar.domain.model.AISummaryResponse;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * 批量任务中单个视频的处理结果
+ */
+@Data
+@AllArgsConstructor
+public class BatchResult {
+
+    /**
+     * 处理状态
+     */
+    public enum Status {
+        /** 成功获取AI摘要 */
+        SUCCESS,
+        /** 请求成功但B站尚未生成摘要 */
+        NO_SUMMARY,
+        /** 请求失败 */
+        FAILED
+    }
+
+    private String bvid;
+    private Status status;
+    private AISummaryResponse response;
+    private String error;
+    /** 失败时的B站错误码或HTTP状态码，其他情况为0 */
+    private int errorCode;
+    private long elapsedMillis;
+}
@@ -0,0 +1,165 @@
+package com.github.colommar.application.batch;
+
+import com.github.colommar.application.concurrent.FetchExecutors;
+import com.github.colommar.application.concurrent.ResizableSemaphore;
+import com.github.colommar.application.service.BiliWebService;
+import com.github.colommar.domain.model.AISummaryResponse;
+import com.github.colommar.infrastructure.gateway.BiliApiException;
+import com.github.colommar.infrastructure.util.HttpStatusException;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.Validate;
+
+import java.util.Iterator;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 批量获取AI摘要
+ * <p>
+ * 所有视频共享同一个 {@link BiliWebService} 实例，由 {@link FetchExecutors} 创建的执行器并发处理。
+ * 输入按需读取，同一时刻最多只有 {@code 2 * concurrency} 个视频在排队或处理中（虚拟线程下为 {@code concurrency} 个），
+ * 因此内存占用与列表长度无关。单个视频失败不会中断整个任务。
+ */
+@Slf4j
+public class BatchRunner {
+
+    private final BiliWebService biliWebService;
+    private final BatchListener listener;
+    private int concurrency;
+    /** 运行中的执行器和许可，未运行时为null */
+    private ExecutorService executor;
+    private ResizableSemaphore permits;
+
+    public BatchRunner(BiliWebService biliWebService, int concurrency, BatchListener listener) {
+        Validate.isTrue(concurrency > 0, "并发数必须大于0");
+        this.biliWebService = biliWebService;
+        this.concurrency = concurrency;
+        this.listener = listener;
+    }
+
+    /**
+     * 处理所有BV号，直到输入耗尽且所有任务完成
+     *
+     * @param bvids BV号输入
+     * @return 汇总统计
+     * @throws InterruptedException 等待过程中线程被中断
+     */
+    public BatchSummary run(Iterator<String> bvids) throws InterruptedException {
+        long startTime = System.currentTimeMillis();
+        AtomicLong succeeded = new AtomicLong();
+        AtomicLong noSummary = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        long total = 0;
+
+        ExecutorService executor;
+        ResizableSemaphore permits;
+        synchronized (this) {
+            executor = FetchExecutors.newFetchExecutor("batch-worker", concurrency);
+            permits = new ResizableSemaphore(permitsFor(concurrency));
+            this.executor = executor;
+            this.permits = permits;
+        }
+        log.info("Batch started with {} workers{}", concurrency,
+                FetchExecutors.isThreadPerTask() ? " on virtual threads" : "");
+
+        try {
+            while (bvids.hasNext()) {
+                String bvid = bvids.next();
+                permits.acquire();
+                total++;
+                executor.execute(() -> {
+                    try {
+                        BatchResult result = process(bvid);
+                        switch (result.getStatus()) {
+                            case SUCCESS:
+                                succeeded.incrementAndGet();
+                                break;
+                            case NO_SUMMARY:
+                                noSummary.incrementAndGet();
+                                break;
+                            default:
+                                failed.incrementAndGet();
+                        }
+                        notifyListener(result);
+                    } finally {
+                        permits.release();
+                    }
+                });
+            }
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+            synchronized (this) {
+                this.executor = null;
+                this.permits = null;
+            }
+        }
+
+        BatchSummary summary = new BatchSummary(total, succeeded.get(), noSummary.get(), failed.get(),
+                System.currentTimeMillis() - startTime);
+        log.info("Batch completed: {}", summary);
+        return summary;
+    }
+
+    /**
+     * 调整并发数，运行中调用时立即生效于之后提交的视频
+     *
+     * @param concurrency 新的并发数
+     */
+    public synchronized void setConcurrency(int concurrency) {
+        Validate.isTrue(concurrency > 0, "并发数必须大于0");
+        if (concurrency == this.concurrency) {
+            return;
+        }
+        this.concurrency = concurrency;
+        if (executor != null) {
+            FetchExecutors.setConcurrency(executor, concurrency);
+            permits.resize(permitsFor(concurrency));
+        }
+        log.info("Batch concurrency changed to {}", concurrency);
+    }
+
+    /**
+     * 线程池模式下额外允许concurrency个任务排队，避免工作线程空等输入
+     */
+    private static int permitsFor(int concurrency) {
+        return FetchExecutors.isThreadPerTask() ? concurrency : concurrency * 2;
+    }
+
+    /**
+     * 处理单个视频，所有异常都转换为失败结果
+     */
+    private BatchResult process(String bvid) {
+        long startTime = System.currentTimeMillis();
+        try {
+            AISummaryResponse response = biliWebService.getAISummary(bvid);
+            long elapsed = System.currentTimeMillis() - startTime;
+            if (response.getData() == null || response.getData().getModel_result() == null) {
+                return new BatchResult(bvid, BatchResult.Status.NO_SUMMARY, response, null, 0, elapsed);
+            }
+            return new BatchResult(bvid, BatchResult.Status.SUCCESS, response, null, 0, elapsed);
+        } catch (Exception e) {
+            return new BatchResult(bvid, BatchResult.Status.FAILED, null, e.getMessage(), errorCode(e),
+                    System.currentTimeMillis() - startTime);
+        }
+    }
+
+    private static int errorCode(Exception e) {
+        if (e instanceof BiliApiException) {
+            return ((BiliApiException) e).getCode();
+        }
+        if (e instanceof HttpStatusException) {
+            return ((HttpStatusException) e).getStatusCode();
+        }
+        return 0;
+    }
+
+    private void notifyListener(BatchResult result) {
+        try {
+            listener.onResult(result);
+        } catch (RuntimeException e) {
+            log.error("Batch listener failed for {}: {}", result.getBvid(), e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.github.colommar.application.batch;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * 批量任务汇总统计
+ */
+@Data
+@AllArgsConstructor
+public class BatchSummary {
+    private long total;
+    private long succeeded;
+    private long noSummary;
+    private long failed;
+    private long elapsedMillis;
+}
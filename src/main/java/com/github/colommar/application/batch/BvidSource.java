@@ -0,0 +1,77 @@
+package com.github.colommar.application.batch;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * 逐行读取BV号的输入源
+ * <p>
+ * 按需读取，不会把整个列表加载到内存；空行和以 {@code #} 开头的行会被忽略。
+ */
+public class BvidSource implements Iterator<String>, Closeable {
+
+    private final BufferedReader reader;
+    private String next;
+
+    public BvidSource(InputStream input) {
+        this.reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 打开输入源
+     *
+     * @param path 文件路径，{@code -} 表示标准输入
+     * @return 输入源
+     * @throws IOException 文件无法打开时抛出异常
+     */
+    public static BvidSource open(String path) throws IOException {
+        if ("-".equals(path)) {
+            return new BvidSource(System.in);
+        }
+        return new BvidSource(Files.newInputStream(Paths.get(path)));
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next != null) {
+            return true;
+        }
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (!line.isEmpty() && !line.startsWith("#")) {
+                    next = line;
+                    return true;
+                }
+            }
+            return false;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public String next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        String bvid = next;
+        next = null;
+        return bvid;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,162 @@
+package com.github.colommar.application.batch;
+
+import com.github.colommar.application.service.BiliWebService;
+import com.github.colommar.domain.model.UploaderVideoPage;
+import com.github.colommar.infrastructure.util.Futures;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 逐个列出UP主全部投稿BV号的输入源
+ * <p>
+ * 按页读取投稿列表，开始输出某一页时就异步请求下一页，列表请求与该页视频的摘要获取同时进行；
+ * 内存中最多保存两页，消费端（如 {@link BatchRunner}）不取时也不会继续翻页。
+ * 翻页期间有新投稿时，上一页末尾的视频会被挤到下一页，这些重复的BV号会被跳过。
+ * 某个UP主的列表获取失败时记录错误并继续处理下一个UP主。
+ */
+@Slf4j
+public class UploaderVideoSource implements Iterator<String>, Closeable {
+
+    private final BiliWebService biliWebService;
+    private final List<Long> mids;
+    private final List<Long> failedMids = new ArrayList<>();
+    private int midIndex;
+    private long mid;
+
+    private List<String> current = Collections.emptyList();
+    private int index;
+    private Set<String> previousPage = Collections.emptySet();
+    private CompletableFuture<UploaderVideoPage> nextPage;
+    private String next;
+
+    /**
+     * @param biliWebService 服务
+     * @param mids UP主mid，按顺序处理
+     */
+    public UploaderVideoSource(BiliWebService biliWebService, List<Long> mids) {
+        this.biliWebService = biliWebService;
+        this.mids = new ArrayList<>(mids);
+    }
+
+    /**
+     * 解析逗号分隔的UP主mid
+     *
+     * @param value 如 {@code 123,456}
+     * @return mid列表
+     * @throws IllegalArgumentException 格式不正确时抛出
+     */
+    public static List<Long> parseMids(String value) {
+        List<Long> mids = new ArrayList<>();
+        for (String part : value.split(",")) {
+            if (part.trim().isEmpty()) {
+                continue;
+            }
+            try {
+                long mid = Long.parseLong(part.trim());
+                if (mid > 0) {
+                    mids.add(mid);
+                    continue;
+                }
+            } catch (NumberFormatException ignored) {
+                // 统一在下方报错
+            }
+            throw new IllegalArgumentException("Invalid uploader mid: " + part.trim());
+        }
+        if (mids.isEmpty()) {
+            throw new IllegalArgumentException("No uploader mid given");
+        }
+        return mids;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (next == null) {
+            if (index < current.size()) {
+                String bvid = current.get(index++);
+                if (!previousPage.contains(bvid)) {
+                    next = bvid;
+                }
+            } else if (!advance()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        String bvid = next;
+        next = null;
+        return bvid;
+    }
+
+    /**
+     * 列表获取失败的UP主
+     */
+    public List<Long> getFailedMids() {
+        return new ArrayList<>(failedMids);
+    }
+
+    @Override
+    public void close() {
+        if (nextPage != null) {
+            nextPage.cancel(true);
+            nextPage = null;
+        }
+    }
+
+    /**
+     * 切换到下一页，当前UP主没有更多投稿时切换到下一个UP主
+     *
+     * @return 是否还有输入
+     */
+    private boolean advance() {
+        while (true) {
+            if (nextPage == null) {
+                if (midIndex >= mids.size()) {
+                    return false;
+                }
+                mid = mids.get(midIndex++);
+                previousPage = Collections.emptySet();
+                nextPage = biliWebService.getUploaderVideosAsync(mid, 1);
+            }
+
+            UploaderVideoPage page;
+            try {
+                page = Futures.await(nextPage);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                close();
+                return false;
+            } catch (Exception e) {
+                log.error("Failed to list videos of uploader {}: {}", mid, e.getMessage());
+                failedMids.add(mid);
+                nextPage = null;
+                continue;
+            }
+
+            // 先发出下一页请求，再输出本页
+            nextPage = page.hasMore() ? biliWebService.getUploaderVideosAsync(mid, page.getPage() + 1) : null;
+            previousPage = current.isEmpty() || page.getPage() == 1 ? Collections.emptySet() : new HashSet<>(current);
+            current = page.getBvids();
+            index = 0;
+            log.info("Listed page {} of uploader {}: {} video(s), {} in total",
+                    page.getPage(), mid, current.size(), page.getTotalCount());
+            if (!current.isEmpty()) {
+                return true;
+            }
+        }
+    }
+}
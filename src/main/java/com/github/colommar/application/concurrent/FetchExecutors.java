@@ -0,0 +1,59 @@
+package com.github.colommar.application.concurrent;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 执行阻塞式抓取任务的线程池
+ * <p>
+ * Java 8 版本使用固定大小的平台线程池。以 {@code -Pjava21} 构建时，
+ * {@code src/main/java21} 下的同名类会打入多版本JAR，在Java 21及以上运行时改用虚拟线程。
+ */
+public final class FetchExecutors {
+
+    private FetchExecutors() {
+    }
+
+    /**
+     * 创建执行器
+     *
+     * @param name 线程名前缀
+     * @param concurrency 最大并发数
+     * @return 执行器
+     */
+    public static ExecutorService newFetchExecutor(String name, int concurrency) {
+        AtomicInteger counter = new AtomicInteger();
+        return new ThreadPoolExecutor(concurrency, concurrency, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), r -> new Thread(r, name + "-" + counter.incrementAndGet()));
+    }
+
+    /**
+     * 调整执行器的最大并发数
+     *
+     * @param executor 由 {@link #newFetchExecutor} 创建的执行器
+     * @param concurrency 新的最大并发数
+     */
+    public static void setConcurrency(ExecutorService executor, int concurrency) {
+        ThreadPoolExecutor pool = (ThreadPoolExecutor) executor;
+        // 核心线程数不能大于最大线程数，按方向决定调整顺序
+        if (concurrency > pool.getMaximumPoolSize()) {
+            pool.setMaximumPoolSize(concurrency);
+            pool.setCorePoolSize(concurrency);
+        } else {
+            pool.setCorePoolSize(concurrency);
+            pool.setMaximumPoolSize(concurrency);
+        }
+    }
+
+    /**
+     * 执行器是否为每个任务创建一个线程
+     * <p>
+     * 为true时执行器本身不限制并发，调用方需要自行控制同时提交的任务数。
+     */
+    public static boolean isThreadPerTask() {
+        return false;
+    }
+}
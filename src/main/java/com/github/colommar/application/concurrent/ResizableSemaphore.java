@@ -0,0 +1,43 @@
+package com.github.colommar.application.concurrent;
+
+import org.apache.commons.lang3.Validate;
+
+import java.util.concurrent.Semaphore;
+
+/**
+ * 可以在运行中调整许可总数的信号量
+ * <p>
+ * 减少许可时已借出的许可不受影响，归还后才真正减少并发。
+ */
+public class ResizableSemaphore extends Semaphore {
+
+    private int total;
+
+    public ResizableSemaphore(int permits) {
+        super(permits);
+        this.total = permits;
+    }
+
+    /**
+     * 调整许可总数
+     *
+     * @param permits 新的许可总数
+     */
+    public synchronized void resize(int permits) {
+        Validate.isTrue(permits > 0, "许可数必须大于0");
+        int delta = permits - total;
+        if (delta > 0) {
+            release(delta);
+        } else if (delta < 0) {
+            reducePermits(-delta);
+        }
+        total = permits;
+    }
+
+    /**
+     * 当前的许可总数
+     */
+    public synchronized int getTotal() {
+        return total;
+    }
+}
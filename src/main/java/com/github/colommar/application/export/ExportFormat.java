@@ -0,0 +1,82 @@
+package com.github.colommar.application.export;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.Writer;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * 导出格式
+ */
+@Getter
+@AllArgsConstructor
+public enum ExportFormat {
+    /** 纯文本，包含摘要、大纲和字幕 */
+    TXT("txt"),
+    /** SubRip字幕 */
+    SRT("srt"),
+    /** WebVTT字幕 */
+    VTT("vtt"),
+    /** 结构化JSON */
+    JSON("json"),
+    /** Markdown摘要和大纲 */
+    MARKDOWN("md");
+
+    private final String extension;
+
+    /**
+     * 创建写入指定输出的渲染器
+     *
+     * @param writer 输出
+     * @param isTimeDetailOn 文本格式是否输出时间戳
+     * @return 渲染器
+     */
+    public SummaryRenderer createRenderer(Writer writer, boolean isTimeDetailOn) {
+        switch (this) {
+            case SRT:
+                return new SrtRenderer(writer);
+            case VTT:
+                return new VttRenderer(writer);
+            case JSON:
+                return new JsonRenderer(writer);
+            case MARKDOWN:
+                return new MarkdownRenderer(writer);
+            default:
+                return new TextRenderer(writer, isTimeDetailOn, true);
+        }
+    }
+
+    /**
+     * 按名称或扩展名解析格式
+     *
+     * @param name 如 srt、md、markdown
+     * @return 导出格式
+     */
+    public static ExportFormat parse(String name) {
+        String normalized = name.trim().toLowerCase();
+        for (ExportFormat format : values()) {
+            if (format.extension.equals(normalized) || format.name().toLowerCase().equals(normalized)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unknown export format: " + name);
+    }
+
+    /**
+     * 解析以逗号分隔的格式列表
+     *
+     * @param names 如 txt,srt,vtt
+     * @return 导出格式集合
+     */
+    public static Set<ExportFormat> parseList(String names) {
+        Set<ExportFormat> formats = EnumSet.noneOf(ExportFormat.class);
+        for (String name : names.split(",")) {
+            if (!name.trim().isEmpty()) {
+                formats.add(parse(name));
+            }
+        }
+        return formats;
+    }
+}
@@ -0,0 +1,101 @@
+package com.github.colommar.application.export;
+
+import com.github.colommar.domain.model.AISummaryResponse;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * JSON渲染器，使用 {@link JsonWriter} 流式写出
+ * <p>
+ * 输出结构：{@code {"bvid", "summary", "outline": [{"title", "timestamp", "parts": [...]}],
+ * "subtitles": [{"title", "timestamp", "parts": [{"start", "end", "content"}]}]}}
+ */
+public class JsonRenderer implements SummaryRenderer {
+
+    private final JsonWriter json;
+    private boolean groupOpen;
+
+    public JsonRenderer(Writer writer) {
+        this.json = new JsonWriter(writer);
+    }
+
+    @Override
+    public void begin(String bvid) throws IOException {
+        json.beginObject();
+        json.name("bvid").value(bvid);
+    }
+
+    @Override
+    public void summary(String summary) throws IOException {
+        json.name("summary").value(summary);
+    }
+
+    @Override
+    public void beginOutlines() throws IOException {
+        json.name("outline").beginArray();
+    }
+
+    @Override
+    public void outline(AISummaryResponse.Outline outline) throws IOException {
+        beginGroup(outline.getTitle(), outline.getTimestamp());
+    }
+
+    @Override
+    public void partOutline(AISummaryResponse.PartOutline part) throws IOException {
+        json.beginObject();
+        json.name("timestamp").value(part.getTimestamp());
+        json.name("content").value(part.getContent());
+        json.endObject();
+    }
+
+    @Override
+    public void beginSubtitles() throws IOException {
+        endGroup();
+        json.endArray();
+        json.name("subtitles").beginArray();
+    }
+
+    @Override
+    public void subtitle(AISummaryResponse.Subtitle subtitle) throws IOException {
+        beginGroup(subtitle.getTitle(), subtitle.getTimestamp());
+    }
+
+    @Override
+    public void partSubtitle(AISummaryResponse.PartSubtitle part) throws IOException {
+        json.beginObject();
+        json.name("start").value(part.getStart_timestamp());
+        json.name("end").value(part.getEnd_timestamp());
+        json.name("content").value(part.getContent());
+        json.endObject();
+    }
+
+    @Override
+    public void end() throws IOException {
+        endGroup();
+        json.endArray();
+        json.endObject();
+        json.flush();
+    }
+
+    /**
+     * 开始一个大纲章节或字幕分组，并关闭上一个
+     */
+    private void beginGroup(String title, int timestamp) throws IOException {
+        endGroup();
+        json.beginObject();
+        json.name("title").value(title);
+        json.name("timestamp").value(timestamp);
+        json.name("parts").beginArray();
+        groupOpen = true;
+    }
+
+    private void endGroup() throws IOException {
+        if (groupOpen) {
+            json.endArray();
+            json.endObject();
+            groupOpen = false;
+        }
+    }
+}
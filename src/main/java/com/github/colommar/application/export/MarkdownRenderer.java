@@ -0,0 +1,60 @@
+package com.github.colommar.application.export;
+
+import com.github.colommar.domain.model.AISummaryResponse;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Markdown渲染器，输出摘要和带时间点的大纲
+ */
+public class MarkdownRenderer implements SummaryRenderer {
+
+    private final Writer writer;
+
+    public MarkdownRenderer(Writer writer) {
+        this.writer = writer;
+    }
+
+    @Override
+    public void begin(String bvid) throws IOException {
+        writer.write("# ");
+        writer.write(bvid);
+        writer.write("\n\n");
+    }
+
+    @Override
+    public void summary(String summary) throws IOException {
+        writer.write("## 摘要\n\n");
+        writer.write(String.valueOf(summary));
+        writer.write("\n\n");
+    }
+
+    @Override
+    public void beginOutlines() throws IOException {
+        writer.write("## 视频大纲\n");
+    }
+
+    @Override
+    public void outline(AISummaryResponse.Outline outline) throws IOException {
+        writer.write("\n### ");
+        writer.write(String.valueOf(outline.getTitle()));
+        writer.write(" `");
+        writer.write(Timestamps.readable(outline.getTimestamp()));
+        writer.write("`\n\n");
+    }
+
+    @Override
+    public void partOutline(AISummaryResponse.PartOutline part) throws IOException {
+        writer.write("- `");
+        writer.write(Timestamps.readable(part.getTimestamp()));
+        writer.write("` ");
+        writer.write(String.valueOf(part.getContent()));
+        writer.write('\n');
+    }
+
+    @Override
+    public void end() throws IOException {
+        writer.flush();
+    }
+}
@@ -0,0 +1,36 @@
+package com.github.colommar.application.export;
+
+import com.github.colommar.domain.model.AISummaryResponse;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * SubRip (.srt) 字幕渲染器，只输出字幕行
+ */
+public class SrtRenderer implements SummaryRenderer {
+
+    private final Writer writer;
+    private int index;
+
+    public SrtRenderer(Writer writer) {
+        this.writer = writer;
+    }
+
+    @Override
+    public void partSubtitle(AISummaryResponse.PartSubtitle part) throws IOException {
+        writer.write(Integer.toString(++index));
+        writer.write('\n');
+        Timestamps.write(writer, part.getStart_timestamp(), ',');
+        writer.write(" --> ");
+        Timestamps.write(writer, part.getEnd_timestamp(), ',');
+        writer.write('\n');
+        writer.write(String.valueOf(part.getContent()));
+        writer.write("\n\n");
+    }
+
+    @Override
+    public void end() throws IOException {
+        writer.flush();
+    }
+}
@@ -0,0 +1,148 @@
+package com.github.colommar.application.export;
+
+import com.github.colommar.domain.model.AISummaryResponse;
+import com.github.colommar.infrastructure.metrics.Metrics;
+import com.github.colommar.infrastructure.metrics.Stage;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * AI摘要导出器
+ * <p>
+ * 对 {@link AISummaryResponse.ModelResult} 只遍历一次，同时驱动任意数量的渲染器，
+ * 每种格式写入各自带缓冲的UTF-8文件。
+ */
+public class SummaryExporter {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private SummaryExporter() {
+    }
+
+    /**
+     * 遍历模型结果并回调所有渲染器
+     *
+     * @param bvid 视频BV号
+     * @param result 模型结果
+     * @param renderers 渲染器
+     * @throws IOException 写出失败时抛出异常
+     */
+    public static void render(String bvid, AISummaryResponse.ModelResult result,
+                              List<SummaryRenderer> renderers) throws IOException {
+        long start = Metrics.begin(Stage.RENDER);
+        try {
+            walk(bvid, result, renderers);
+        } finally {
+            Metrics.end(Stage.RENDER, start);
+        }
+    }
+
+    private static void walk(String bvid, AISummaryResponse.ModelResult result,
+                             List<SummaryRenderer> renderers) throws IOException {
+        for (SummaryRenderer renderer : renderers) {
+            renderer.begin(bvid);
+            renderer.summary(result.getSummary());
+            renderer.beginOutlines();
+        }
+
+        if (result.getOutline() != null) {
+            for (AISummaryResponse.Outline outline : result.getOutline()) {
+                for (SummaryRenderer renderer : renderers) {
+                    renderer.outline(outline);
+                }
+                if (outline.getPart_outline() == null) {
+                    continue;
+                }
+                for (AISummaryResponse.PartOutline part : outline.getPart_outline()) {
+                    for (SummaryRenderer renderer : renderers) {
+                        renderer.partOutline(part);
+                    }
+                }
+            }
+        }
+
+        for (SummaryRenderer renderer : renderers) {
+            renderer.beginSubtitles();
+        }
+        if (result.getSubtitle() != null) {
+            for (AISummaryResponse.Subtitle subtitle : result.getSubtitle()) {
+                for (SummaryRenderer renderer : renderers) {
+                    renderer.subtitle(subtitle);
+                }
+                if (subtitle.getPart_subtitle() == null) {
+                    continue;
+                }
+                for (AISummaryResponse.PartSubtitle part : subtitle.getPart_subtitle()) {
+                    for (SummaryRenderer renderer : renderers) {
+                        renderer.partSubtitle(part);
+                    }
+                }
+            }
+        }
+
+        for (SummaryRenderer renderer : renderers) {
+            renderer.end();
+        }
+    }
+
+    /**
+     * 一次遍历导出多种格式的文件
+     *
+     * @param bvid 视频BV号
+     * @param result 模型结果
+     * @param directory 输出目录
+     * @param baseName 文件名（不含扩展名）
+     * @param formats 导出格式
+     * @param isTimeDetailOn 文本格式是否输出时间戳
+     * @return 每种格式对应的文件
+     * @throws IOException 写出失败时抛出异常
+     */
+    public static Map<ExportFormat, Path> export(String bvid, AISummaryResponse.ModelResult result, Path directory,
+                                                 String baseName, Set<ExportFormat> formats,
+                                                 boolean isTimeDetailOn) throws IOException {
+        Map<ExportFormat, Path> files = new EnumMap<>(ExportFormat.class);
+        List<Writer> writers = new ArrayList<>(formats.size());
+        IOException failure = null;
+        try {
+            List<SummaryRenderer> renderers = new ArrayList<>(formats.size());
+            for (ExportFormat format : formats) {
+                Path file = directory.resolve(baseName + "." + format.getExtension());
+                Writer writer = new BufferedWriter(
+                        new OutputStreamWriter(Files.newOutputStream(file), StandardCharsets.UTF_8), BUFFER_SIZE);
+                writers.add(writer);
+                renderers.add(format.createRenderer(writer, isTimeDetailOn));
+                files.put(format, file);
+            }
+            render(bvid, result, renderers);
+        } catch (IOException e) {
+            failure = e;
+        } finally {
+            for (Writer writer : writers) {
+                try {
+                    writer.close();
+                } catch (IOException e) {
+                    if (failure == null) {
+                        failure = e;
+                    } else {
+                        failure.addSuppressed(e);
+                    }
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return files;
+    }
+}
@@ -0,0 +1,70 @@
+package com.github.colommar.application.export;
+
+import com.github.colommar.domain.model.AISummaryResponse;
+
+import java.io.IOException;
+
+/**
+ * AI摘要渲染器
+ * <p>
+ * 由 {@link SummaryExporter} 按文档顺序回调：摘要、大纲（含要点）、字幕（含分段），渲染器边接收边写出，
+ * 不需要缓存整份文档。不关心的回调可以不实现。
+ */
+public interface SummaryRenderer {
+
+    /**
+     * 文档开始
+     *
+     * @param bvid 视频BV号
+     */
+    default void begin(String bvid) throws IOException {
+    }
+
+    /**
+     * 视频摘要
+     */
+    default void summary(String summary) throws IOException {
+    }
+
+    /**
+     * 大纲部分开始
+     */
+    default void beginOutlines() throws IOException {
+    }
+
+    /**
+     * 大纲章节，随后是该章节的要点
+     */
+    default void outline(AISummaryResponse.Outline outline) throws IOException {
+    }
+
+    /**
+     * 大纲要点
+     */
+    default void partOutline(AISummaryResponse.PartOutline part) throws IOException {
+    }
+
+    /**
+     * 字幕部分开始
+     */
+    default void beginSubtitles() throws IOException {
+    }
+
+    /**
+     * 字幕分组，随后是该分组的字幕行
+     */
+    default void subtitle(AISummaryResponse.Subtitle subtitle) throws IOException {
+    }
+
+    /**
+     * 单条字幕
+     */
+    default void partSubtitle(AISummaryResponse.PartSubtitle part) throws IOException {
+    }
+
+    /**
+     * 文档结束，渲染器应在此刷新缓冲区
+     */
+    default void end() throws IOException {
+    }
+}
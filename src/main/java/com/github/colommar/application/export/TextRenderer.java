@@ -0,0 +1,120 @@
+package com.github.colommar.application.export;
+
+import com.github.colommar.domain.model.AISummaryResponse;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+/**
+ * 纯文本渲染器，控制台输出和txt文件共用
+ */
+public class TextRenderer implements SummaryRenderer {
+
+    private static final String NEW_LINE = System.lineSeparator();
+
+    private final Writer writer;
+    private final boolean isTimeDetailOn;
+    private final boolean withHeader;
+
+    /**
+     * @param writer 输出
+     * @param isTimeDetailOn 是否输出时间戳
+     * @param withHeader 是否输出标题和生成时间
+     */
+    public TextRenderer(Writer writer, boolean isTimeDetailOn, boolean withHeader) {
+        this.writer = writer;
+        this.isTimeDetailOn = isTimeDetailOn;
+        this.withHeader = withHeader;
+    }
+
+    @Override
+    public void begin(String bvid) throws IOException {
+        if (withHeader) {
+            line("B站AI字幕摘要 - " + bvid);
+            line("生成时间: " + new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").format(new Date()));
+            line("==================================================");
+        }
+    }
+
+    @Override
+    public void summary(String summary) throws IOException {
+        writer.write("摘要: ");
+        writer.write(String.valueOf(summary));
+        writer.write(NEW_LINE);
+    }
+
+    @Override
+    public void beginOutlines() throws IOException {
+        writer.write(NEW_LINE);
+        line("=== 视频大纲 ===");
+    }
+
+    @Override
+    public void outline(AISummaryResponse.Outline outline) throws IOException {
+        writer.write("标题: ");
+        writer.write(String.valueOf(outline.getTitle()));
+        if (isTimeDetailOn) {
+            timestamp(outline.getTimestamp());
+        }
+        writer.write(NEW_LINE);
+    }
+
+    @Override
+    public void partOutline(AISummaryResponse.PartOutline part) throws IOException {
+        writer.write("  - ");
+        writer.write(String.valueOf(part.getContent()));
+        if (isTimeDetailOn) {
+            timestamp(part.getTimestamp());
+        }
+        writer.write(NEW_LINE);
+    }
+
+    @Override
+    public void beginSubtitles() throws IOException {
+        writer.write(NEW_LINE);
+        line("=== AI字幕 ===");
+    }
+
+    @Override
+    public void subtitle(AISummaryResponse.Subtitle subtitle) throws IOException {
+        String title = subtitle.getTitle() == null || subtitle.getTitle().isEmpty() ? "无标题" : subtitle.getTitle();
+        writer.write("标题: ");
+        writer.write(title);
+        if (isTimeDetailOn) {
+            timestamp(subtitle.getTimestamp());
+        }
+        writer.write(NEW_LINE);
+    }
+
+    @Override
+    public void partSubtitle(AISummaryResponse.PartSubtitle part) throws IOException {
+        writer.write("  - ");
+        writer.write(String.valueOf(part.getContent()));
+        if (isTimeDetailOn) {
+            writer.write(" (");
+            writer.write(Integer.toString(part.getStart_timestamp()));
+            writer.write("s - ");
+            writer.write(Integer.toString(part.getEnd_timestamp()));
+            writer.write("s)");
+        }
+        writer.write(NEW_LINE);
+    }
+
+    @Override
+    public void end() throws IOException {
+        writer.flush();
+    }
+
+    private void timestamp(int seconds) throws IOException {
+        writer.write(" (时间戳: ");
+        writer.write(Integer.toString(seconds));
+        writer.write("s)");
+    }
+
+    private void line(String text) throws IOException {
+        writer.write(text);
+        writer.write(NEW_LINE);
+    }
+}
@@ -0,0 +1,48 @@
+package com.github.colommar.application.export;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * 字幕时间戳格式化
+ */
+final class Timestamps {
+
+    private Timestamps() {
+    }
+
+    /**
+     * 写出 {@code HH:MM:SS<sep>mmm} 格式的时间戳
+     *
+     * @param seconds 秒数
+     * @param millisSeparator SRT使用逗号，VTT使用句点
+     */
+    static void write(Writer writer, int seconds, char millisSeparator) throws IOException {
+        int s = Math.max(0, seconds);
+        twoDigits(writer, s / 3600);
+        writer.write(':');
+        twoDigits(writer, s / 60 % 60);
+        writer.write(':');
+        twoDigits(writer, s % 60);
+        writer.write(millisSeparator);
+        writer.write("000");
+    }
+
+    /**
+     * 写出 {@code M:SS} 或 {@code H:MM:SS} 格式的可读时间
+     */
+    static String readable(int seconds) {
+        int s = Math.max(0, seconds);
+        if (s >= 3600) {
+            return String.format("%d:%02d:%02d", s / 3600, s / 60 % 60, s % 60);
+        }
+        return String.format("%d:%02d", s / 60, s % 60);
+    }
+
+    private static void twoDigits(Writer writer, int value) throws IOException {
+        if (value < 10) {
+            writer.write('0');
+        }
+        writer.write(Integer.toString(value));
+    }
+}
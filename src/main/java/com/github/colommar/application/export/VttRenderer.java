@@ -0,0 +1,39 @@
+package com.github.colommar.application.export;
+
+import com.github.colommar.domain.model.AISummaryResponse;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * WebVTT (.vtt) 字幕渲染器，只输出字幕行
+ */
+public class VttRenderer implements SummaryRenderer {
+
+    private final Writer writer;
+
+    public VttRenderer(Writer writer) {
+        this.writer = writer;
+    }
+
+    @Override
+    public void begin(String bvid) throws IOException {
+        writer.write("WEBVTT\n\n");
+    }
+
+    @Override
+    public void partSubtitle(AISummaryResponse.PartSubtitle part) throws IOException {
+        Timestamps.write(writer, part.getStart_timestamp(), '.');
+        writer.write(" --> ");
+        Timestamps.write(writer, part.getEnd_timestamp(), '.');
+        writer.write('\n');
+        // "-->" 在VTT中是保留的分隔符
+        writer.write(String.valueOf(part.getContent()).replace("-->", "->"));
+        writer.write("\n\n");
+    }
+
+    @Override
+    public void end() throws IOException {
+        writer.flush();
+    }
+}
@@ -0,0 +1,28 @@
+package com.github.colommar.application.repoll;
+
+import com.github.colommar.domain.model.AISummaryResponse;
+
+/**
+ * 重新检查结果回调
+ * <p>
+ * 回调在调度线程中执行，实现类需要自行保证线程安全。
+ */
+public interface RepollListener {
+
+    /**
+     * AI摘要已生成
+     *
+     * @param bvid 视频BV号
+     * @param response 包含摘要的响应
+     */
+    void onReady(String bvid, AISummaryResponse response);
+
+    /**
+     * 超过检查时限仍未生成，已放弃
+     *
+     * @param bvid 视频BV号
+     * @param attempts 已检查次数
+     */
+    default void onExpired(String bvid, int attempts) {
+    }
+}
@@ -0,0 +1,47 @@
+package com.github.colommar.application.repoll;
+
+import com.github.colommar.infrastructure.config.ConfigLoader;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 重新检查的退避策略
+ * <p>
+ * 第n次检查前等待 {@code initialDelay * 2^n}，不超过 {@code maxDelay}，并加入 ±10% 随机抖动；
+ * 距首次发现超过 {@code horizon} 后放弃。
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class RepollPolicy {
+
+    private final long initialDelayMillis;
+    private final long maxDelayMillis;
+    private final long horizonMillis;
+
+    /**
+     * 从配置文件加载
+     */
+    public static RepollPolicy fromConfig() throws IOException {
+        return new RepollPolicy(
+                TimeUnit.SECONDS.toMillis(ConfigLoader.loadRepollInitialDelaySecondsFromConfig()),
+                TimeUnit.SECONDS.toMillis(ConfigLoader.loadRepollMaxDelaySecondsFromConfig()),
+                TimeUnit.HOURS.toMillis(ConfigLoader.loadRepollHorizonHoursFromConfig()));
+    }
+
+    /**
+     * 已检查指定次数后，到下一次检查的等待时间
+     */
+    long delayAfter(int attempts) {
+        long delay = initialDelayMillis << Math.min(attempts, 20);
+        if (delay <= 0 || delay > maxDelayMillis) {
+            delay = maxDelayMillis;
+        }
+        return (long) (delay * (0.9 + 0.2 * ThreadLocalRandom.current().nextDouble()));
+    }
+}
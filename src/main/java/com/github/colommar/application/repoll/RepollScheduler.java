@@ -0,0 +1,415 @@
+package com.github.colommar.application.repoll;
+
+import com.github.colommar.application.service.BiliWebService;
+import com.github.colommar.domain.model.AISummaryResponse;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 尚未生成AI摘要的视频的延迟重新检查
+ * <p>
+ * 视频按退避策略进入延迟队列，到期后在独立的调度线程中重新请求，不占用批量或服务模式的工作线程。
+ * 摘要生成后回调 {@link RepollListener#onReady}，超过时限后放弃。
+ * 队列定期写入状态文件，进程重启后从中恢复；未调用 {@link #start()} 时只登记不检查，
+ * 可供单次运行把视频留给之后的常驻进程处理。
+ * <p>
+ * 多个进程可以共用同一个状态文件：写入时持有文件锁，把本进程新增和移除的视频合并到文件中的队列，
+ * 文件中其他进程登记的视频会加入本进程的队列，其他进程已移除的视频也从本进程移除。
+ */
+@Slf4j
+public class RepollScheduler implements Closeable {
+
+    private static final long FLUSH_INTERVAL_MILLIS = 1000;
+    private static final long CLOSE_TIMEOUT_SECONDS = 10;
+
+    private final BiliWebService biliWebService;
+    private final Path stateFile;
+    private final RepollPolicy policy;
+    private final RepollListener listener;
+    private final int concurrency;
+    private final Gson gson = new Gson();
+
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+    /** 上次写入后新登记、尚未写入状态文件的视频 */
+    private final Set<String> added = new HashSet<>();
+    /** 上次写入后移除的视频 */
+    private final Set<String> removed = new HashSet<>();
+    private boolean dirty;
+    private ScheduledThreadPoolExecutor timer;
+
+    private final Object flushLock = new Object();
+    /** 本进程最后一次读写后状态文件的修改时间，用于发现其他进程的写入 */
+    private volatile FileTime lastSeenModified;
+
+    /**
+     * @param biliWebService 摘要服务
+     * @param stateFile 状态文件，存在时加载其中的队列
+     * @param policy 退避策略
+     * @param listener 结果回调
+     * @param concurrency 同时进行的检查数
+     * @throws IOException 状态文件读取失败时抛出异常
+     */
+    public RepollScheduler(BiliWebService biliWebService, Path stateFile, RepollPolicy policy,
+                           RepollListener listener, int concurrency) throws IOException {
+        this.biliWebService = biliWebService;
+        this.stateFile = stateFile;
+        this.policy = policy;
+        this.listener = listener;
+        this.concurrency = concurrency;
+        load();
+    }
+
+    /**
+     * 登记尚未生成摘要的视频，已在队列中时忽略
+     *
+     * @param bvid 视频BV号
+     */
+    public void submit(String bvid) {
+        Entry entry;
+        synchronized (entries) {
+            if (entries.containsKey(bvid)) {
+                return;
+            }
+            long now = System.currentTimeMillis();
+            entry = new Entry(bvid, now, 0, now + policy.delayAfter(0));
+            entries.put(bvid, entry);
+            added.add(bvid);
+            removed.remove(bvid);
+            dirty = true;
+        }
+        log.info("Scheduled re-check for {} in {}s", bvid,
+                TimeUnit.MILLISECONDS.toSeconds(entry.nextCheckAt - entry.firstSeenAt));
+        schedule(entry);
+    }
+
+    /**
+     * 开始检查队列中的视频，包括从状态文件恢复的视频
+     */
+    public void start() {
+        List<Entry> pending;
+        synchronized (entries) {
+            if (timer != null) {
+                return;
+            }
+            timer = new ScheduledThreadPoolExecutor(concurrency, r -> {
+                Thread thread = new Thread(r, "repoll");
+                thread.setDaemon(true);
+                return thread;
+            });
+            timer.setRemoveOnCancelPolicy(true);
+            timer.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+            pending = new ArrayList<>(entries.values());
+        }
+        timer.scheduleWithFixedDelay(this::flushQuietly, FLUSH_INTERVAL_MILLIS, FLUSH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        for (Entry entry : pending) {
+            schedule(entry);
+        }
+        log.info("Re-poll scheduler started with {} pending video(s), policy {}", pending.size(), policy);
+    }
+
+    /**
+     * 阻塞直到队列为空
+     *
+     * @throws InterruptedException 等待过程中线程被中断
+     */
+    public void awaitEmpty() throws InterruptedException {
+        synchronized (entries) {
+            while (!entries.isEmpty()) {
+                entries.wait();
+            }
+        }
+    }
+
+    /**
+     * 队列中的视频数
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * 停止检查并写入状态文件
+     * <p>
+     * 先等待进行中的检查和定时写入结束，避免进程退出时中断写入。
+     */
+    @Override
+    public void close() throws IOException {
+        ScheduledThreadPoolExecutor current;
+        synchronized (entries) {
+            current = timer;
+            timer = null;
+        }
+        if (current != null) {
+            current.shutdown();
+            try {
+                if (!current.awaitTermination(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                    log.warn("Re-checks still running after {}s, interrupting them", CLOSE_TIMEOUT_SECONDS);
+                    current.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                current.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+        flush();
+    }
+
+    private void schedule(Entry entry) {
+        synchronized (entries) {
+            if (timer == null) {
+                return;
+            }
+            long delay = Math.max(0, entry.nextCheckAt - System.currentTimeMillis());
+            timer.schedule(() -> check(entry.bvid), delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void check(String bvid) {
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(bvid);
+        }
+        if (entry == null) {
+            return;
+        }
+
+        AISummaryResponse ready = null;
+        try {
+            AISummaryResponse response = biliWebService.getAISummary(bvid);
+            if (response.getData() != null && response.getData().getModel_result() != null) {
+                ready = response;
+            }
+        } catch (Exception e) {
+            log.debug("Re-check of {} failed: {}", bvid, e.getMessage());
+        }
+        if (ready != null) {
+            remove(bvid);
+            log.info("AI summary for {} is ready after {} re-check(s)", bvid, entry.attempts + 1);
+            try {
+                listener.onReady(bvid, ready);
+            } catch (RuntimeException e) {
+                log.error("Re-poll listener failed for {}: {}", bvid, e.getMessage(), e);
+            }
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        synchronized (entries) {
+            entry.attempts++;
+            entry.nextCheckAt = now + policy.delayAfter(entry.attempts);
+            dirty = true;
+        }
+        if (entry.nextCheckAt - entry.firstSeenAt > policy.getHorizonMillis()) {
+            remove(bvid);
+            log.info("Giving up on {} after {} re-check(s)", bvid, entry.attempts);
+            listener.onExpired(bvid, entry.attempts);
+            return;
+        }
+        schedule(entry);
+    }
+
+    private void remove(String bvid) {
+        synchronized (entries) {
+            entries.remove(bvid);
+            if (!added.remove(bvid)) {
+                removed.add(bvid);
+            }
+            dirty = true;
+            entries.notifyAll();
+        }
+    }
+
+    private void load() throws IOException {
+        entries.putAll(readState());
+        log.debug("Loaded {} pending re-check(s) from {}", entries.size(), stateFile);
+    }
+
+    /**
+     * 读取状态文件中的队列，文件不存在或无法解析时返回空队列
+     */
+    private Map<String, Entry> readState() throws IOException {
+        Map<String, Entry> state = new LinkedHashMap<>();
+        try (Reader reader = Files.newBufferedReader(stateFile, StandardCharsets.UTF_8)) {
+            lastSeenModified = Files.getLastModifiedTime(stateFile);
+            List<Entry> loaded = gson.fromJson(reader, new TypeToken<List<Entry>>() { }.getType());
+            if (loaded != null) {
+                for (Entry entry : loaded) {
+                    state.put(entry.bvid, entry);
+                }
+            }
+        } catch (NoSuchFileException e) {
+            // 尚未写入过
+        } catch (JsonParseException e) {
+            log.warn("Discarding unreadable re-poll state {}: {}", stateFile, e.getMessage());
+        }
+        return state;
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (IOException e) {
+            log.warn("Failed to write re-poll state {}: {}", stateFile, e.getMessage());
+        }
+    }
+
+    /**
+     * 本进程或其他进程有变化时，在文件锁内合并队列并写回状态文件，先写临时文件再原子替换
+     */
+    private void flush() throws IOException {
+        synchronized (flushLock) {
+            boolean changed;
+            synchronized (entries) {
+                changed = dirty;
+            }
+            if (!changed && !modifiedElsewhere()) {
+                return;
+            }
+
+            Path directory = stateFile.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            Path lockFile = directory.resolve(stateFile.getFileName() + ".lock");
+            List<Entry> adopted = new ArrayList<>();
+            try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                 FileLock ignored = channel.lock()) {
+                Map<String, Entry> state = readState();
+                Set<String> flushedAdded;
+                Set<String> flushedRemoved;
+                synchronized (entries) {
+                    merge(state, adopted);
+                    flushedAdded = new HashSet<>(added);
+                    flushedRemoved = new HashSet<>(removed);
+                    added.clear();
+                    removed.clear();
+                    dirty = false;
+                }
+                try {
+                    write(directory, new ArrayList<>(state.values()));
+                } catch (IOException e) {
+                    synchronized (entries) {
+                        for (String bvid : flushedAdded) {
+                            if (entries.containsKey(bvid)) {
+                                added.add(bvid);
+                            }
+                        }
+                        removed.addAll(flushedRemoved);
+                        dirty = true;
+                    }
+                    throw e;
+                }
+                lastSeenModified = Files.getLastModifiedTime(stateFile);
+            }
+            if (!adopted.isEmpty()) {
+                log.info("Picked up {} re-check(s) submitted by another process", adopted.size());
+            }
+            for (Entry entry : adopted) {
+                schedule(entry);
+            }
+        }
+    }
+
+    /**
+     * 把本进程的队列合并到状态文件的队列，调用方持有entries锁
+     *
+     * @param state 状态文件中的队列，合并后即为要写回的内容
+     * @param adopted 输出其他进程登记、新加入本进程队列的视频
+     */
+    private void merge(Map<String, Entry> state, List<Entry> adopted) {
+        for (String bvid : removed) {
+            state.remove(bvid);
+        }
+        Iterator<Entry> it = entries.values().iterator();
+        while (it.hasNext()) {
+            Entry entry = it.next();
+            if (added.contains(entry.bvid) || state.containsKey(entry.bvid)) {
+                state.put(entry.bvid, new Entry(entry.bvid, entry.firstSeenAt, entry.attempts, entry.nextCheckAt));
+            } else {
+                // 已写入过但文件中已不存在，说明其他进程已经处理完毕
+                it.remove();
+            }
+        }
+        for (Entry entry : state.values()) {
+            if (!entries.containsKey(entry.bvid)) {
+                Entry copy = new Entry(entry.bvid, entry.firstSeenAt, entry.attempts, entry.nextCheckAt);
+                entries.put(entry.bvid, copy);
+                adopted.add(copy);
+            }
+        }
+        entries.notifyAll();
+    }
+
+    private void write(Path directory, List<Entry> snapshot) throws IOException {
+        Path temp = Files.createTempFile(directory, stateFile.getFileName().toString(), ".tmp");
+        try {
+            try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                gson.toJson(snapshot, writer);
+            }
+            try {
+                Files.move(temp, stateFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, stateFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+    }
+
+    /**
+     * 状态文件在本进程最后一次读写之后是否被其他进程修改
+     */
+    private boolean modifiedElsewhere() {
+        try {
+            return !Files.getLastModifiedTime(stateFile).equals(lastSeenModified);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 队列条目，同时是状态文件的存储格式
+     */
+    @NoArgsConstructor
+    private static class Entry {
+        private String bvid;
+        private long firstSeenAt;
+        private int attempts;
+        private long nextCheckAt;
+
+        private Entry(String bvid, long firstSeenAt, int attempts, long nextCheckAt) {
+            this.bvid = bvid;
+            this.firstSeenAt = firstSeenAt;
+            this.attempts = attempts;
+            this.nextCheckAt = nextCheckAt;
+        }
+    }
+}
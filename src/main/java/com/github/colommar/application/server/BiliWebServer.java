@@ -0,0 +1,263 @@
+package com.github.colommar.application.server;
+
+import com.github.colommar.application.concurrent.FetchExecutors;
+import com.github.colommar.application.concurrent.ResizableSemaphore;
+import com.github.colommar.application.export.ExportFormat;
+import com.github.colommar.application.export.SummaryExporter;
+import com.github.colommar.application.repoll.RepollScheduler;
+import com.github.colommar.application.service.BiliWebService;
+import com.github.colommar.domain.model.AISummaryResponse;
+import com.github.colommar.infrastructure.cache.MemoryCache;
+import com.github.colommar.infrastructure.gateway.BiliApiException;
+import com.github.colommar.infrastructure.gateway.CircuitOpenException;
+import com.github.colommar.infrastructure.metrics.Metrics;
+import com.github.colommar.infrastructure.metrics.MetricsReport;
+import com.google.gson.Gson;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 常驻HTTP服务，在已预热的JVM中提供AI摘要查询
+ * <p>
+ * 接口：
+ * <ul>
+ *     <li>{@code GET /summary/{bvid}}：AI摘要原始JSON</li>
+ *     <li>{@code GET /subtitles/{bvid}?format=srt}：按格式导出，支持 txt、srt、vtt、json、md</li>
+ *     <li>{@code GET /metrics}：Prometheus文本格式指标</li>
+ *     <li>{@code GET /health}：健康检查</li>
+ * </ul>
+ * 缓存命中直接在分发线程中返回；未命中时交给有界执行器抓取，超出容量时返回503。
+ * 尚未生成摘要的视频进入重新检查队列，生成后直接放入缓存。
+ */
+@Slf4j
+public class BiliWebServer {
+
+    private static final String JSON_TYPE = "application/json; charset=utf-8";
+
+    private final BiliWebService biliWebService;
+    private final MemoryCache<String, AISummaryResponse> cache;
+    private final RepollScheduler repollScheduler;
+    private final Gson gson = new Gson();
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final ResizableSemaphore permits;
+    private final int queueCapacity;
+
+    /**
+     * @param biliWebService 摘要服务
+     * @param port 监听端口
+     * @param workers 同时抓取的请求数
+     * @param queueCapacity 等待抓取的请求数上限（虚拟线程下不使用）
+     * @param cache 摘要缓存
+     * @param repollScheduler 尚未生成摘要的视频交给它重新检查
+     * @throws IOException 端口绑定失败时抛出异常
+     */
+    public BiliWebServer(BiliWebService biliWebService, int port, int workers, int queueCapacity,
+                         MemoryCache<String, AISummaryResponse> cache, RepollScheduler repollScheduler) throws IOException {
+        this.biliWebService = biliWebService;
+        this.cache = cache;
+        this.repollScheduler = repollScheduler;
+        Metrics.registerCache("server", cache::getHits, cache::getMisses);
+        this.executor = FetchExecutors.newFetchExecutor("http-worker", workers);
+        this.queueCapacity = queueCapacity;
+        this.permits = new ResizableSemaphore(FetchExecutors.isThreadPerTask() ? workers : workers + queueCapacity);
+        this.server = HttpServer.create(new InetSocketAddress(port), 0);
+        server.createContext("/summary/", exchange -> handle(exchange, "/summary/", false));
+        server.createContext("/subtitles/", exchange -> handle(exchange, "/subtitles/", true));
+        server.createContext("/metrics", this::handleMetrics);
+        server.createContext("/health", exchange -> send(exchange, 200, "text/plain; charset=utf-8",
+                "ok".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * 开始监听
+     */
+    public void start() {
+        server.start();
+        log.info("HTTP server listening on {}", server.getAddress());
+    }
+
+    /**
+     * 调整同时抓取的请求数，不需要重启服务
+     *
+     * @param workers 新的抓取并发数
+     */
+    public synchronized void setWorkers(int workers) {
+        FetchExecutors.setConcurrency(executor, workers);
+        permits.resize(FetchExecutors.isThreadPerTask() ? workers : workers + queueCapacity);
+        log.info("Server workers changed to {}", workers);
+    }
+
+    /**
+     * 优雅停机：停止接收新连接，等待进行中的请求完成
+     *
+     * @param graceSeconds 最长等待秒数
+     */
+    public void stop(int graceSeconds) {
+        log.info("Stopping HTTP server, waiting up to {}s for in-flight requests", graceSeconds);
+        server.stop(graceSeconds);
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(graceSeconds, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        try {
+            repollScheduler.close();
+        } catch (IOException e) {
+            log.warn("Failed to save re-poll state: {}", e.getMessage());
+        }
+        log.info("HTTP server stopped");
+    }
+
+    private void handleMetrics(HttpExchange exchange) throws IOException {
+        StringBuilder body = new StringBuilder(4096);
+        MetricsReport.writePrometheus(body);
+        send(exchange, 200, MetricsReport.PROMETHEUS_CONTENT_TYPE, body.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void handle(HttpExchange exchange, String prefix, boolean subtitles) throws IOException {
+        if (!"GET".equals(exchange.getRequestMethod())) {
+            sendError(exchange, 405, "Method not allowed");
+            return;
+        }
+
+        String bvid = exchange.getRequestURI().getPath().substring(prefix.length()).trim();
+        if (bvid.isEmpty() || bvid.contains("/")) {
+            sendError(exchange, 400, "Invalid BV ID");
+            return;
+        }
+
+        ExportFormat format = null;
+        if (subtitles) {
+            try {
+                format = ExportFormat.parse(queryParam(exchange, "format", "srt"));
+            } catch (IllegalArgumentException e) {
+                sendError(exchange, 400, e.getMessage());
+                return;
+            }
+        }
+
+        AISummaryResponse cached = cache.get(bvid);
+        if (cached != null) {
+            respond(exchange, bvid, cached, format);
+            return;
+        }
+
+        if (!permits.tryAcquire()) {
+            sendError(exchange, 503, "Server busy");
+            return;
+        }
+        ExportFormat requestedFormat = format;
+        executor.execute(() -> {
+            try {
+                fetchAndRespond(exchange, bvid, requestedFormat);
+            } finally {
+                permits.release();
+            }
+        });
+    }
+
+    private void fetchAndRespond(HttpExchange exchange, String bvid, ExportFormat format) {
+        try {
+            AISummaryResponse response = biliWebService.getAISummary(bvid);
+            if (response.getData() == null || response.getData().getModel_result() == null) {
+                repollScheduler.submit(bvid);
+                sendError(exchange, 404, "Summary not available yet");
+                return;
+            }
+            cache.put(bvid, response);
+            respond(exchange, bvid, response, format);
+        } catch (BiliApiException e) {
+            sendErrorQuietly(exchange, 502, "Bilibili API error " + e.getCode() + ": " + e.getMessage());
+        } catch (CircuitOpenException e) {
+            sendErrorQuietly(exchange, 503, e.getMessage());
+        } catch (IllegalArgumentException e) {
+            sendErrorQuietly(exchange, 400, e.getMessage());
+        } catch (Exception e) {
+            sendErrorQuietly(exchange, 500, e.getMessage());
+        }
+    }
+
+    /**
+     * 输出摘要；format为null时返回原始JSON
+     */
+    private void respond(HttpExchange exchange, String bvid, AISummaryResponse response,
+                         ExportFormat format) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(8192);
+        Writer writer = new OutputStreamWriter(buffer, StandardCharsets.UTF_8);
+        if (format == null) {
+            gson.toJson(response, writer);
+        } else {
+            SummaryExporter.render(bvid, response.getData().getModel_result(),
+                    Collections.singletonList(format.createRenderer(writer, true)));
+        }
+        writer.flush();
+        send(exchange, 200, format == null ? JSON_TYPE : contentType(format), buffer.toByteArray());
+    }
+
+    private void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        byte[] body = gson.toJson(Collections.singletonMap("error", String.valueOf(message)))
+                .getBytes(StandardCharsets.UTF_8);
+        send(exchange, status, JSON_TYPE, body);
+    }
+
+    private void sendErrorQuietly(HttpExchange exchange, int status, String message) {
+        try {
+            sendError(exchange, status, message);
+        } catch (IOException e) {
+            log.debug("Failed to send error response: {}", e.getMessage());
+        }
+    }
+
+    private static void send(HttpExchange exchange, int status, String contentType, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(body);
+        }
+    }
+
+    private static String contentType(ExportFormat format) {
+        switch (format) {
+            case SRT:
+                return "application/x-subrip; charset=utf-8";
+            case VTT:
+                return "text/vtt; charset=utf-8";
+            case JSON:
+                return JSON_TYPE;
+            case MARKDOWN:
+                return "text/markdown; charset=utf-8";
+            default:
+                return "text/plain; charset=utf-8";
+        }
+    }
+
+    private static String queryParam(HttpExchange exchange, String name, String defaultValue) {
+        String query = exchange.getRequestURI().getQuery();
+        if (query != null) {
+            for (String pair : query.split("&")) {
+                int eq = pair.indexOf('=');
+                if (eq > 0 && pair.substring(0, eq).equals(name)) {
+                    return pair.substring(eq + 1);
+                }
+            }
+        }
+        return defaultValue;
+    }
+}
@@ -1,6 +1,11 @@
 package com.github.colommar.application.service;
 
 import com.github.colommar.domain.model.AISummaryResponse;
+import com.github.colommar.domain.model.PageSummary;
+import com.github.colommar.domain.model.UploaderVideoPage;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * B站AI字幕服务接口
@@ -15,4 +20,22 @@ public interface BiliWebService {
      * @throws Exception 获取失败时抛出异常
      */
     AISummaryResponse getAISummary(String bvid) throws Exception;
+    
+    /**
+     * 获取多P视频每个分P的AI摘要
+     * 
+     * @param bvid 视频BV号
+     * @return 按分P顺序排列的结果
+     * @throws Exception 获取失败时抛出异常
+     */
+    List<PageSummary> getPageSummaries(String bvid) throws Exception;
+    
+    /**
+     * 异步获取UP主投稿列表的一页
+     * 
+     * @param mid UP主mid
+     * @param page 页码，从1开始
+     * @return 投稿列表，按发布时间从新到旧排列
+     */
+    CompletableFuture<UploaderVideoPage> getUploaderVideosAsync(long mid, int page);
 }
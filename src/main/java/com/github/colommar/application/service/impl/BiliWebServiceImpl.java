@@ -2,12 +2,17 @@ package com.github.colommar.application.service.impl;
 
 import com.github.colommar.application.service.BiliWebService;
 import com.github.colommar.domain.model.AISummaryResponse;
+import com.github.colommar.domain.model.PageSummary;
+import com.github.colommar.domain.model.UploaderVideoPage;
 import com.github.colommar.domain.service.BiliWebDomainService;
 import com.github.colommar.domain.service.impl.BiliWebDomainServiceImpl;
 import com.github.colommar.infrastructure.config.ConfigLoader;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.Validate;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 /**
  * B站AI字幕服务实现类
  */
@@ -38,4 +43,29 @@ public class BiliWebServiceImpl implements BiliWebService {
             throw e;
         }
     }
+    
+    @Override
+    public List<PageSummary> getPageSummaries(String bvid) throws Exception {
+        try {
+            Validate.notBlank(bvid, "视频BV号不能为空");
+            
+            log.info("Starting to retrieve AI summaries for all pages, BV ID: {}", bvid);
+            
+            return biliWebDomainService.getPageSummaries(bvid);
+            
+        } catch (Exception e) {
+            log.error("Failed to retrieve AI summaries for all pages: {}", e.getMessage(), e);
+            throw e;
+        }
+    }
+    
+    @Override
+    public CompletableFuture<UploaderVideoPage> getUploaderVideosAsync(long mid, int page) {
+        Validate.isTrue(mid > 0, "UP主mid必须大于0");
+        Validate.isTrue(page > 0, "页码必须大于0");
+        
+        log.debug("Retrieving uploader videos, mid: {}, page: {}", mid, page);
+        
+        return biliWebDomainService.getUploaderVideosAsync(mid, page);
+    }
 }
@@ -0,0 +1,141 @@
+package com.github.colommar.application.startup;
+
+import com.github.colommar.application.export.ExportFormat;
+import com.github.colommar.application.export.SummaryExporter;
+import com.github.colommar.application.export.TextRenderer;
+import com.github.colommar.application.service.BiliWebService;
+import com.github.colommar.application.service.impl.BiliWebServiceImpl;
+import com.github.colommar.domain.model.AISummaryResponse;
+import com.github.colommar.infrastructure.config.ConfigLoader;
+import com.github.colommar.infrastructure.util.HttpUtil;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * 生成类数据共享（AppCDS）归档用的训练运行
+ * <p>
+ * 在回环地址上启动返回固定响应的HTTP服务并把接口地址指向它，完整走一遍单个视频查询、多P查询、
+ * 控制台输出和全部文件格式的导出，使正常查询会用到的类都被加载。不访问B站，也不需要有效的SESSDATA。
+ * 配合 {@code -XX:ArchiveClassesAtExit} 运行，JVM退出时把加载过的类写入归档。
+ */
+@Slf4j
+public class TrainingRun {
+
+    private static final String BVID = "BV1cds411train";
+    private static final String VIEW_BODY = "{\"code\":0,\"message\":\"0\",\"ttl\":1,\"data\":{\"bvid\":\"" + BVID + "\","
+            + "\"title\":\"training\",\"desc\":\"\",\"owner\":{\"mid\":1,\"name\":\"training\"},"
+            + "\"pages\":[{\"cid\":1001,\"page\":1,\"part\":\"P1\",\"duration\":60},"
+            + "{\"cid\":1002,\"page\":2,\"part\":\"P2\",\"duration\":60}]}}";
+    private static final String NAV_BODY = "{\"code\":0,\"message\":\"0\",\"ttl\":1,\"data\":{\"isLogin\":true,"
+            + "\"wbi_img\":{\"img_url\":\"https://i0.hdslb.com/bfs/wbi/7cd084941338484aae1ad9425b84077c.png\","
+            + "\"sub_url\":\"https://i0.hdslb.com/bfs/wbi/4932caff0ff746eab6f01bf08b70ac45.png\"}}}";
+    private static final String CONCLUSION_BODY = "{\"code\":0,\"message\":\"0\",\"ttl\":1,\"data\":{\"code\":0,"
+            + "\"model_result\":{\"result_type\":2,\"summary\":\"训练用摘要\","
+            + "\"outline\":[{\"title\":\"第一部分\",\"timestamp\":0,"
+            + "\"part_outline\":[{\"timestamp\":0,\"content\":\"要点\"}]}],"
+            + "\"subtitle\":[{\"title\":\"\",\"timestamp\":0,\"part_subtitle\":["
+            + "{\"start_timestamp\":0,\"end_timestamp\":2,\"content\":\"第一句\"},"
+            + "{\"start_timestamp\":2,\"end_timestamp\":5,\"content\":\"第二句\"}]}]},"
+            + "\"stid\":\"0\",\"status\":0,\"like_num\":0,\"dislike_num\":0}}";
+
+    private TrainingRun() {
+    }
+
+    /**
+     * 执行训练运行
+     *
+     * @return 进程退出码，成功为0
+     */
+    public static int run() {
+        HttpServer server = null;
+        Path workDir = null;
+        try {
+            server = startServer();
+            workDir = Files.createTempDirectory("bili-cds-training");
+
+            Map<String, String> overrides = new HashMap<>();
+            overrides.put("apiBaseUrl", "http://127.0.0.1:" + server.getAddress().getPort());
+            overrides.put("sessdata", "cds-training");
+            overrides.put("cacheEnabled", "true");
+            overrides.put("cacheDir", workDir.resolve("cache").toString());
+            ConfigLoader.applyOverrides(overrides);
+            HttpUtil.warmUp();
+
+            BiliWebService biliWebService = new BiliWebServiceImpl();
+            AISummaryResponse response = biliWebService.getAISummary(BVID);
+            biliWebService.getPageSummaries(BVID);
+            AISummaryResponse.ModelResult result = response.getData().getModel_result();
+
+            Writer console = new OutputStreamWriter(new ByteArrayOutputStream(), StandardCharsets.UTF_8);
+            SummaryExporter.render(BVID, result, Collections.singletonList(new TextRenderer(console, true, false)));
+            console.flush();
+            SummaryExporter.export(BVID, result, workDir, BVID, EnumSet.allOf(ExportFormat.class), true);
+            log.info("Training run completed");
+            return 0;
+        } catch (Exception e) {
+            log.error("Training run failed: {}", e.getMessage(), e);
+            return 1;
+        } finally {
+            if (server != null) {
+                server.stop(0);
+            }
+            deleteRecursively(workDir);
+        }
+    }
+
+    private static HttpServer startServer() throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/x/web-interface/view/conclusion/get", exchange -> send(exchange, CONCLUSION_BODY));
+        server.createContext("/x/web-interface/view", exchange -> send(exchange, VIEW_BODY));
+        server.createContext("/x/web-interface/nav", exchange -> send(exchange, NAV_BODY));
+        server.createContext("/", exchange -> {
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+        });
+        server.start();
+        return server;
+    }
+
+    private static void send(HttpExchange exchange, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(bytes);
+        }
+    }
+
+    private static void deleteRecursively(Path directory) {
+        if (directory == null) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.deleteIfExists(path);
+                } catch (IOException e) {
+                    log.debug("Failed to delete {}: {}", path, e.getMessage());
+                }
+            });
+        } catch (IOException e) {
+            log.debug("Failed to clean up {}: {}", directory, e.getMessage());
+        }
+    }
+}
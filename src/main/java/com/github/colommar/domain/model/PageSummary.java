@@ -0,0 +1,17 @@
+package com.github.colommar.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 单个分P的AI摘要结果
+ */
+@Getter
+@AllArgsConstructor
+public class PageSummary {
+    private final VideoPage page;
+    /** 获取失败时为null */
+    private final AISummaryResponse response;
+    /** 获取成功时为null */
+    private final Throwable error;
+}
@@ -0,0 +1,28 @@
+package com.github.colommar.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * UP主投稿列表的一页，按发布时间从新到旧排列
+ */
+@Getter
+@AllArgsConstructor
+public class UploaderVideoPage {
+    private final long mid;
+    /** 页码，从1开始 */
+    private final int page;
+    private final int pageSize;
+    /** 投稿总数 */
+    private final int totalCount;
+    private final List<String> bvids;
+
+    /**
+     * 是否还有下一页
+     */
+    public boolean hasMore() {
+        return !bvids.isEmpty() && (long) page * pageSize < totalCount;
+    }
+}
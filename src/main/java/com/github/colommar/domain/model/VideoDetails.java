@@ -4,6 +4,9 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.Collections;
+import java.util.List;
+
 /**
  * 视频详情模型
  */
@@ -11,6 +14,26 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 public class VideoDetails {
+    /** 第一个分P的cid */
     private long cid;
     private long upMid;
+    /** 全部分P，按分P顺序 */
+    private List<VideoPage> pages;
+    
+    /**
+     * 全部分P；旧版本缓存中没有分P列表时视为只有第一个分P
+     */
+    public List<VideoPage> pageList() {
+        if (pages == null || pages.isEmpty()) {
+            return Collections.singletonList(new VideoPage(cid, 1, null));
+        }
+        return pages;
+    }
+    
+    /**
+     * 指定分P的视频详情，用于请求该分P的AI摘要
+     */
+    public VideoDetails forPage(VideoPage page) {
+        return new VideoDetails(page.getCid(), upMid, Collections.singletonList(page));
+    }
 }
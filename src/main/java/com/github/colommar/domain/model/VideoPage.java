@@ -0,0 +1,19 @@
+package com.github.colommar.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 视频分P
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VideoPage {
+    private long cid;
+    /** 分P序号，从1开始 */
+    private int page;
+    /** 分P标题 */
+    private String title;
+}
@@ -1,38 +1,263 @@
 package com.github.colommar.domain.service.impl;
 
 import com.github.colommar.domain.model.AISummaryResponse;
+import com.github.colommar.domain.model.PageSummary;
+import com.github.colommar.domain.model.UploaderVideoPage;
 import com.github.colommar.domain.model.VideoDetails;
+import com.github.colommar.domain.model.VideoPage;
 import com.github.colommar.domain.model.WbiKeys;
 import com.github.colommar.domain.service.BiliWebDomainService;
+import com.github.colommar.infrastructure.cache.DiskCache;
+import com.github.colommar.infrastructure.cache.WbiKeyProvider;
+import com.github.colommar.infrastructure.config.ConfigLoader;
+import com.github.colommar.infrastructure.gateway.BiliApiException;
+import com.github.colommar.infrastructure.gateway.BiliEndpoint;
 import com.github.colommar.infrastructure.gateway.BiliWebGateway;
 import com.github.colommar.infrastructure.gateway.impl.BiliWebGatewayImpl;
+import com.github.colommar.infrastructure.gateway.impl.CachingBiliWebGateway;
+import com.github.colommar.infrastructure.util.Futures;
+import com.github.colommar.infrastructure.util.SingleFlight;
+import com.google.gson.Gson;
 import lombok.extern.slf4j.Slf4j;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
 /**
  * B站AI字幕领域服务实现类
  */
 @Slf4j
 public class BiliWebDomainServiceImpl implements BiliWebDomainService {
     
+    private static final long WBI_KEY_REFRESH_AHEAD_MILLIS = TimeUnit.MINUTES.toMillis(5);
+    
     private final BiliWebGateway biliWebGateway;
+    private final WbiKeyProvider wbiKeyProvider;
+    private final long viewTimeoutMillis;
+    private final long navTimeoutMillis;
+    private final long conclusionTimeoutMillis;
+    private final long spaceTimeoutMillis;
+    private final int pageConcurrency;
+    private final SingleFlight<String, AISummaryResponse> summaryFlights = new SingleFlight<>();
     
     public BiliWebDomainServiceImpl() {
-        this.biliWebGateway = new BiliWebGatewayImpl();
+        try {
+            this.biliWebGateway = createGateway();
+            long ttlMillis = TimeUnit.SECONDS.toMillis(ConfigLoader.loadWbiKeyTtlSecondsFromConfig());
+            this.wbiKeyProvider = new WbiKeyProvider(biliWebGateway, ttlMillis, WBI_KEY_REFRESH_AHEAD_MILLIS);
+            this.viewTimeoutMillis = ConfigLoader.loadStageTimeoutMillisFromConfig(BiliEndpoint.VIEW.getKey());
+            this.navTimeoutMillis = ConfigLoader.loadStageTimeoutMillisFromConfig(BiliEndpoint.NAV.getKey());
+            this.conclusionTimeoutMillis = ConfigLoader.loadStageTimeoutMillisFromConfig(BiliEndpoint.CONCLUSION.getKey());
+            this.spaceTimeoutMillis = ConfigLoader.loadStageTimeoutMillisFromConfig(BiliEndpoint.SPACE.getKey());
+            this.pageConcurrency = ConfigLoader.loadPageConcurrencyFromConfig();
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to initialize domain service", e);
+        }
+    }
+    
+    /**
+     * @param biliWebGateway 网关
+     * @param wbiKeyProvider WBI密钥缓存
+     * @param viewTimeoutMillis 视频详情阶段超时
+     * @param navTimeoutMillis WBI密钥阶段超时
+     * @param conclusionTimeoutMillis AI摘要阶段超时
+     * @param spaceTimeoutMillis 投稿列表阶段超时
+     * @param pageConcurrency 多P视频同时请求的分P数
+     */
+    public BiliWebDomainServiceImpl(BiliWebGateway biliWebGateway, WbiKeyProvider wbiKeyProvider,
+                                    long viewTimeoutMillis, long navTimeoutMillis, long conclusionTimeoutMillis,
+                                    long spaceTimeoutMillis, int pageConcurrency) {
+        this.biliWebGateway = biliWebGateway;
+        this.wbiKeyProvider = wbiKeyProvider;
+        this.viewTimeoutMillis = viewTimeoutMillis;
+        this.navTimeoutMillis = navTimeoutMillis;
+        this.conclusionTimeoutMillis = conclusionTimeoutMillis;
+        this.spaceTimeoutMillis = spaceTimeoutMillis;
+        this.pageConcurrency = pageConcurrency;
     }
     
     @Override
     public AISummaryResponse getAISummary(String bvid) throws Exception {
+        return Futures.await(getAISummaryAsync(bvid));
+    }
+    
+    /**
+     * 视频详情与WBI密钥互不依赖，同时获取；两者都完成后再请求AI摘要，总耗时为关键路径耗时
+     * <p>
+     * 同一bvid的并发请求共享一次调用链。
+     */
+    @Override
+    public CompletableFuture<AISummaryResponse> getAISummaryAsync(String bvid) {
+        return summaryFlights.executeAsync(bvid, () -> fetchAISummary(bvid));
+    }
+    
+    private CompletableFuture<AISummaryResponse> fetchAISummary(String bvid) {
         log.info("Domain service starting to process AI summary request, BV ID: {}", bvid);
         
-        VideoDetails videoDetails = biliWebGateway.getVideoDetails(bvid);
-        log.debug("Successfully retrieved video details, CID: {}, UP ID: {}", videoDetails.getCid(), videoDetails.getUpMid());
+        CompletableFuture<VideoDetails> videoDetails = Futures.withTimeout(biliWebGateway.getVideoDetailsAsync(bvid),
+                viewTimeoutMillis, TimeUnit.MILLISECONDS, BiliEndpoint.VIEW.getKey());
+        CompletableFuture<WbiKeys> wbiKeys = Futures.withTimeout(wbiKeyProvider.getKeysAsync(),
+                navTimeoutMillis, TimeUnit.MILLISECONDS, BiliEndpoint.NAV.getKey());
         
-        WbiKeys wbiKeys = biliWebGateway.getWbiKeys();
-        log.debug("Successfully retrieved WBI keys");
+        return videoDetails.thenCombine(wbiKeys, (details, keys) -> {
+            log.debug("Successfully retrieved video details, CID: {}, UP ID: {}", details.getCid(), details.getUpMid());
+            return fetchConclusion(bvid, details, keys);
+        }).thenCompose(Function.identity()).thenApply(response -> {
+            log.info("Successfully retrieved AI summary");
+            return response;
+        });
+    }
+    
+    @Override
+    public List<PageSummary> getPageSummaries(String bvid) throws Exception {
+        return Futures.await(getPageSummariesAsync(bvid));
+    }
+    
+    /**
+     * 视频详情与WBI密钥只获取一次，所有分P共用；分P以有限并发请求，结果按分P顺序返回
+     */
+    @Override
+    public CompletableFuture<List<PageSummary>> getPageSummariesAsync(String bvid) {
+        log.info("Domain service starting to process AI summaries for all pages, BV ID: {}", bvid);
         
-        AISummaryResponse response = biliWebGateway.getAISummary(bvid, videoDetails, wbiKeys);
-        log.info("Successfully retrieved AI summary");
+        CompletableFuture<VideoDetails> videoDetails = Futures.withTimeout(biliWebGateway.getVideoDetailsAsync(bvid),
+                viewTimeoutMillis, TimeUnit.MILLISECONDS, BiliEndpoint.VIEW.getKey());
+        CompletableFuture<WbiKeys> wbiKeys = Futures.withTimeout(wbiKeyProvider.getKeysAsync(),
+                navTimeoutMillis, TimeUnit.MILLISECONDS, BiliEndpoint.NAV.getKey());
+        
+        return videoDetails.thenCombine(wbiKeys, (details, keys) -> {
+            log.debug("Video {} has {} page(s)", bvid, details.pageList().size());
+            return new PageFetch(bvid, details, keys).start();
+        }).thenCompose(Function.identity());
+    }
+    
+    /**
+     * 签名被拒绝时刷新密钥后重试一次
+     */
+    @Override
+    public CompletableFuture<UploaderVideoPage> getUploaderVideosAsync(long mid, int page) {
+        return wbiKeyProvider.getKeysAsync().thenCompose(wbiKeys -> requestUploaderVideos(mid, page, wbiKeys)
+                .handle((videos, error) -> {
+                    if (error == null) {
+                        return CompletableFuture.completedFuture(videos);
+                    }
+                    Throwable cause = Futures.unwrap(error);
+                    if (!(cause instanceof BiliApiException) || !((BiliApiException) cause).isSignatureRejected()) {
+                        return Futures.<UploaderVideoPage>failed(cause);
+                    }
+                    log.warn("WBI signature rejected for uploader {}, retrying with fresh keys", mid);
+                    wbiKeyProvider.invalidate(wbiKeys);
+                    return wbiKeyProvider.getKeysAsync().thenCompose(freshKeys -> requestUploaderVideos(mid, page, freshKeys));
+                }).thenCompose(Function.identity()));
+    }
+    
+    private CompletableFuture<UploaderVideoPage> requestUploaderVideos(long mid, int page, WbiKeys wbiKeys) {
+        return Futures.withTimeout(biliWebGateway.getUploaderVideosAsync(mid, page, wbiKeys),
+                spaceTimeoutMillis, TimeUnit.MILLISECONDS, BiliEndpoint.SPACE.getKey());
+    }
+    
+    /**
+     * 请求AI摘要，签名被拒绝时刷新密钥后重试一次
+     */
+    private CompletableFuture<AISummaryResponse> fetchConclusion(String bvid, VideoDetails videoDetails, WbiKeys wbiKeys) {
+        return requestConclusion(bvid, videoDetails, wbiKeys).handle((response, error) -> {
+            if (error == null) {
+                return CompletableFuture.completedFuture(response);
+            }
+            Throwable cause = Futures.unwrap(error);
+            if (!(cause instanceof BiliApiException) || !((BiliApiException) cause).isSignatureRejected()) {
+                return Futures.<AISummaryResponse>failed(cause);
+            }
+            // 密钥可能已轮换，刷新后重试一次
+            log.warn("WBI signature rejected for {}, retrying with fresh keys", bvid);
+            wbiKeyProvider.invalidate(wbiKeys);
+            return wbiKeyProvider.getKeysAsync().thenCompose(freshKeys -> requestConclusion(bvid, videoDetails, freshKeys));
+        }).thenCompose(Function.identity());
+    }
+    
+    private CompletableFuture<AISummaryResponse> requestConclusion(String bvid, VideoDetails videoDetails, WbiKeys wbiKeys) {
+        return Futures.withTimeout(biliWebGateway.getAISummaryAsync(bvid, videoDetails, wbiKeys),
+                conclusionTimeoutMillis, TimeUnit.MILLISECONDS, BiliEndpoint.CONCLUSION.getKey());
+    }
+    
+    /**
+     * 一个多P视频的分P抓取：同时最多 {@code pageConcurrency} 个分P在请求中，一个完成后启动下一个
+     */
+    private class PageFetch {
+        
+        private final String bvid;
+        private final VideoDetails videoDetails;
+        private final WbiKeys wbiKeys;
+        private final List<VideoPage> pages;
+        private final PageSummary[] results;
+        private final AtomicInteger nextIndex = new AtomicInteger();
+        private final AtomicInteger remaining;
+        private final CompletableFuture<List<PageSummary>> done = new CompletableFuture<>();
+        
+        private PageFetch(String bvid, VideoDetails videoDetails, WbiKeys wbiKeys) {
+            this.bvid = bvid;
+            this.videoDetails = videoDetails;
+            this.wbiKeys = wbiKeys;
+            this.pages = videoDetails.pageList();
+            this.results = new PageSummary[pages.size()];
+            this.remaining = new AtomicInteger(pages.size());
+        }
+        
+        private CompletableFuture<List<PageSummary>> start() {
+            int workers = Math.min(pageConcurrency, pages.size());
+            for (int i = 0; i < workers; i++) {
+                launchNext();
+            }
+            return done;
+        }
+        
+        private void launchNext() {
+            int index = nextIndex.getAndIncrement();
+            if (index >= pages.size()) {
+                return;
+            }
+            VideoPage page = pages.get(index);
+            fetchConclusion(bvid, videoDetails.forPage(page), wbiKeys).whenComplete((response, error) -> {
+                if (error != null) {
+                    Throwable cause = Futures.unwrap(error);
+                    log.warn("Failed to retrieve AI summary for {} P{}: {}", bvid, page.getPage(), cause.getMessage());
+                    results[index] = new PageSummary(page, null, cause);
+                } else {
+                    results[index] = new PageSummary(page, response, null);
+                }
+                if (remaining.decrementAndGet() == 0) {
+                    log.info("Retrieved AI summaries for {} page(s) of {}", results.length, bvid);
+                    done.complete(Arrays.asList(results));
+                } else {
+                    launchNext();
+                }
+            });
+        }
+    }
+    
+    /**
+     * 创建网关，启用缓存时在外层包装本地持久化缓存
+     */
+    private static BiliWebGateway createGateway() throws IOException {
+        BiliWebGateway gateway = new BiliWebGatewayImpl();
+        if (!ConfigLoader.loadCacheEnabledFromConfig()) {
+            return gateway;
+        }
         
-        return response;
+        Path cacheDir = Paths.get(ConfigLoader.loadCacheDirFromConfig());
+        int maxEntries = ConfigLoader.loadCacheMaxEntriesFromConfig();
+        Gson gson = new Gson();
+        DiskCache<VideoDetails> videoDetailsCache = new DiskCache<>("view", cacheDir.resolve("view"), gson,
+                VideoDetails.class, TimeUnit.SECONDS.toMillis(ConfigLoader.loadCacheViewTtlSecondsFromConfig()), maxEntries);
+        DiskCache<AISummaryResponse> summaryCache = new DiskCache<>("conclusion", cacheDir.resolve("conclusion"), gson,
+                AISummaryResponse.class, TimeUnit.SECONDS.toMillis(ConfigLoader.loadCacheSummaryTtlSecondsFromConfig()), maxEntries);
+        return new CachingBiliWebGateway(gateway, videoDetailsCache, summaryCache);
     }
 }
@@ -0,0 +1,141 @@
+package com.github.colommar.infrastructure.archive;
+
+import com.github.colommar.domain.model.AISummaryResponse;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 字幕段中单个视频的只读视图
+ * <p>
+ * 所有访问都直接读取映射区域；字幕行按时间顺序编号，分组对应原响应中的 {@link AISummaryResponse.Subtitle}。
+ */
+public class ArchivedVideo {
+
+    private static final int START = 0;
+    private static final int END = 1;
+    private static final int CONTENT_OFFSET = 2;
+    private static final int CONTENT_LENGTH = 3;
+
+    private static final int GROUP_TIMESTAMP = 0;
+    private static final int GROUP_TITLE_OFFSET = 1;
+    private static final int GROUP_TITLE_LENGTH = 2;
+    private static final int GROUP_FIRST_ROW = 3;
+
+    private final SubtitleSegment segment;
+    private final int entry;
+    private final int firstGroup;
+    private final int groupCount;
+    private final int firstRow;
+    private final int rowCount;
+
+    ArchivedVideo(SubtitleSegment segment, int entry) {
+        this.segment = segment;
+        this.entry = entry;
+        this.firstGroup = segment.getInt(entry + 16);
+        this.groupCount = segment.getInt(entry + 20);
+        this.firstRow = segment.getInt(entry + 24);
+        this.rowCount = segment.getInt(entry + 28);
+    }
+
+    public String bvid() {
+        return segment.string(segment.getInt(entry), segment.getInt(entry + 4));
+    }
+
+    public String summary() {
+        return segment.string(segment.getInt(entry + 8), segment.getInt(entry + 12));
+    }
+
+    /**
+     * 字幕行数
+     */
+    public int rowCount() {
+        return rowCount;
+    }
+
+    public int startTimestamp(int row) {
+        return segment.rowColumn(START, rowIndex(row));
+    }
+
+    public int endTimestamp(int row) {
+        return segment.rowColumn(END, rowIndex(row));
+    }
+
+    public String content(int row) {
+        int index = rowIndex(row);
+        return segment.string(segment.rowColumn(CONTENT_OFFSET, index), segment.rowColumn(CONTENT_LENGTH, index));
+    }
+
+    /**
+     * 字幕内容的UTF-8字节，直接指向映射区域
+     */
+    public ByteBuffer contentBytes(int row) {
+        int index = rowIndex(row);
+        return segment.bytes(segment.rowColumn(CONTENT_OFFSET, index), segment.rowColumn(CONTENT_LENGTH, index));
+    }
+
+    /**
+     * 字幕分组数
+     */
+    public int groupCount() {
+        return groupCount;
+    }
+
+    public String groupTitle(int group) {
+        int index = groupIndex(group);
+        return segment.string(segment.groupColumn(GROUP_TITLE_OFFSET, index),
+                segment.groupColumn(GROUP_TITLE_LENGTH, index));
+    }
+
+    public int groupTimestamp(int group) {
+        return segment.groupColumn(GROUP_TIMESTAMP, groupIndex(group));
+    }
+
+    /**
+     * 分组的第一行，相对于本视频
+     */
+    public int groupFirstRow(int group) {
+        return segment.groupColumn(GROUP_FIRST_ROW, groupIndex(group)) - firstRow;
+    }
+
+    /**
+     * 还原为模型结果，便于交给 {@code SummaryExporter} 渲染；段中不保存提纲，outline为null
+     */
+    public AISummaryResponse.ModelResult toModelResult() {
+        AISummaryResponse.Subtitle[] subtitles = new AISummaryResponse.Subtitle[groupCount];
+        for (int group = 0; group < groupCount; group++) {
+            int from = groupFirstRow(group);
+            int to = group + 1 < groupCount ? groupFirstRow(group + 1) : rowCount;
+            AISummaryResponse.PartSubtitle[] parts = new AISummaryResponse.PartSubtitle[to - from];
+            for (int row = from; row < to; row++) {
+                AISummaryResponse.PartSubtitle part = new AISummaryResponse.PartSubtitle();
+                part.setStart_timestamp(startTimestamp(row));
+                part.setEnd_timestamp(endTimestamp(row));
+                part.setContent(content(row));
+                parts[row - from] = part;
+            }
+            AISummaryResponse.Subtitle subtitle = new AISummaryResponse.Subtitle();
+            subtitle.setTitle(groupTitle(group));
+            subtitle.setTimestamp(groupTimestamp(group));
+            subtitle.setPart_subtitle(parts);
+            subtitles[group] = subtitle;
+        }
+        AISummaryResponse.ModelResult result = new AISummaryResponse.ModelResult();
+        result.setSummary(summary());
+        result.setSubtitle(subtitles);
+        return result;
+    }
+
+    private int rowIndex(int row) {
+        if (row < 0 || row >= rowCount) {
+            throw new IndexOutOfBoundsException("Row " + row + " out of " + rowCount);
+        }
+        return firstRow + row;
+    }
+
+    private int groupIndex(int group) {
+        if (group < 0 || group >= groupCount) {
+            throw new IndexOutOfBoundsException("Group " + group + " out of " + groupCount);
+        }
+        return firstGroup + group;
+    }
+}
@@ -0,0 +1,45 @@
+package com.github.colommar.infrastructure.archive;
+
+/**
+ * 字幕段文件布局
+ * <p>
+ * 所有整数为大端序int，各区依次紧挨排列，位置都可由头部的计数算出：
+ * <pre>
+ * 头部     MAGIC, VERSION, videoCount, groupCount, rowCount, heapLength, 保留, 保留
+ * 索引     videoCount 条，按BV号的UTF-8字节升序：
+ *          bvid偏移, bvid长度, summary偏移, summary长度, 首个分组, 分组数, 首行, 行数
+ * 分组列   timestamp[groupCount], title偏移[groupCount], title长度[groupCount], 首行[groupCount]
+ * 字幕列   start[rowCount], end[rowCount], content偏移[rowCount], content长度[rowCount]
+ * 字符串堆 heapLength 字节UTF-8
+ * </pre>
+ * 字符串以（偏移, 长度）引用字符串堆，长度为-1表示null。
+ */
+final class SegmentLayout {
+
+    static final int MAGIC = 0x42534547;
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 32;
+    static final int INDEX_ENTRY_INTS = 8;
+    static final int GROUP_COLUMNS = 4;
+    static final int ROW_COLUMNS = 4;
+    static final int NULL_LENGTH = -1;
+
+    private SegmentLayout() {
+    }
+
+    static long indexOffset() {
+        return HEADER_BYTES;
+    }
+
+    static long groupsOffset(int videoCount) {
+        return indexOffset() + (long) videoCount * INDEX_ENTRY_INTS * Integer.BYTES;
+    }
+
+    static long rowsOffset(int videoCount, int groupCount) {
+        return groupsOffset(videoCount) + (long) groupCount * GROUP_COLUMNS * Integer.BYTES;
+    }
+
+    static long heapOffset(int videoCount, int groupCount, int rowCount) {
+        return rowsOffset(videoCount, groupCount) + (long) rowCount * ROW_COLUMNS * Integer.BYTES;
+    }
+}
@@ -0,0 +1,144 @@
+package com.github.colommar.infrastructure.archive;
+
+import com.github.colommar.domain.model.AISummaryResponse;
+import com.github.colommar.infrastructure.segment.IntColumn;
+import com.github.colommar.infrastructure.segment.Segments;
+import org.apache.commons.lang3.Validate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 在内存中构建一个字幕段，完成后一次写出
+ * <p>
+ * 字幕按列存放在int数组中，文本追加到同一个UTF-8字符串堆，不为每行保留对象。
+ * 同一个BV号多次写入时以最后一次为准。非线程安全。
+ */
+public class SegmentWriter {
+
+    private final Map<String, int[]> videos = new HashMap<>();
+    private final IntColumn groupTimestamps = new IntColumn();
+    private final IntColumn groupTitleOffsets = new IntColumn();
+    private final IntColumn groupTitleLengths = new IntColumn();
+    private final IntColumn groupFirstRows = new IntColumn();
+    private final IntColumn starts = new IntColumn();
+    private final IntColumn ends = new IntColumn();
+    private final IntColumn contentOffsets = new IntColumn();
+    private final IntColumn contentLengths = new IntColumn();
+    private final ByteArrayOutputStream heap = new ByteArrayOutputStream(64 * 1024);
+
+    /**
+     * 写入一个视频的字幕
+     *
+     * @param bvid 视频BV号
+     * @param result 模型结果
+     */
+    public void add(String bvid, AISummaryResponse.ModelResult result) {
+        Validate.notEmpty(bvid, "BV号不能为空");
+        int[] entry = new int[SegmentLayout.INDEX_ENTRY_INTS];
+        appendString(bvid, entry, 0);
+        appendString(result.getSummary(), entry, 2);
+        entry[4] = groupTimestamps.size();
+        entry[6] = starts.size();
+
+        if (result.getSubtitle() != null) {
+            for (AISummaryResponse.Subtitle subtitle : result.getSubtitle()) {
+                groupTimestamps.add(subtitle.getTimestamp());
+                int[] title = new int[2];
+                appendString(subtitle.getTitle(), title, 0);
+                groupTitleOffsets.add(title[0]);
+                groupTitleLengths.add(title[1]);
+                groupFirstRows.add(starts.size());
+                if (subtitle.getPart_subtitle() == null) {
+                    continue;
+                }
+                for (AISummaryResponse.PartSubtitle part : subtitle.getPart_subtitle()) {
+                    int[] content = new int[2];
+                    appendString(part.getContent(), content, 0);
+                    starts.add(part.getStart_timestamp());
+                    ends.add(part.getEnd_timestamp());
+                    contentOffsets.add(content[0]);
+                    contentLengths.add(content[1]);
+                }
+            }
+        }
+        entry[5] = groupTimestamps.size() - entry[4];
+        entry[7] = starts.size() - entry[6];
+        videos.put(bvid, entry);
+    }
+
+    /**
+     * 已写入的视频数
+     */
+    public int videoCount() {
+        return videos.size();
+    }
+
+    /**
+     * 写出后的大致文件大小
+     */
+    public long estimatedBytes() {
+        return SegmentLayout.heapOffset(videos.size(), groupTimestamps.size(), starts.size()) + heap.size();
+    }
+
+    /**
+     * 按段文件格式写出
+     *
+     * @param out 输出流
+     * @throws IOException 写出失败时抛出异常
+     */
+    public void writeTo(DataOutputStream out) throws IOException {
+        List<Map.Entry<String, byte[]>> order = new ArrayList<>(videos.size());
+        for (String bvid : videos.keySet()) {
+            order.add(new AbstractMap.SimpleImmutableEntry<>(bvid, bvid.getBytes(StandardCharsets.UTF_8)));
+        }
+        order.sort((a, b) -> Segments.compareUnsigned(a.getValue(), b.getValue()));
+
+        out.writeInt(SegmentLayout.MAGIC);
+        out.writeInt(SegmentLayout.VERSION);
+        out.writeInt(videos.size());
+        out.writeInt(groupTimestamps.size());
+        out.writeInt(starts.size());
+        out.writeInt(heap.size());
+        out.writeInt(0);
+        out.writeInt(0);
+        for (Map.Entry<String, byte[]> video : order) {
+            for (int value : videos.get(video.getKey())) {
+                out.writeInt(value);
+            }
+        }
+        groupTimestamps.writeTo(out);
+        groupTitleOffsets.writeTo(out);
+        groupTitleLengths.writeTo(out);
+        groupFirstRows.writeTo(out);
+        starts.writeTo(out);
+        ends.writeTo(out);
+        contentOffsets.writeTo(out);
+        contentLengths.writeTo(out);
+        heap.writeTo(out);
+    }
+
+    /**
+     * 追加字符串到字符串堆，偏移和长度写入target[index]、target[index + 1]
+     */
+    private void appendString(String value, int[] target, int index) {
+        if (value == null) {
+            target[index] = 0;
+            target[index + 1] = SegmentLayout.NULL_LENGTH;
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        // 映射读取的上限是2GB，超出前由调用方切换到新段
+        Validate.validState((long) heap.size() + bytes.length <= Integer.MAX_VALUE, "字幕段超过2GB");
+        target[index] = heap.size();
+        target[index + 1] = bytes.length;
+        heap.write(bytes, 0, bytes.length);
+    }
+}
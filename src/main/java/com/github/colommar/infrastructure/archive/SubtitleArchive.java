@@ -0,0 +1,111 @@
+package com.github.colommar.infrastructure.archive;
+
+import com.github.colommar.domain.model.AISummaryResponse;
+import com.github.colommar.infrastructure.segment.SegmentDirectory;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * 由多个字幕段组成的归档目录
+ * <p>
+ * 写入先进入内存中的 {@link SegmentWriter}，超过大小上限或关闭时写出为新的段文件 {@code 00000001.seg}，
+ * 已写出的段不再修改。查找从最新的段开始，同一个BV号以最新的一份为准。
+ */
+@Slf4j
+public class SubtitleArchive implements Closeable {
+
+    private static final String SUFFIX = ".seg";
+
+    private final SegmentDirectory directory;
+    private final long maxSegmentBytes;
+    /** 已打开的段，最新的在前 */
+    private final List<SubtitleSegment> segments = new CopyOnWriteArrayList<>();
+    private SegmentWriter writer = new SegmentWriter();
+
+    private SubtitleArchive(SegmentDirectory directory, long maxSegmentBytes) {
+        this.directory = directory;
+        this.maxSegmentBytes = maxSegmentBytes;
+    }
+
+    /**
+     * 打开归档目录，映射其中所有段文件
+     *
+     * @param directory 归档目录，不存在时创建
+     * @param maxSegmentBytes 单个段文件的大小上限
+     * @return 字幕归档
+     * @throws IOException 读取失败时抛出异常
+     */
+    public static SubtitleArchive open(Path directory, long maxSegmentBytes) throws IOException {
+        SubtitleArchive archive = new SubtitleArchive(SegmentDirectory.open(directory, SUFFIX), maxSegmentBytes);
+        for (Path file : archive.directory.files()) {
+            archive.segments.add(SubtitleSegment.open(file));
+        }
+        log.debug("Opened subtitle archive {} with {} segment(s)", directory, archive.segments.size());
+        return archive;
+    }
+
+    /**
+     * 写入一个视频的字幕，当前段超过大小上限时写出
+     *
+     * @param bvid 视频BV号
+     * @param result 模型结果
+     * @throws IOException 写出段文件失败时抛出异常
+     */
+    public synchronized void add(String bvid, AISummaryResponse.ModelResult result) throws IOException {
+        writer.add(bvid, result);
+        if (writer.estimatedBytes() >= maxSegmentBytes) {
+            flush();
+        }
+    }
+
+    /**
+     * 把当前段写出为新的段文件
+     *
+     * @throws IOException 写出失败时抛出异常
+     */
+    public synchronized void flush() throws IOException {
+        if (writer.videoCount() == 0) {
+            return;
+        }
+        Path file = directory.write(writer::writeTo);
+        segments.add(0, SubtitleSegment.open(file));
+        log.info("Wrote subtitle segment {} with {} video(s)", file, writer.videoCount());
+        writer = new SegmentWriter();
+    }
+
+    /**
+     * 查找视频；尚未写出的内容不可见
+     *
+     * @param bvid 视频BV号
+     * @return 视频字幕，不存在时返回null
+     */
+    public ArchivedVideo find(String bvid) {
+        for (SubtitleSegment segment : segments) {
+            ArchivedVideo video = segment.find(bvid);
+            if (video != null) {
+                return video;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 已写出的段
+     */
+    public List<SubtitleSegment> segments() {
+        return segments;
+    }
+
+    /**
+     * 写出剩余内容
+     */
+    @Override
+    public void close() throws IOException {
+        flush();
+    }
+}
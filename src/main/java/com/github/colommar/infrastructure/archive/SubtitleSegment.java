@@ -0,0 +1,162 @@
+package com.github.colommar.infrastructure.archive;
+
+import com.github.colommar.infrastructure.segment.Segments;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 以内存映射方式读取的字幕段
+ * <p>
+ * 打开时只校验头部，查找时在索引上二分，读取单个视频的字幕直接访问映射区域，不复制也不解析其他视频。
+ * 只使用绝对位置读取，可以被多个线程同时使用。
+ */
+public class SubtitleSegment {
+
+    private final Path file;
+    private final MappedByteBuffer buffer;
+    private final int videoCount;
+    private final int groupCount;
+    private final int rowCount;
+    private final int groupsOffset;
+    private final int rowsOffset;
+    private final int heapOffset;
+
+    private SubtitleSegment(Path file, MappedByteBuffer buffer) throws IOException {
+        this.file = file;
+        this.buffer = buffer;
+        if (buffer.capacity() < SegmentLayout.HEADER_BYTES || buffer.getInt(0) != SegmentLayout.MAGIC) {
+            throw new IOException("Not a subtitle segment: " + file);
+        }
+        if (buffer.getInt(4) != SegmentLayout.VERSION) {
+            throw new IOException("Unsupported subtitle segment version " + buffer.getInt(4) + ": " + file);
+        }
+        this.videoCount = buffer.getInt(8);
+        this.groupCount = buffer.getInt(12);
+        this.rowCount = buffer.getInt(16);
+        long heapStart = SegmentLayout.heapOffset(videoCount, groupCount, rowCount);
+        if (heapStart + buffer.getInt(20) != buffer.capacity()) {
+            throw new IOException("Truncated subtitle segment: " + file);
+        }
+        this.groupsOffset = (int) SegmentLayout.groupsOffset(videoCount);
+        this.rowsOffset = (int) SegmentLayout.rowsOffset(videoCount, groupCount);
+        this.heapOffset = (int) heapStart;
+    }
+
+    /**
+     * 映射段文件
+     *
+     * @param file 段文件
+     * @return 字幕段
+     * @throws IOException 文件不存在、超过2GB或格式不正确时抛出异常
+     */
+    public static SubtitleSegment open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Subtitle segment larger than 2GB: " + file);
+            }
+            return new SubtitleSegment(file, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * 段中的视频数
+     */
+    public int videoCount() {
+        return videoCount;
+    }
+
+    /**
+     * 按BV号升序的第index个视频
+     */
+    public ArchivedVideo video(int index) {
+        return new ArchivedVideo(this, entryOffset(index));
+    }
+
+    /**
+     * 查找视频
+     *
+     * @param bvid 视频BV号
+     * @return 视频字幕，不存在时返回null
+     */
+    public ArchivedVideo find(String bvid) {
+        byte[] key = bvid.getBytes(StandardCharsets.UTF_8);
+        int low = 0;
+        int high = videoCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int entry = entryOffset(mid);
+            int cmp = compareHeap(buffer.getInt(entry), buffer.getInt(entry + 4), key);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return new ArchivedVideo(this, entry);
+            }
+        }
+        return null;
+    }
+
+    int getInt(int offset) {
+        return buffer.getInt(offset);
+    }
+
+    int groupColumn(int column, int group) {
+        return buffer.getInt(groupsOffset + (column * groupCount + group) * Integer.BYTES);
+    }
+
+    int rowColumn(int column, int row) {
+        return buffer.getInt(rowsOffset + (column * rowCount + row) * Integer.BYTES);
+    }
+
+    /**
+     * 字符串堆中的字符串，length为-1时返回null
+     */
+    String string(int offset, int length) {
+        if (length == SegmentLayout.NULL_LENGTH) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        Segments.view(buffer, heapOffset + offset, length).get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 字符串堆中的UTF-8字节，只读视图，不复制
+     */
+    ByteBuffer bytes(int offset, int length) {
+        if (length == SegmentLayout.NULL_LENGTH) {
+            return null;
+        }
+        return Segments.view(buffer, heapOffset + offset, length).slice().asReadOnlyBuffer();
+    }
+
+    private int entryOffset(int index) {
+        if (index < 0 || index >= videoCount) {
+            throw new IndexOutOfBoundsException("Video index " + index + " out of " + videoCount);
+        }
+        return (int) SegmentLayout.indexOffset() + index * SegmentLayout.INDEX_ENTRY_INTS * Integer.BYTES;
+    }
+
+    private int compareHeap(int offset, int length, byte[] key) {
+        int start = heapOffset + offset;
+        int common = Math.min(length, key.length);
+        for (int i = 0; i < common; i++) {
+            int diff = (buffer.get(start + i) & 0xff) - (key[i] & 0xff);
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return length - key.length;
+    }
+}
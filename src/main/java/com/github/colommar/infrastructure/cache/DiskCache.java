@@ -0,0 +1,295 @@
+package com.github.colommar.infrastructure.cache;
+
+import com.github.colommar.infrastructure.metrics.Metrics;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 基于本地文件的持久化缓存
+ * <p>
+ * 每个键对应目录下的一个JSON文件，写入时先写临时文件再原子替换，进程崩溃不会留下半个文件。
+ * 超过TTL的条目视为未命中；条目数超过上限时按最近最少使用淘汰。
+ * 文件名保留键的大小写，在不区分大小写的文件系统上不同的键可能对应同一个文件，因此文件中同时保存键，读取时核对。
+ *
+ * @param <V> 缓存值类型
+ */
+@Slf4j
+public class DiskCache<V> {
+
+    private static final String SUFFIX = ".json";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final List<DiskCache<?>> INSTANCES = new CopyOnWriteArrayList<>();
+
+    private final String name;
+    private final Path directory;
+    private final Gson gson;
+    private final Type entryType;
+    private final long ttlMillis;
+    private final int maxEntries;
+
+    /** 已缓存的文件名，按访问顺序排列，用于LRU淘汰 */
+    private final LinkedHashMap<String, Boolean> index = new LinkedHashMap<>(16, 0.75f, true);
+    /** 索引在第一次写入时才扫描目录建立，只查询少量条目的短命进程不必遍历整个缓存目录 */
+    private boolean indexLoaded;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public DiskCache(String name, Path directory, Gson gson, Class<V> valueType, long ttlMillis, int maxEntries)
+            throws IOException {
+        this.name = name;
+        this.directory = directory;
+        this.gson = gson;
+        this.entryType = TypeToken.getParameterized(Entry.class, valueType).getType();
+        this.ttlMillis = ttlMillis;
+        this.maxEntries = maxEntries;
+        Files.createDirectories(directory);
+        INSTANCES.add(this);
+        Metrics.registerCache("disk_" + name, this::getHits, this::getMisses);
+    }
+
+    /**
+     * 读取缓存
+     *
+     * @param key 缓存键
+     * @return 未过期的缓存值，未命中时返回null
+     */
+    public V get(String key) {
+        String fileName = toFileName(key);
+        boolean present;
+        boolean indexed;
+        synchronized (index) {
+            indexed = indexLoaded;
+            present = !indexed || index.get(fileName) != null;
+        }
+        if (!present) {
+            misses.incrementAndGet();
+            return null;
+        }
+
+        Path file = directory.resolve(fileName);
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            Entry<V> entry = gson.fromJson(reader, entryType);
+            if (entry != null && entry.key != null && !entry.key.equals(key)) {
+                // 文件属于仅大小写不同的另一个键，保留给该键使用
+                log.debug("{} cache file {} belongs to {}, not {}", name, fileName, entry.key, key);
+                misses.incrementAndGet();
+                return null;
+            }
+            if (entry != null && entry.key != null && entry.value != null
+                    && System.currentTimeMillis() - entry.storedAt <= ttlMillis) {
+                if (!indexed) {
+                    // 索引按修改时间重建，更新修改时间以保留这次访问的LRU顺序
+                    touch(file);
+                }
+                hits.incrementAndGet();
+                return entry.value;
+            }
+        } catch (NoSuchFileException e) {
+            // 文件已被其他进程删除，按未命中处理
+        } catch (IOException | JsonParseException e) {
+            log.warn("Discarding unreadable {} cache entry {}: {}", name, key, e.getMessage());
+        }
+        remove(fileName);
+        misses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * 写入缓存，写入失败只记录日志不影响调用方
+     *
+     * @param key 缓存键
+     * @param value 缓存值
+     */
+    public void put(String key, V value) {
+        String fileName = toFileName(key);
+        Path target = directory.resolve(fileName);
+        Path temp = null;
+        try {
+            temp = Files.createTempFile(directory, fileName, TEMP_SUFFIX);
+            try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                gson.toJson(new Entry<>(key, System.currentTimeMillis(), value), entryType, writer);
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            log.warn("Failed to write {} cache entry {}: {}", name, key, e.getMessage());
+            deleteQuietly(temp);
+            return;
+        }
+
+        List<String> evicted = new ArrayList<>();
+        synchronized (index) {
+            ensureIndexLoaded();
+            index.put(fileName, Boolean.TRUE);
+            Iterator<String> it = index.keySet().iterator();
+            while (index.size() > maxEntries && it.hasNext()) {
+                evicted.add(it.next());
+                it.remove();
+            }
+        }
+        for (String evictedFile : evicted) {
+            deleteQuietly(directory.resolve(evictedFile));
+            evictions.incrementAndGet();
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    public int size() {
+        synchronized (index) {
+            ensureIndexLoaded();
+            return index.size();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return name + " cache: entries=" + size() + "/" + maxEntries
+                + ", hits=" + getHits() + ", misses=" + getMisses() + ", evictions=" + getEvictions();
+    }
+
+    /**
+     * 当前进程内创建的所有缓存，用于输出统计信息
+     */
+    public static List<DiskCache<?>> instances() {
+        return INSTANCES;
+    }
+
+    /**
+     * 首次需要索引时扫描目录；扫描失败时使用空索引，只影响淘汰顺序
+     */
+    private void ensureIndexLoaded() {
+        if (indexLoaded) {
+            return;
+        }
+        indexLoaded = true;
+        try {
+            loadIndex();
+        } catch (IOException e) {
+            log.warn("Failed to scan {} cache directory {}: {}", name, directory, e.getMessage());
+        }
+    }
+
+    /**
+     * 扫描目录重建索引，清理崩溃遗留的临时文件
+     */
+    private void loadIndex() throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (Path file : stream) {
+                String fileName = file.getFileName().toString();
+                if (fileName.endsWith(TEMP_SUFFIX)) {
+                    deleteQuietly(file);
+                } else if (fileName.endsWith(SUFFIX)) {
+                    files.add(file);
+                }
+            }
+        }
+
+        // 按修改时间排序，最旧的最先被淘汰
+        files.sort((a, b) -> Long.compare(lastModified(a), lastModified(b)));
+        for (Path file : files) {
+            index.put(file.getFileName().toString(), Boolean.TRUE);
+        }
+        log.debug("Loaded {} cache index with {} entries", name, index.size());
+    }
+
+    private void remove(String fileName) {
+        synchronized (index) {
+            index.remove(fileName);
+        }
+        deleteQuietly(directory.resolve(fileName));
+    }
+
+    /**
+     * 键只允许字母数字、下划线和连字符，其余字符替换为下划线
+     */
+    private static String toFileName(String key) {
+        StringBuilder sb = new StringBuilder(key.length() + SUFFIX.length());
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            boolean safe = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                    || c == '_' || c == '-';
+            sb.append(safe ? c : '_');
+        }
+        return sb.append(SUFFIX).toString();
+    }
+
+    private static long lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            return 0L;
+        }
+    }
+
+    private static void touch(Path file) {
+        try {
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException e) {
+            log.debug("Failed to touch {}: {}", file, e.getMessage());
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.debug("Failed to delete {}: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * 缓存文件内容
+     */
+    private static class Entry<V> {
+        private String key;
+        private long storedAt;
+        private V value;
+
+        private Entry(String key, long storedAt, V value) {
+            this.key = key;
+            this.storedAt = storedAt;
+            this.value = value;
+        }
+    }
+}
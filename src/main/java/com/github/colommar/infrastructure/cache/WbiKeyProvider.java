@@ -0,0 +1,149 @@
+package com.github.colommar.infrastructure.cache;
+
+import com.github.colommar.domain.model.WbiKeys;
+import com.github.colommar.infrastructure.gateway.BiliWebGateway;
+import com.github.colommar.infrastructure.util.Futures;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * WBI密钥缓存
+ * <p>
+ * 密钥在TTL内复用；距离过期不足 {@code refreshAheadMillis} 时在后台提前刷新，调用方继续使用旧密钥。
+ * 并发的刷新请求会合并为同一次 {@code /nav} 调用。
+ */
+@Slf4j
+public class WbiKeyProvider {
+
+    private static final ExecutorService REFRESH_EXECUTOR = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "wbi-key-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final BiliWebGateway biliWebGateway;
+    private final long ttlMillis;
+    private final long refreshAheadMillis;
+
+    private volatile Entry current;
+    private final AtomicReference<CompletableFuture<WbiKeys>> inFlight = new AtomicReference<>();
+    private final AtomicBoolean refreshScheduled = new AtomicBoolean();
+
+    public WbiKeyProvider(BiliWebGateway biliWebGateway, long ttlMillis, long refreshAheadMillis) {
+        this.biliWebGateway = biliWebGateway;
+        this.ttlMillis = ttlMillis;
+        this.refreshAheadMillis = Math.min(refreshAheadMillis, ttlMillis);
+    }
+
+    /**
+     * 获取WBI密钥
+     *
+     * @return 有效的WBI密钥
+     * @throws Exception 缓存失效且刷新失败时抛出异常
+     */
+    public WbiKeys getKeys() throws Exception {
+        WbiKeys keys = cachedKeys(false);
+        return keys != null ? keys : Futures.await(refresh(false));
+    }
+
+    /**
+     * 异步获取WBI密钥，缓存有效时返回已完成的Future
+     *
+     * @return 有效的WBI密钥
+     */
+    public CompletableFuture<WbiKeys> getKeysAsync() {
+        WbiKeys keys = cachedKeys(true);
+        return keys != null ? CompletableFuture.completedFuture(keys) : refresh(true);
+    }
+
+    /**
+     * 使指定密钥失效，通常在签名被拒绝后调用
+     * <p>
+     * 仅当缓存中仍是该密钥时才清除，避免多个调用方同时失败时重复刷新。
+     *
+     * @param staleKeys 被拒绝的密钥
+     */
+    public void invalidate(WbiKeys staleKeys) {
+        Entry entry = current;
+        if (entry != null && entry.keys.equals(staleKeys)) {
+            log.info("Invalidating rejected WBI keys");
+            current = null;
+        }
+    }
+
+    /**
+     * 读取未过期的密钥，临近过期时触发后台刷新
+     *
+     * @param async 是否通过网关异步接口刷新
+     * @return 未过期的密钥，已过期时返回null
+     */
+    private WbiKeys cachedKeys(boolean async) {
+        Entry entry = current;
+        long now = System.currentTimeMillis();
+        if (entry == null || now >= entry.expiresAt) {
+            return null;
+        }
+        if (now >= entry.expiresAt - refreshAheadMillis && refreshScheduled.compareAndSet(false, true)) {
+            if (async) {
+                refresh(true).whenComplete((keys, e) -> refreshScheduled.set(false));
+            } else {
+                REFRESH_EXECUTOR.execute(() -> refresh(false).whenComplete((keys, e) -> refreshScheduled.set(false)));
+            }
+        }
+        return entry.keys;
+    }
+
+    /**
+     * 刷新密钥；已有刷新进行中时直接复用其结果
+     * <p>
+     * 每个调用方拿到独立的Future，某个调用方超时取消不会影响其他等待中的调用方。
+     *
+     * @param async 是否通过网关异步接口刷新
+     */
+    private CompletableFuture<WbiKeys> refresh(boolean async) {
+        CompletableFuture<WbiKeys> future = new CompletableFuture<>();
+        while (true) {
+            CompletableFuture<WbiKeys> existing = inFlight.get();
+            if (existing != null) {
+                return existing.thenApply(Function.identity());
+            }
+            if (inFlight.compareAndSet(null, future)) {
+                break;
+            }
+        }
+
+        CompletableFuture<WbiKeys> fetch = async ? biliWebGateway.getWbiKeysAsync() : Futures.call(biliWebGateway::getWbiKeys);
+        fetch.whenComplete((keys, e) -> {
+            if (e == null) {
+                current = new Entry(keys, System.currentTimeMillis() + ttlMillis);
+                log.debug("WBI keys refreshed");
+                future.complete(keys);
+            } else {
+                Throwable cause = Futures.unwrap(e);
+                log.warn("Failed to refresh WBI keys: {}", cause.getMessage());
+                future.completeExceptionally(cause);
+            }
+            inFlight.compareAndSet(future, null);
+        });
+        return future.thenApply(Function.identity());
+    }
+
+    /**
+     * 缓存条目
+     */
+    private static class Entry {
+        private final WbiKeys keys;
+        private final long expiresAt;
+
+        private Entry(WbiKeys keys, long expiresAt) {
+            this.keys = keys;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -3,61 +3,192 @@ package com.github.colommar.infrastructure.config;
 import lombok.extern.slf4j.Slf4j;
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.util.Properties;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
 /**
  * 配置加载器
+ * <p>
+ * 配置只在首次使用和重新加载时读取一次，保存为不可变的 {@link ConfigSnapshot}；
+ * 各 {@code load*FromConfig} 方法从当前快照中取值。
  */
 @Slf4j
 public class ConfigLoader {
     
-    private static final String CONFIG_FILE = "config.properties";
+    private static final int DEFAULT_BATCH_CONCURRENCY = 4;
+    private static final int DEFAULT_PAGE_CONCURRENCY = 8;
+    private static final int DEFAULT_REPOLL_INITIAL_DELAY_SECONDS = 300;
+    private static final int DEFAULT_REPOLL_MAX_DELAY_SECONDS = 3600;
+    private static final int DEFAULT_REPOLL_HORIZON_HOURS = 48;
+    private static final int DEFAULT_REPOLL_CONCURRENCY = 2;
+    private static final int DEFAULT_ARCHIVE_SEGMENT_MAX_MEGABYTES = 256;
+    private static final String DEFAULT_OUTPUT_FORMATS = "txt";
+    private static final String DEFAULT_API_BASE_URL = "https://api.bilibili.com";
+    private static final int DEFAULT_WBI_KEY_TTL_SECONDS = 3600;
+    private static final int DEFAULT_SERVER_PORT = 8080;
+    private static final int DEFAULT_SERVER_WORKERS = 16;
+    private static final int DEFAULT_SERVER_QUEUE_CAPACITY = 64;
+    private static final int DEFAULT_SERVER_CACHE_MAX_ENTRIES = 1000;
+    private static final int DEFAULT_SERVER_CACHE_TTL_SECONDS = 600;
+    private static final int DEFAULT_SERVER_SHUTDOWN_GRACE_SECONDS = 10;
+    private static final String DEFAULT_CACHE_DIR = ".bili-cache";
+    private static final int DEFAULT_CACHE_VIEW_TTL_SECONDS = 86400;
+    private static final int DEFAULT_CACHE_SUMMARY_TTL_SECONDS = 30 * 86400;
+    private static final int DEFAULT_CACHE_MAX_ENTRIES = 100000;
+    private static final int DEFAULT_HTTP_MAX_IDLE_CONNECTIONS = 16;
+    private static final int DEFAULT_HTTP_KEEP_ALIVE_SECONDS = 300;
+    private static final int DEFAULT_HTTP_CONNECT_TIMEOUT_MILLIS = 5000;
+    private static final int DEFAULT_HTTP_READ_TIMEOUT_MILLIS = 10000;
+    private static final int DEFAULT_HTTP_CALL_TIMEOUT_MILLIS = 20000;
+    private static final int DEFAULT_HTTP_MAX_REQUESTS = 256;
+    private static final int DEFAULT_HTTP_MAX_REQUESTS_PER_HOST = 64;
+    private static final double DEFAULT_VIEW_RATE_PER_SECOND = 10;
+    private static final double DEFAULT_NAV_RATE_PER_SECOND = 1;
+    private static final double DEFAULT_CONCLUSION_RATE_PER_SECOND = 5;
+    private static final double DEFAULT_SPACE_RATE_PER_SECOND = 1;
+    private static final int DEFAULT_RATE_LIMIT_BURST = 5;
+    private static final int DEFAULT_RISK_CONTROL_COOLDOWN_MILLIS = 2000;
+    private static final int DEFAULT_RISK_CONTROL_MAX_COOLDOWN_MILLIS = 120000;
+    private static final int DEFAULT_RISK_CONTROL_MAX_ATTEMPTS = 6;
+    private static final int DEFAULT_VIEW_TIMEOUT_MILLIS = 30000;
+    private static final int DEFAULT_NAV_TIMEOUT_MILLIS = 30000;
+    private static final int DEFAULT_CONCLUSION_TIMEOUT_MILLIS = 120000;
+    private static final int DEFAULT_SPACE_TIMEOUT_MILLIS = 120000;
+    private static final int DEFAULT_HEDGE_PERCENTILE = 95;
+    private static final int DEFAULT_HEDGE_MIN_DELAY_MILLIS = 300;
+    private static final int DEFAULT_HEDGE_BUDGET_PERCENT = 10;
+    private static final int DEFAULT_CIRCUIT_BREAKER_FAILURE_RATE_PERCENT = 50;
+    private static final int DEFAULT_CIRCUIT_BREAKER_WINDOW_SIZE = 50;
+    private static final int DEFAULT_CIRCUIT_BREAKER_MIN_CALLS = 20;
+    private static final int DEFAULT_CIRCUIT_BREAKER_OPEN_MILLIS = 10000;
     
-    // 命令行参数值
-    private static String argsSessdata;
-    private static String argsVideoId;
-    private static Boolean argsIsTimeDetailOn;
-    private static Boolean argsIsFileOutput;
-    private static boolean useArgs = false;
+    private static final AtomicReference<ConfigSnapshot> CURRENT = new AtomicReference<>();
+    private static final List<Consumer<ConfigSnapshot>> LISTENERS = new CopyOnWriteArrayList<>();
+    private static Path externalFile = defaultExternalFile();
+    private static Map<String, String> overrides = Collections.emptyMap();
     
     /**
-     * 设置命令行参数值
+     * 指定外部配置文件，替换默认的 {@code ./config.properties}
      */
-    public static void setArgsValues(String sessdata, String videoId, Boolean isTimeDetailOn, Boolean isFileOutput) {
-        ConfigLoader.argsSessdata = sessdata;
-        ConfigLoader.argsVideoId = videoId;
-        ConfigLoader.argsIsTimeDetailOn = isTimeDetailOn;
-        ConfigLoader.argsIsFileOutput = isFileOutput;
-        ConfigLoader.useArgs = true;
+    public static synchronized void setExternalFile(Path file) {
+        externalFile = file;
+        CURRENT.set(null);
+    }
+    
+    /**
+     * 外部配置文件
+     */
+    public static synchronized Path getExternalFile() {
+        return externalFile;
+    }
+    
+    /**
+     * 设置命令行参数，优先级高于配置文件和环境变量，重新加载时保留
+     * 
+     * @param values 配置项和取值，取值为null的项忽略
+     * @throws IOException 重新读取配置失败时抛出异常
+     */
+    public static synchronized void applyOverrides(Map<String, String> values) throws IOException {
+        Map<String, String> merged = new HashMap<>(overrides);
+        for (Map.Entry<String, String> entry : values.entrySet()) {
+            if (entry.getValue() != null) {
+                merged.put(entry.getKey(), entry.getValue());
+            }
+        }
+        overrides = merged;
+        CURRENT.set(ConfigSnapshot.load(externalFile, System.getenv(), overrides));
+    }
+    
+    /**
+     * 当前配置快照，首次调用时读取
+     */
+    public static ConfigSnapshot current() throws IOException {
+        ConfigSnapshot snapshot = CURRENT.get();
+        if (snapshot != null) {
+            return snapshot;
+        }
+        synchronized (ConfigLoader.class) {
+            if (CURRENT.get() == null) {
+                CURRENT.set(ConfigSnapshot.load(externalFile, System.getenv(), overrides));
+            }
+            return CURRENT.get();
+        }
+    }
+    
+    /**
+     * 重新读取所有来源，校验通过且内容有变化时整体替换当前快照并通知监听器；校验失败时保留原配置
+     * 
+     * @return 配置是否发生变化
+     * @throws IOException 读取或校验失败时抛出异常
+     */
+    public static boolean reload() throws IOException {
+        ConfigSnapshot next;
+        synchronized (ConfigLoader.class) {
+            next = ConfigSnapshot.load(externalFile, System.getenv(), overrides);
+            next.validate();
+            if (next.sameValues(CURRENT.get())) {
+                return false;
+            }
+            CURRENT.set(next);
+        }
+        log.info("Configuration reloaded from {}", externalFile);
+        for (Consumer<ConfigSnapshot> listener : LISTENERS) {
+            try {
+                listener.accept(next);
+            } catch (RuntimeException e) {
+                log.error("Configuration listener failed: {}", e.getMessage(), e);
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * 注册配置变化监听器，在重新加载的线程中回调
+     */
+    public static void addListener(Consumer<ConfigSnapshot> listener) {
+        LISTENERS.add(listener);
     }
     
     /**
      * 从配置文件加载SESSDATA
      */
     public static String loadSessdataFromConfig() throws IOException {
-        if (useArgs && argsSessdata != null) {
-            return argsSessdata;
-        }
-        
-        Properties properties = loadProperties();
-        String sessdata = properties.getProperty("sessdata");
+        String sessdata = current().get("sessdata");
         if (sessdata == null || sessdata.trim().isEmpty()) {
             throw new IOException("SESSDATA not found or empty in config.properties");
         }
         return sessdata;
     }
     
+    /**
+     * 从配置文件加载SESSDATA账号池，多个SESSDATA以英文逗号分隔
+     */
+    public static List<String> loadSessdataPoolFromConfig() throws IOException {
+        List<String> pool = new ArrayList<>();
+        for (String sessdata : loadSessdataFromConfig().split(",")) {
+            if (!sessdata.trim().isEmpty()) {
+                pool.add(sessdata.trim());
+            }
+        }
+        if (pool.isEmpty()) {
+            throw new IOException("SESSDATA not found or empty in config.properties");
+        }
+        return pool;
+    }
+    
     /**
      * 从配置文件加载视频ID
      */
     public static String loadVideoIdFromConfig() throws IOException {
-        if (useArgs && argsVideoId != null) {
-            return argsVideoId;
-        }
-        
-        Properties properties = loadProperties();
-        String videoId = properties.getProperty("videoId");
+        String videoId = current().get("videoId");
         if (videoId == null || videoId.trim().isEmpty()) {
             throw new IOException("videoId not found or empty in config.properties");
         }
@@ -68,12 +199,7 @@ public class ConfigLoader {
      * 从配置文件加载是否显示时间详情
      */
     public static boolean loadIsTimeDetailOnFromConfig() throws IOException {
-        if (useArgs && argsIsTimeDetailOn != null) {
-            return argsIsTimeDetailOn;
-        }
-        
-        Properties properties = loadProperties();
-        String isTimeDetailOn = properties.getProperty("isTimeDetailOn");
+        String isTimeDetailOn = current().get("isTimeDetailOn");
         if (isTimeDetailOn == null || isTimeDetailOn.trim().isEmpty()) {
             throw new IOException("isTimeDetailOn not found or empty in config.properties");
         }
@@ -92,12 +218,7 @@ public class ConfigLoader {
      * 从配置文件加载是否输出到文件
      */
     public static boolean loadIsFileOutputFromConfig() throws IOException {
-        if (useArgs && argsIsFileOutput != null) {
-            return argsIsFileOutput;
-        }
-        
-        Properties properties = loadProperties();
-        String isFileOutput = properties.getProperty("isFileOutput");
+        String isFileOutput = current().get("isFileOutput");
         if (isFileOutput == null || isFileOutput.trim().isEmpty()) {
             throw new IOException("isFileOutput not found or empty in config.properties");
         }
@@ -113,16 +234,422 @@ public class ConfigLoader {
     }
     
     /**
-     * 加载配置文件
+     * 从配置文件加载文件输出格式，以英文逗号分隔，未配置时只输出txt
      */
-    private static Properties loadProperties() throws IOException {
-        Properties properties = new Properties();
-        try (InputStream input = ConfigLoader.class.getClassLoader().getResourceAsStream(CONFIG_FILE)) {
-            if (input == null) {
-                throw new IOException("Unable to find " + CONFIG_FILE);
+    public static String loadOutputFormatsFromConfig() throws IOException {
+        String formats = current().get("outputFormats");
+        if (formats == null || formats.trim().isEmpty()) {
+            return DEFAULT_OUTPUT_FORMATS;
+        }
+        return formats.trim();
+    }
+    
+    /**
+     * 从配置文件加载B站API地址，未配置时使用官方地址；压测时指向本地模拟服务
+     */
+    public static String loadApiBaseUrlFromConfig() throws IOException {
+        String url = current().get("apiBaseUrl");
+        if (url == null || url.trim().isEmpty()) {
+            return DEFAULT_API_BASE_URL;
+        }
+        url = url.trim();
+        if (!url.startsWith("http://") && !url.startsWith("https://")) {
+            log.error("Invalid apiBaseUrl property: {}", url);
+            throw new IOException("Invalid apiBaseUrl property");
+        }
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+    
+    /**
+     * 从配置文件加载批量模式并发数，未配置时使用默认值
+     */
+    public static int loadBatchConcurrencyFromConfig() throws IOException {
+        return loadPositiveInt(current(), "batchConcurrency", DEFAULT_BATCH_CONCURRENCY);
+    }
+    
+    /**
+     * 从配置文件加载多P视频同时请求的分P数，未配置时使用默认值
+     */
+    public static int loadPageConcurrencyFromConfig() throws IOException {
+        return loadPositiveInt(current(), "pageConcurrency", DEFAULT_PAGE_CONCURRENCY);
+    }
+    
+    /**
+     * 从配置文件加载尚未生成摘要时首次重新检查的等待时间（秒），未配置时使用默认值
+     */
+    public static int loadRepollInitialDelaySecondsFromConfig() throws IOException {
+        return loadPositiveInt(current(), "repollInitialDelaySeconds", DEFAULT_REPOLL_INITIAL_DELAY_SECONDS);
+    }
+    
+    /**
+     * 从配置文件加载重新检查的最大间隔（秒），未配置时使用默认值
+     */
+    public static int loadRepollMaxDelaySecondsFromConfig() throws IOException {
+        return loadPositiveInt(current(), "repollMaxDelaySeconds", DEFAULT_REPOLL_MAX_DELAY_SECONDS);
+    }
+    
+    /**
+     * 从配置文件加载放弃重新检查前的时限（小时），未配置时使用默认值
+     */
+    public static int loadRepollHorizonHoursFromConfig() throws IOException {
+        return loadPositiveInt(current(), "repollHorizonHours", DEFAULT_REPOLL_HORIZON_HOURS);
+    }
+    
+    /**
+     * 从配置文件加载同时进行的重新检查数，未配置时使用默认值
+     */
+    public static int loadRepollConcurrencyFromConfig() throws IOException {
+        return loadPositiveInt(current(), "repollConcurrency", DEFAULT_REPOLL_CONCURRENCY);
+    }
+    
+    /**
+     * 从配置文件加载单个字幕段的大小上限（MB），未配置时使用默认值
+     */
+    public static int loadArchiveSegmentMaxMegabytesFromConfig() throws IOException {
+        return Math.min(loadPositiveInt(current(), "archiveSegmentMaxMegabytes",
+                DEFAULT_ARCHIVE_SEGMENT_MAX_MEGABYTES), 2047);
+    }
+    
+    /**
+     * 从配置文件加载WBI密钥缓存时长（秒），未配置时使用默认值
+     */
+    public static int loadWbiKeyTtlSecondsFromConfig() throws IOException {
+        return loadPositiveInt(current(), "wbiKeyTtlSeconds", DEFAULT_WBI_KEY_TTL_SECONDS);
+    }
+    
+    /**
+     * 从配置文件加载服务模式监听端口，未配置时使用默认值
+     */
+    public static int loadServerPortFromConfig() throws IOException {
+        return loadPositiveInt(current(), "serverPort", DEFAULT_SERVER_PORT);
+    }
+    
+    /**
+     * 从配置文件加载服务模式同时抓取的请求数，未配置时使用默认值
+     */
+    public static int loadServerWorkersFromConfig() throws IOException {
+        return loadPositiveInt(current(), "serverWorkers", DEFAULT_SERVER_WORKERS);
+    }
+    
+    /**
+     * 从配置文件加载服务模式等待抓取的请求数上限，未配置时使用默认值
+     */
+    public static int loadServerQueueCapacityFromConfig() throws IOException {
+        return loadPositiveInt(current(), "serverQueueCapacity", DEFAULT_SERVER_QUEUE_CAPACITY);
+    }
+    
+    /**
+     * 从配置文件加载服务模式内存缓存最大条目数，未配置时使用默认值
+     */
+    public static int loadServerCacheMaxEntriesFromConfig() throws IOException {
+        return loadPositiveInt(current(), "serverCacheMaxEntries", DEFAULT_SERVER_CACHE_MAX_ENTRIES);
+    }
+    
+    /**
+     * 从配置文件加载服务模式内存缓存时长（秒），未配置时使用默认值
+     */
+    public static int loadServerCacheTtlSecondsFromConfig() throws IOException {
+        return loadPositiveInt(current(), "serverCacheTtlSeconds", DEFAULT_SERVER_CACHE_TTL_SECONDS);
+    }
+    
+    /**
+     * 从配置文件加载服务模式停机时等待进行中请求的秒数，未配置时使用默认值
+     */
+    public static int loadServerShutdownGraceSecondsFromConfig() throws IOException {
+        return loadPositiveInt(current(), "serverShutdownGraceSeconds", DEFAULT_SERVER_SHUTDOWN_GRACE_SECONDS);
+    }
+    
+    /**
+     * 从配置文件加载是否启用本地缓存，未配置时默认启用
+     */
+    public static boolean loadCacheEnabledFromConfig() throws IOException {
+        return loadBoolean(current(), "cacheEnabled", true);
+    }
+    
+    /**
+     * 从配置文件加载本地缓存目录，未配置时使用默认值
+     */
+    public static String loadCacheDirFromConfig() throws IOException {
+        String cacheDir = current().get("cacheDir");
+        if (cacheDir == null || cacheDir.trim().isEmpty()) {
+            return DEFAULT_CACHE_DIR;
+        }
+        return cacheDir.trim();
+    }
+    
+    /**
+     * 从配置文件加载视频详情缓存时长（秒），未配置时使用默认值
+     */
+    public static int loadCacheViewTtlSecondsFromConfig() throws IOException {
+        return loadPositiveInt(current(), "cacheViewTtlSeconds", DEFAULT_CACHE_VIEW_TTL_SECONDS);
+    }
+    
+    /**
+     * 从配置文件加载AI摘要缓存时长（秒），未配置时使用默认值
+     */
+    public static int loadCacheSummaryTtlSecondsFromConfig() throws IOException {
+        return loadPositiveInt(current(), "cacheSummaryTtlSeconds", DEFAULT_CACHE_SUMMARY_TTL_SECONDS);
+    }
+    
+    /**
+     * 从配置文件加载每类缓存的最大条目数，未配置时使用默认值
+     */
+    public static int loadCacheMaxEntriesFromConfig() throws IOException {
+        return loadPositiveInt(current(), "cacheMaxEntries", DEFAULT_CACHE_MAX_ENTRIES);
+    }
+    
+    /**
+     * 从配置文件加载HTTP连接池最大空闲连接数，未配置时使用默认值
+     */
+    public static int loadHttpMaxIdleConnectionsFromConfig() throws IOException {
+        return loadPositiveInt(current(), "httpMaxIdleConnections", DEFAULT_HTTP_MAX_IDLE_CONNECTIONS);
+    }
+    
+    /**
+     * 从配置文件加载HTTP空闲连接保活时长（秒），未配置时使用默认值
+     */
+    public static int loadHttpKeepAliveSecondsFromConfig() throws IOException {
+        return loadPositiveInt(current(), "httpKeepAliveSeconds", DEFAULT_HTTP_KEEP_ALIVE_SECONDS);
+    }
+    
+    /**
+     * 从配置文件加载HTTP连接超时（毫秒），未配置时使用默认值
+     */
+    public static int loadHttpConnectTimeoutMillisFromConfig() throws IOException {
+        return loadPositiveInt(current(), "httpConnectTimeoutMillis", DEFAULT_HTTP_CONNECT_TIMEOUT_MILLIS);
+    }
+    
+    /**
+     * 从配置文件加载HTTP读取超时（毫秒），未配置时使用默认值
+     */
+    public static int loadHttpReadTimeoutMillisFromConfig() throws IOException {
+        return loadPositiveInt(current(), "httpReadTimeoutMillis", DEFAULT_HTTP_READ_TIMEOUT_MILLIS);
+    }
+    
+    /**
+     * 从配置文件加载HTTP单次调用总超时（毫秒），未配置时使用默认值
+     */
+    public static int loadHttpCallTimeoutMillisFromConfig() throws IOException {
+        return loadPositiveInt(current(), "httpCallTimeoutMillis", DEFAULT_HTTP_CALL_TIMEOUT_MILLIS);
+    }
+    
+    /**
+     * 从配置文件加载HTTP最大并发请求数，未配置时使用默认值
+     */
+    public static int loadHttpMaxRequestsFromConfig() throws IOException {
+        return loadPositiveInt(current(), "httpMaxRequests", DEFAULT_HTTP_MAX_REQUESTS);
+    }
+    
+    /**
+     * 从配置文件加载HTTP单主机最大并发请求数，未配置时使用默认值
+     */
+    public static int loadHttpMaxRequestsPerHostFromConfig() throws IOException {
+        return loadPositiveInt(current(), "httpMaxRequestsPerHost", DEFAULT_HTTP_MAX_REQUESTS_PER_HOST);
+    }
+    
+    /**
+     * 从配置文件加载指定接口每秒允许的请求数，未配置时使用默认值
+     *
+     * @param endpoint 接口名称：view、nav、conclusion、space
+     */
+    public static double loadRatePerSecondFromConfig(String endpoint) throws IOException {
+        double defaultValue;
+        switch (endpoint) {
+            case "view":
+                defaultValue = DEFAULT_VIEW_RATE_PER_SECOND;
+                break;
+            case "nav":
+                defaultValue = DEFAULT_NAV_RATE_PER_SECOND;
+                break;
+            case "space":
+                defaultValue = DEFAULT_SPACE_RATE_PER_SECOND;
+                break;
+            default:
+                defaultValue = DEFAULT_CONCLUSION_RATE_PER_SECOND;
+        }
+        return loadPositiveDouble(current(), endpoint + "RatePerSecond", defaultValue);
+    }
+    
+    /**
+     * 从配置文件加载指定阶段的超时时间（毫秒，包含限流排队与风控重试），未配置时使用默认值
+     *
+     * @param endpoint 接口名称：view、nav、conclusion、space
+     */
+    public static int loadStageTimeoutMillisFromConfig(String endpoint) throws IOException {
+        int defaultValue;
+        switch (endpoint) {
+            case "view":
+                defaultValue = DEFAULT_VIEW_TIMEOUT_MILLIS;
+                break;
+            case "nav":
+                defaultValue = DEFAULT_NAV_TIMEOUT_MILLIS;
+                break;
+            case "space":
+                defaultValue = DEFAULT_SPACE_TIMEOUT_MILLIS;
+                break;
+            default:
+                defaultValue = DEFAULT_CONCLUSION_TIMEOUT_MILLIS;
+        }
+        return loadPositiveInt(current(), endpoint + "TimeoutMillis", defaultValue);
+    }
+    
+    /**
+     * 从配置文件加载限流允许的突发请求数，未配置时使用默认值
+     */
+    public static int loadRateLimitBurstFromConfig() throws IOException {
+        return loadPositiveInt(current(), "rateLimitBurst", DEFAULT_RATE_LIMIT_BURST);
+    }
+    
+    /**
+     * 从配置文件加载首次触发风控后的冷却时长（毫秒），未配置时使用默认值
+     */
+    public static int loadRiskControlCooldownMillisFromConfig() throws IOException {
+        return loadPositiveInt(current(), "riskControlCooldownMillis", DEFAULT_RISK_CONTROL_COOLDOWN_MILLIS);
+    }
+    
+    /**
+     * 从配置文件加载风控冷却时长上限（毫秒），未配置时使用默认值
+     */
+    public static int loadRiskControlMaxCooldownMillisFromConfig() throws IOException {
+        return loadPositiveInt(current(), "riskControlMaxCooldownMillis", DEFAULT_RISK_CONTROL_MAX_COOLDOWN_MILLIS);
+    }
+    
+    /**
+     * 从配置文件加载触发风控时单个请求的最大尝试次数，未配置时使用默认值
+     */
+    public static int loadRiskControlMaxAttemptsFromConfig() throws IOException {
+        return loadPositiveInt(current(), "riskControlMaxAttempts", DEFAULT_RISK_CONTROL_MAX_ATTEMPTS);
+    }
+    
+    /**
+     * 从配置文件加载是否对AI摘要接口启用对冲请求，未配置时默认启用
+     */
+    public static boolean loadHedgeEnabledFromConfig() throws IOException {
+        return loadBoolean(current(), "hedgeEnabled", true);
+    }
+    
+    /**
+     * 从配置文件加载触发对冲的耗时分位数（1~99），未配置时使用默认值
+     */
+    public static int loadHedgePercentileFromConfig() throws IOException {
+        return Math.min(loadPositiveInt(current(), "hedgePercentile", DEFAULT_HEDGE_PERCENTILE), 99);
+    }
+    
+    /**
+     * 从配置文件加载对冲前的最短等待时间（毫秒），未配置时使用默认值
+     */
+    public static int loadHedgeMinDelayMillisFromConfig() throws IOException {
+        return loadPositiveInt(current(), "hedgeMinDelayMillis", DEFAULT_HEDGE_MIN_DELAY_MILLIS);
+    }
+    
+    /**
+     * 从配置文件加载对冲请求数占请求总数的上限（百分比），未配置时使用默认值
+     */
+    public static int loadHedgeBudgetPercentFromConfig() throws IOException {
+        return Math.min(loadPositiveInt(current(), "hedgeBudgetPercent", DEFAULT_HEDGE_BUDGET_PERCENT), 100);
+    }
+    
+    /**
+     * 从配置文件加载打开熔断的失败率（百分比），未配置时使用默认值
+     */
+    public static int loadCircuitBreakerFailureRatePercentFromConfig() throws IOException {
+        return Math.min(loadPositiveInt(current(), "circuitBreakerFailureRatePercent",
+                DEFAULT_CIRCUIT_BREAKER_FAILURE_RATE_PERCENT), 100);
+    }
+    
+    /**
+     * 从配置文件加载熔断统计的最近调用次数，未配置时使用默认值
+     */
+    public static int loadCircuitBreakerWindowSizeFromConfig() throws IOException {
+        return loadPositiveInt(current(), "circuitBreakerWindowSize", DEFAULT_CIRCUIT_BREAKER_WINDOW_SIZE);
+    }
+    
+    /**
+     * 从配置文件加载判断失败率前至少需要的调用次数，未配置时使用默认值
+     */
+    public static int loadCircuitBreakerMinCallsFromConfig() throws IOException {
+        return loadPositiveInt(current(), "circuitBreakerMinCalls", DEFAULT_CIRCUIT_BREAKER_MIN_CALLS);
+    }
+    
+    /**
+     * 从配置文件加载熔断打开后的拒绝时长（毫秒），未配置时使用默认值
+     */
+    public static int loadCircuitBreakerOpenMillisFromConfig() throws IOException {
+        return loadPositiveInt(current(), "circuitBreakerOpenMillis", DEFAULT_CIRCUIT_BREAKER_OPEN_MILLIS);
+    }
+    
+    /**
+     * 读取正数配置项，未配置时返回默认值
+     */
+    private static double loadPositiveDouble(ConfigSnapshot config, String key, double defaultValue) throws IOException {
+        String value = config.get(key);
+        if (value == null || value.trim().isEmpty()) {
+            return defaultValue;
+        }
+        
+        try {
+            double parsed = Double.parseDouble(value.trim());
+            if (parsed > 0) {
+                return parsed;
+            }
+        } catch (NumberFormatException ignored) {
+            // 统一在下方报错
+        }
+        log.error("Invalid {} property: {}", key, value);
+        throw new IOException("Invalid " + key + " property");
+    }
+    
+    /**
+     * 读取布尔配置项，未配置时返回默认值
+     */
+    private static boolean loadBoolean(ConfigSnapshot config, String key, boolean defaultValue) throws IOException {
+        String value = config.get(key);
+        if (value == null || value.trim().isEmpty()) {
+            return defaultValue;
+        }
+        
+        if ("true".equals(value.trim())) {
+            return true;
+        } else if ("false".equals(value.trim())) {
+            return false;
+        } else {
+            log.error("Invalid {} property: {}", key, value);
+            throw new IOException("Invalid " + key + " property");
+        }
+    }
+    
+    /**
+     * 读取正整数配置项，未配置时返回默认值
+     */
+    private static int loadPositiveInt(ConfigSnapshot config, String key, int defaultValue) throws IOException {
+        String value = config.get(key);
+        if (value == null || value.trim().isEmpty()) {
+            return defaultValue;
+        }
+        
+        try {
+            int parsed = Integer.parseInt(value.trim());
+            if (parsed > 0) {
+                return parsed;
             }
-            properties.load(input);
-            return properties;
+        } catch (NumberFormatException ignored) {
+            // 统一在下方报错
+        }
+        log.error("Invalid {} property: {}", key, value);
+        throw new IOException("Invalid " + key + " property");
+    }
+    
+    /**
+     * 默认外部配置文件：系统属性 {@code bili.config}、环境变量 {@code BILI_CONFIG}，都未指定时为工作目录下的 {@code config.properties}
+     */
+    private static Path defaultExternalFile() {
+        String path = System.getProperty("bili.config");
+        if (path == null || path.trim().isEmpty()) {
+            path = System.getenv(ConfigSnapshot.CONFIG_PATH_ENV);
+        }
+        if (path == null || path.trim().isEmpty()) {
+            path = ConfigSnapshot.CONFIG_FILE;
         }
+        return Paths.get(path.trim());
     }
 }
@@ -0,0 +1,178 @@
+package com.github.colommar.infrastructure.config;
+
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * 不可变的配置快照
+ * <p>
+ * 依次合并四层来源，后者覆盖前者：
+ * <ol>
+ *     <li>类路径中的 {@code config.properties}（默认值）</li>
+ *     <li>外部配置文件（可选）</li>
+ *     <li>{@code BILI_} 开头的环境变量，如 {@code BILI_BATCH_CONCURRENCY} 对应 {@code batchConcurrency}</li>
+ *     <li>命令行参数</li>
+ * </ol>
+ * 创建后不再修改，可以被任意线程共享；配置变化时整体替换为新的快照。
+ */
+public final class ConfigSnapshot {
+
+    static final String CONFIG_FILE = "config.properties";
+    private static final String ENV_PREFIX = "BILI_";
+    /** 指定外部配置文件路径的环境变量，本身不是配置项 */
+    static final String CONFIG_PATH_ENV = "BILI_CONFIG";
+
+    private final Map<String, String> values;
+    private final Map<String, String> defaults;
+    private final Path externalFile;
+    private final Map<String, String> overrides;
+
+    private ConfigSnapshot(Map<String, String> values, Map<String, String> defaults, Path externalFile,
+                           Map<String, String> overrides) {
+        this.values = values;
+        this.defaults = defaults;
+        this.externalFile = externalFile;
+        this.overrides = overrides;
+    }
+
+    /**
+     * 读取所有来源并合并
+     *
+     * @param externalFile 外部配置文件，为null或不存在时跳过
+     * @param env 环境变量
+     * @param overrides 命令行参数
+     * @return 配置快照
+     * @throws IOException 读取失败时抛出异常
+     */
+    public static ConfigSnapshot load(Path externalFile, Map<String, String> env,
+                                      Map<String, String> overrides) throws IOException {
+        Map<String, String> defaults = readClasspath();
+        Map<String, String> values = new HashMap<>(defaults);
+        if (externalFile != null && Files.isRegularFile(externalFile)) {
+            try (Reader reader = Files.newBufferedReader(externalFile, StandardCharsets.UTF_8)) {
+                Properties properties = new Properties();
+                properties.load(reader);
+                putAll(values, properties);
+            }
+        }
+        for (Map.Entry<String, String> entry : env.entrySet()) {
+            String key = entry.getKey();
+            if (key.startsWith(ENV_PREFIX) && !key.equals(CONFIG_PATH_ENV)) {
+                values.put(toPropertyKey(key.substring(ENV_PREFIX.length())), entry.getValue());
+            }
+        }
+        values.putAll(overrides);
+        return new ConfigSnapshot(Collections.unmodifiableMap(values), Collections.unmodifiableMap(defaults),
+                externalFile, Collections.unmodifiableMap(new HashMap<>(overrides)));
+    }
+
+    /**
+     * 读取配置项
+     *
+     * @param key 配置项
+     * @return 配置值，未配置时返回null
+     */
+    public String get(String key) {
+        return values.get(key);
+    }
+
+    /**
+     * 外部配置文件，未指定时返回null
+     */
+    public Path getExternalFile() {
+        return externalFile;
+    }
+
+    /**
+     * 命令行参数，重新加载时保留
+     */
+    public Map<String, String> getOverrides() {
+        return overrides;
+    }
+
+    /**
+     * 检查覆盖后的取值是否与类路径默认值的类型一致：默认值为正数的必须是正数，为布尔值的必须是布尔值
+     *
+     * @throws IOException 存在不合法的取值时抛出异常
+     */
+    public void validate() throws IOException {
+        for (Map.Entry<String, String> entry : defaults.entrySet()) {
+            String expected = entry.getValue().trim();
+            String actual = values.get(entry.getKey());
+            String value = actual == null ? "" : actual.trim();
+            if (value.isEmpty()) {
+                continue;
+            }
+            boolean valid = true;
+            if ("true".equals(expected) || "false".equals(expected)) {
+                valid = "true".equals(value) || "false".equals(value);
+            } else if (isPositiveNumber(expected)) {
+                valid = isPositiveNumber(value);
+            }
+            if (!valid) {
+                throw new IOException("Invalid " + entry.getKey() + " property");
+            }
+        }
+    }
+
+    /**
+     * 内容是否相同
+     */
+    public boolean sameValues(ConfigSnapshot other) {
+        return other != null && values.equals(other.values);
+    }
+
+    /**
+     * {@code BATCH_CONCURRENCY} 转换为 {@code batchConcurrency}
+     */
+    static String toPropertyKey(String envName) {
+        StringBuilder key = new StringBuilder(envName.length());
+        boolean upper = false;
+        for (char c : envName.toLowerCase(Locale.ROOT).toCharArray()) {
+            if (c == '_') {
+                upper = key.length() > 0;
+            } else {
+                key.append(upper ? Character.toUpperCase(c) : c);
+                upper = false;
+            }
+        }
+        return key.toString();
+    }
+
+    private static Map<String, String> readClasspath() throws IOException {
+        try (InputStream input = ConfigSnapshot.class.getClassLoader().getResourceAsStream(CONFIG_FILE)) {
+            if (input == null) {
+                throw new IOException("Unable to find " + CONFIG_FILE);
+            }
+            Properties properties = new Properties();
+            properties.load(input);
+            Map<String, String> values = new HashMap<>();
+            putAll(values, properties);
+            return values;
+        }
+    }
+
+    private static void putAll(Map<String, String> target, Properties properties) {
+        for (String name : properties.stringPropertyNames()) {
+            target.put(name, properties.getProperty(name));
+        }
+    }
+
+    private static boolean isPositiveNumber(String value) {
+        try {
+            return Double.parseDouble(value) > 0;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+}
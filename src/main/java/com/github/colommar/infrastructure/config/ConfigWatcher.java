@@ -0,0 +1,106 @@
+package com.github.colommar.infrastructure.config;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 监视外部配置文件，变化后重新加载配置
+ * <p>
+ * 监视文件所在目录，以便兼容编辑器“写临时文件再重命名”的保存方式；
+ * 同一次保存通常触发多个事件，静默一段时间后才重新加载。新配置校验失败时保留原配置。
+ */
+@Slf4j
+public class ConfigWatcher implements Closeable {
+
+    private static final long DEBOUNCE_MILLIS = 300;
+
+    private final Path file;
+    private final WatchService watchService;
+    private final Thread thread;
+
+    private ConfigWatcher(Path file) throws IOException {
+        this.file = file.toAbsolutePath();
+        this.watchService = FileSystems.getDefault().newWatchService();
+        this.file.getParent().register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY);
+        this.thread = new Thread(this::watch, "config-watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * 开始监视当前的外部配置文件
+     *
+     * @return 监视器，外部配置文件不存在时返回null
+     * @throws IOException 注册监视失败时抛出异常
+     */
+    public static ConfigWatcher start() throws IOException {
+        Path file = ConfigLoader.getExternalFile();
+        if (file == null || !Files.isRegularFile(file)) {
+            return null;
+        }
+        log.info("Watching {} for configuration changes", file);
+        return new ConfigWatcher(file);
+    }
+
+    private void watch() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean changed = pollEvents(key);
+                // 等待同一次保存的后续事件
+                while (changed) {
+                    WatchKey next = watchService.poll(DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    pollEvents(next);
+                }
+                if (changed) {
+                    reload();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            log.debug("Configuration watcher closed");
+        }
+    }
+
+    private boolean pollEvents(WatchKey key) {
+        boolean changed = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            Object context = event.context();
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW
+                    || context instanceof Path && file.getFileName().equals(context)) {
+                changed = true;
+            }
+        }
+        key.reset();
+        return changed;
+    }
+
+    private void reload() {
+        try {
+            ConfigLoader.reload();
+        } catch (IOException e) {
+            log.error("Ignoring invalid configuration in {}: {}", file, e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+    }
+}
@@ -0,0 +1,53 @@
+package com.github.colommar.infrastructure.gateway;
+
+import lombok.Getter;
+
+/**
+ * B站API业务错误，携带接口返回的 {@code code}
+ */
+@Getter
+public class BiliApiException extends Exception {
+
+    /** 账号未登录 */
+    public static final int CODE_NOT_LOGGED_IN = -101;
+
+    /** 访问权限不足，WBI签名无效或过期时返回 */
+    public static final int CODE_ACCESS_DENIED = -403;
+
+    /** 风控校验失败 */
+    public static final int CODE_RISK_CONTROL = -352;
+
+    /** 请求被拦截 */
+    public static final int CODE_REQUEST_BLOCKED = -412;
+
+    /** 请求过于频繁 */
+    public static final int CODE_TOO_FREQUENT = -799;
+
+    private final int code;
+
+    public BiliApiException(int code, String message) {
+        super(message);
+        this.code = code;
+    }
+
+    /**
+     * 是否为风控相关错误码
+     */
+    public static boolean isRiskControl(int code) {
+        return code == CODE_RISK_CONTROL || code == CODE_REQUEST_BLOCKED || code == CODE_TOO_FREQUENT;
+    }
+
+    /**
+     * 是否因风控被拒绝
+     */
+    public boolean isRiskControl() {
+        return isRiskControl(code);
+    }
+
+    /**
+     * 是否为WBI签名被拒绝
+     */
+    public boolean isSignatureRejected() {
+        return code == CODE_ACCESS_DENIED;
+    }
+}
@@ -0,0 +1,22 @@
+package com.github.colommar.infrastructure.gateway;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 网关调用的B站接口
+ */
+@Getter
+@AllArgsConstructor
+public enum BiliEndpoint {
+    /** 视频详情 /x/web-interface/view */
+    VIEW("view"),
+    /** 登录信息及WBI密钥 /x/web-interface/nav */
+    NAV("nav"),
+    /** AI摘要 /x/web-interface/view/conclusion/get */
+    CONCLUSION("conclusion"),
+    /** UP主投稿列表 /x/space/wbi/arc/search */
+    SPACE("space");
+
+    private final String key;
+}
@@ -1,8 +1,12 @@
 package com.github.colommar.infrastructure.gateway;
 
 import com.github.colommar.domain.model.AISummaryResponse;
+import com.github.colommar.domain.model.UploaderVideoPage;
 import com.github.colommar.domain.model.VideoDetails;
 import com.github.colommar.domain.model.WbiKeys;
+import com.github.colommar.infrastructure.util.Futures;
+
+import java.util.concurrent.CompletableFuture;
 
 /**
  * B站Web网关接口
@@ -33,7 +37,63 @@ public interface BiliWebGateway {
      * @param videoDetails 视频详情
      * @param wbiKeys WBI密钥
      * @return AI摘要响应
+     * @throws BiliApiException 接口返回错误码时抛出，签名被拒绝时 {@link BiliApiException#isSignatureRejected()} 为true
      * @throws Exception 获取失败时抛出异常
      */
     AISummaryResponse getAISummary(String bvid, VideoDetails videoDetails, WbiKeys wbiKeys) throws Exception;
+    
+    /**
+     * 获取UP主投稿列表的一页
+     * 
+     * @param mid UP主mid
+     * @param page 页码，从1开始
+     * @param wbiKeys WBI密钥
+     * @return 投稿列表，按发布时间从新到旧排列
+     * @throws BiliApiException 接口返回错误码时抛出，签名被拒绝时 {@link BiliApiException#isSignatureRejected()} 为true
+     * @throws Exception 获取失败时抛出异常
+     */
+    UploaderVideoPage getUploaderVideos(long mid, int page, WbiKeys wbiKeys) throws Exception;
+    
+    /**
+     * 异步获取视频详情，默认实现在调用线程中同步执行
+     * 
+     * @param bvid 视频BV号
+     * @return 视频详情
+     */
+    default CompletableFuture<VideoDetails> getVideoDetailsAsync(String bvid) {
+        return Futures.call(() -> getVideoDetails(bvid));
+    }
+    
+    /**
+     * 异步获取WBI密钥，默认实现在调用线程中同步执行
+     * 
+     * @return WBI密钥
+     */
+    default CompletableFuture<WbiKeys> getWbiKeysAsync() {
+        return Futures.call(this::getWbiKeys);
+    }
+    
+    /**
+     * 异步获取AI摘要，默认实现在调用线程中同步执行
+     * 
+     * @param bvid 视频BV号
+     * @param videoDetails 视频详情
+     * @param wbiKeys WBI密钥
+     * @return AI摘要响应，失败时异常与 {@link #getAISummary(String, VideoDetails, WbiKeys)} 一致
+     */
+    default CompletableFuture<AISummaryResponse> getAISummaryAsync(String bvid, VideoDetails videoDetails, WbiKeys wbiKeys) {
+        return Futures.call(() -> getAISummary(bvid, videoDetails, wbiKeys));
+    }
+    
+    /**
+     * 异步获取UP主投稿列表的一页，默认实现在调用线程中同步执行
+     * 
+     * @param mid UP主mid
+     * @param page 页码，从1开始
+     * @param wbiKeys WBI密钥
+     * @return 投稿列表，失败时异常与 {@link #getUploaderVideos(long, int, WbiKeys)} 一致
+     */
+    default CompletableFuture<UploaderVideoPage> getUploaderVideosAsync(long mid, int page, WbiKeys wbiKeys) {
+        return Futures.call(() -> getUploaderVideos(mid, page, wbiKeys));
+    }
 }
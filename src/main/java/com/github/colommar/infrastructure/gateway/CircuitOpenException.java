@@ -0,0 +1,23 @@
+package com.github.colommar.infrastructure.gateway;
+
+import lombok.Getter;
+
+import java.io.IOException;
+
+/**
+ * 接口熔断打开，请求未发送即失败
+ */
+@Getter
+public class CircuitOpenException extends IOException {
+
+    private final String endpoint;
+
+    /** 距离允许探测的剩余毫秒数 */
+    private final long retryAfterMillis;
+
+    public CircuitOpenException(String endpoint, long retryAfterMillis) {
+        super("Circuit breaker open on " + endpoint + " endpoint, retry after " + retryAfterMillis + "ms");
+        this.endpoint = endpoint;
+        this.retryAfterMillis = retryAfterMillis;
+    }
+}
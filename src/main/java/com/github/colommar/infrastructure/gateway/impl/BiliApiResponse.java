@@ -0,0 +1,17 @@
+package com.github.colommar.infrastructure.gateway.impl;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * B站接口通用响应，只保留解析时提取出的字段
+ *
+ * @param <T> 业务数据类型
+ */
+@Data
+@AllArgsConstructor
+public class BiliApiResponse<T> {
+    private int code;
+    private String message;
+    private T data;
+}
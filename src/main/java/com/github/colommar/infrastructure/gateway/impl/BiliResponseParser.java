@@ -0,0 +1,354 @@
+package com.github.colommar.infrastructure.gateway.impl;
+
+import com.github.colommar.domain.model.AISummaryResponse;
+import com.github.colommar.domain.model.UploaderVideoPage;
+import com.github.colommar.domain.model.VideoDetails;
+import com.github.colommar.domain.model.VideoPage;
+import com.github.colommar.domain.model.WbiKeys;
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * B站接口响应的流式解析器
+ * <p>
+ * 直接从响应流中单遍读取，不构建完整的JSON树，未使用的字段全部跳过。
+ */
+public class BiliResponseParser {
+
+    private final Gson gson;
+
+    public BiliResponseParser(Gson gson) {
+        this.gson = gson;
+    }
+
+    /**
+     * 解析 {@code /x/web-interface/view} 响应，只提取分P列表和UP主mid
+     */
+    public BiliApiResponse<VideoDetails> parseVideoDetails(JsonReader reader) throws IOException {
+        int code = 0;
+        String message = null;
+        VideoDetails videoDetails = null;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "code":
+                    code = reader.nextInt();
+                    break;
+                case "message":
+                    message = nextStringOrNull(reader);
+                    break;
+                case "data":
+                    videoDetails = readViewData(reader);
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return new BiliApiResponse<>(code, message, videoDetails);
+    }
+
+    /**
+     * 解析 {@code /x/web-interface/nav} 响应，只提取WBI密钥
+     */
+    public BiliApiResponse<WbiKeys> parseWbiKeys(JsonReader reader) throws IOException {
+        int code = 0;
+        String message = null;
+        WbiKeys wbiKeys = null;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "code":
+                    code = reader.nextInt();
+                    break;
+                case "message":
+                    message = nextStringOrNull(reader);
+                    break;
+                case "data":
+                    wbiKeys = readNavData(reader);
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return new BiliApiResponse<>(code, message, wbiKeys);
+    }
+
+    /**
+     * 解析 {@code /x/web-interface/view/conclusion/get} 响应
+     */
+    public AISummaryResponse parseAISummary(JsonReader reader) throws IOException {
+        AISummaryResponse response = new AISummaryResponse();
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "code":
+                    response.setCode(reader.nextInt());
+                    break;
+                case "message":
+                    response.setMessage(nextStringOrNull(reader));
+                    break;
+                case "ttl":
+                    response.setTtl(reader.nextInt());
+                    break;
+                case "data":
+                    // 出错时data没有意义，直接跳过
+                    if (response.getCode() != 0) {
+                        reader.skipValue();
+                    } else {
+                        response.setData(gson.fromJson(reader, AISummaryResponse.ResponseData.class));
+                    }
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return response;
+    }
+
+    /**
+     * 解析 {@code /x/space/wbi/arc/search} 响应，只提取BV号和分页信息
+     *
+     * @param mid 请求的UP主mid
+     */
+    public BiliApiResponse<UploaderVideoPage> parseUploaderVideos(JsonReader reader, long mid) throws IOException {
+        int code = 0;
+        String message = null;
+        UploaderVideoPage page = null;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "code":
+                    code = reader.nextInt();
+                    break;
+                case "message":
+                    message = nextStringOrNull(reader);
+                    break;
+                case "data":
+                    page = readSpaceData(reader, mid);
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return new BiliApiResponse<>(code, message, page);
+    }
+
+    private VideoDetails readViewData(JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return null;
+        }
+
+        VideoDetails videoDetails = new VideoDetails();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "pages":
+                    List<VideoPage> pages = readPages(reader);
+                    videoDetails.setPages(pages);
+                    videoDetails.setCid(pages.isEmpty() ? 0L : pages.get(0).getCid());
+                    break;
+                case "owner":
+                    videoDetails.setUpMid(readLongField(reader, "mid"));
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return videoDetails;
+    }
+
+    private List<VideoPage> readPages(JsonReader reader) throws IOException {
+        List<VideoPage> pages = new ArrayList<>();
+        reader.beginArray();
+        while (reader.hasNext()) {
+            VideoPage page = new VideoPage();
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "cid":
+                        page.setCid(reader.nextLong());
+                        break;
+                    case "page":
+                        page.setPage(reader.nextInt());
+                        break;
+                    case "part":
+                        page.setTitle(nextStringOrNull(reader));
+                        break;
+                    default:
+                        reader.skipValue();
+                }
+            }
+            reader.endObject();
+            pages.add(page);
+        }
+        reader.endArray();
+        return pages;
+    }
+
+    private UploaderVideoPage readSpaceData(JsonReader reader, long mid) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return null;
+        }
+
+        List<String> bvids = new ArrayList<>();
+        int pn = 0;
+        int ps = 0;
+        int count = 0;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "list":
+                    readVideoList(reader, bvids);
+                    break;
+                case "page":
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        switch (reader.nextName()) {
+                            case "pn":
+                                pn = reader.nextInt();
+                                break;
+                            case "ps":
+                                ps = reader.nextInt();
+                                break;
+                            case "count":
+                                count = reader.nextInt();
+                                break;
+                            default:
+                                reader.skipValue();
+                        }
+                    }
+                    reader.endObject();
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return new UploaderVideoPage(mid, pn, ps, count, bvids);
+    }
+
+    /**
+     * 读取 {@code list.vlist} 中每个投稿的BV号，{@code list.tlist} 等分区统计跳过
+     */
+    private static void readVideoList(JsonReader reader, List<String> bvids) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return;
+        }
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (!"vlist".equals(reader.nextName()) || reader.peek() == JsonToken.NULL) {
+                reader.skipValue();
+                continue;
+            }
+            reader.beginArray();
+            while (reader.hasNext()) {
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    if ("bvid".equals(reader.nextName())) {
+                        String bvid = nextStringOrNull(reader);
+                        if (bvid != null && !bvid.isEmpty()) {
+                            bvids.add(bvid);
+                        }
+                    } else {
+                        reader.skipValue();
+                    }
+                }
+                reader.endObject();
+            }
+            reader.endArray();
+        }
+        reader.endObject();
+    }
+
+    private WbiKeys readNavData(JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return null;
+        }
+
+        WbiKeys wbiKeys = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if ("wbi_img".equals(reader.nextName())) {
+                wbiKeys = readWbiImg(reader);
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return wbiKeys;
+    }
+
+    private WbiKeys readWbiImg(JsonReader reader) throws IOException {
+        String imgUrl = null;
+        String subUrl = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "img_url":
+                    imgUrl = reader.nextString();
+                    break;
+                case "sub_url":
+                    subUrl = reader.nextString();
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        if (imgUrl == null || subUrl == null) {
+            return null;
+        }
+        return new WbiKeys(extractKey(imgUrl), extractKey(subUrl));
+    }
+
+    /**
+     * 读取对象中的单个长整型字段，其余字段跳过
+     */
+    private static long readLongField(JsonReader reader, String field) throws IOException {
+        long value = 0L;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (field.equals(reader.nextName())) {
+                value = reader.nextLong();
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return value;
+    }
+
+    private static String nextStringOrNull(JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return null;
+        }
+        return reader.nextString();
+    }
+
+    /**
+     * 从形如 https://i0.hdslb.com/bfs/wbi/{key}.png 的地址中提取密钥
+     */
+    private static String extractKey(String url) {
+        return url.substring(url.lastIndexOf('/') + 1, url.lastIndexOf('.'));
+    }
+}
@@ -1,20 +1,35 @@
 package com.github.colommar.infrastructure.gateway.impl;
 
 import com.github.colommar.domain.model.AISummaryResponse;
+import com.github.colommar.domain.model.UploaderVideoPage;
 import com.github.colommar.domain.model.VideoDetails;
 import com.github.colommar.domain.model.WbiKeys;
+import com.github.colommar.infrastructure.config.ConfigLoader;
+import com.github.colommar.infrastructure.gateway.BiliApiException;
+import com.github.colommar.infrastructure.gateway.BiliEndpoint;
 import com.github.colommar.infrastructure.gateway.BiliWebGateway;
+import com.github.colommar.infrastructure.gateway.CircuitOpenException;
+import com.github.colommar.infrastructure.metrics.Metrics;
+import com.github.colommar.infrastructure.metrics.Stage;
+import com.github.colommar.infrastructure.util.HttpStatusException;
+import com.github.colommar.infrastructure.util.Futures;
 import com.github.colommar.infrastructure.util.HttpUtil;
-import com.github.colommar.infrastructure.util.WbiUtil;
+import com.github.colommar.infrastructure.util.WbiSigner;
 import com.google.gson.Gson;
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
 import lombok.extern.slf4j.Slf4j;
 
+import java.io.IOException;
 import java.io.UnsupportedEncodingException;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
 import java.util.Map;
 import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
 
 /**
  * B站Web网关实现类
@@ -22,90 +37,550 @@ import java.util.TreeMap;
 @Slf4j
 public class BiliWebGatewayImpl implements BiliWebGateway {
     
+    private static final int HTTP_PRECONDITION_FAILED = 412;
+    private static final String NAV_PATH = "/x/web-interface/nav";
+    private static final String SPACE_PATH = "/x/space/wbi/arc/search";
+    
+    /** 投稿列表每页条数，与网页端一致 */
+    private static final int SPACE_PAGE_SIZE = 30;
+    
     private final HttpUtil httpUtil;
-    private final Gson gson;
-    private final String sessdata;
+    private final BiliResponseParser responseParser;
+    private final SessdataPool sessdataPool;
+    private final Map<BiliEndpoint, EndpointRateLimiter> rateLimiters;
+    private final Map<BiliEndpoint, CircuitBreaker> circuitBreakers;
+    private final Map<BiliEndpoint, HedgePolicy> hedgePolicies;
+    private final int maxAttempts;
+    private final String apiBaseUrl;
+    private volatile WbiSigner signer;
     
     public BiliWebGatewayImpl() {
         this.httpUtil = new HttpUtil();
-        this.gson = new Gson();
+        this.responseParser = new BiliResponseParser(new Gson());
         try {
-            this.sessdata = com.github.colommar.infrastructure.config.ConfigLoader.loadSessdataFromConfig();
+            this.sessdataPool = new SessdataPool(ConfigLoader.loadSessdataPoolFromConfig());
+            this.rateLimiters = createRateLimiters();
+            this.circuitBreakers = createCircuitBreakers();
+            this.hedgePolicies = createHedgePolicies();
+            this.maxAttempts = ConfigLoader.loadRiskControlMaxAttemptsFromConfig();
+            this.apiBaseUrl = ConfigLoader.loadApiBaseUrlFromConfig();
         } catch (Exception e) {
-            throw new RuntimeException("Failed to load SESSDATA", e);
+            throw new RuntimeException("Failed to initialize gateway", e);
         }
+        ConfigLoader.addListener(config -> {
+            try {
+                sessdataPool.replace(ConfigLoader.loadSessdataPoolFromConfig());
+            } catch (IOException e) {
+                log.error("Keeping current SESSDATA pool: {}", e.getMessage());
+            }
+        });
     }
     
     @Override
     public VideoDetails getVideoDetails(String bvid) throws Exception {
-        String url = "https://api.bilibili.com/x/web-interface/view?bvid=" + encodeURIComponent(bvid);
-        
-        String response = httpUtil.get(url, createHeaders());
-        log.debug("Video details response: {}", response);
-        
-        JsonObject json = gson.fromJson(response, JsonObject.class);
-        if (json.get("code").getAsInt() != 0) {
-            throw new Exception("API error in video details: " + response);
+        String url = videoDetailsUrl(bvid);
+        return checkVideoDetails(bvid, execute(BiliEndpoint.VIEW, () -> url, videoDetailsParser(), BiliApiResponse::getCode));
+    }
+    
+    @Override
+    public CompletableFuture<VideoDetails> getVideoDetailsAsync(String bvid) {
+        String url;
+        try {
+            url = videoDetailsUrl(bvid);
+        } catch (UnsupportedEncodingException e) {
+            return Futures.failed(e);
         }
-        
-        JsonObject data = json.getAsJsonObject("data");
-        long cid = data.getAsJsonArray("pages").get(0).getAsJsonObject().get("cid").getAsLong();
-        long upMid = data.getAsJsonObject("owner").get("mid").getAsLong();
-        
-        return new VideoDetails(cid, upMid);
+        return executeAsync(BiliEndpoint.VIEW, () -> url, videoDetailsParser(), BiliApiResponse::getCode)
+                .thenCompose(response -> Futures.call(() -> checkVideoDetails(bvid, response)));
     }
     
     @Override
     public WbiKeys getWbiKeys() throws Exception {
-        String url = "https://api.bilibili.com/x/web-interface/nav";
-        
-        String response = httpUtil.get(url, createHeaders());
-        JsonObject json = gson.fromJson(response, JsonObject.class);
-        
-        if (json.get("code").getAsInt() == -101) {
-            throw new Exception("Failed to get WBI keys: Account not logged in");
+        return checkWbiKeys(execute(BiliEndpoint.NAV, () -> apiBaseUrl + NAV_PATH, wbiKeysParser(), BiliApiResponse::getCode));
+    }
+    
+    @Override
+    public CompletableFuture<WbiKeys> getWbiKeysAsync() {
+        return executeAsync(BiliEndpoint.NAV, () -> apiBaseUrl + NAV_PATH, wbiKeysParser(), BiliApiResponse::getCode)
+                .thenCompose(response -> Futures.call(() -> checkWbiKeys(response)));
+    }
+    
+    /**
+     * 对冲请求需要同时等待两个请求，同步调用也走异步实现
+     */
+    @Override
+    public AISummaryResponse getAISummary(String bvid, VideoDetails videoDetails, WbiKeys wbiKeys) throws Exception {
+        return Futures.await(getAISummaryAsync(bvid, videoDetails, wbiKeys));
+    }
+    
+    @Override
+    public CompletableFuture<AISummaryResponse> getAISummaryAsync(String bvid, VideoDetails videoDetails, WbiKeys wbiKeys) {
+        return executeAsync(BiliEndpoint.CONCLUSION, conclusionUrl(bvid, videoDetails, wbiKeys),
+                aiSummaryParser(), AISummaryResponse::getCode)
+                .thenCompose(response -> Futures.call(() -> checkAISummary(response)));
+    }
+    
+    @Override
+    public UploaderVideoPage getUploaderVideos(long mid, int page, WbiKeys wbiKeys) throws Exception {
+        return checkUploaderVideos(mid, execute(BiliEndpoint.SPACE, uploaderVideosUrl(mid, page, wbiKeys),
+                uploaderVideosParser(mid), BiliApiResponse::getCode));
+    }
+    
+    @Override
+    public CompletableFuture<UploaderVideoPage> getUploaderVideosAsync(long mid, int page, WbiKeys wbiKeys) {
+        return executeAsync(BiliEndpoint.SPACE, uploaderVideosUrl(mid, page, wbiKeys),
+                uploaderVideosParser(mid), BiliApiResponse::getCode)
+                .thenCompose(response -> Futures.call(() -> checkUploaderVideos(mid, response)));
+    }
+    
+    private String videoDetailsUrl(String bvid) throws UnsupportedEncodingException {
+        return apiBaseUrl + "/x/web-interface/view?bvid=" + encodeURIComponent(bvid);
+    }
+    
+    private HttpUtil.BodyParser<BiliApiResponse<VideoDetails>> videoDetailsParser() {
+        return body -> responseParser.parseVideoDetails(new JsonReader(body.charStream()));
+    }
+    
+    private static VideoDetails checkVideoDetails(String bvid, BiliApiResponse<VideoDetails> response) throws Exception {
+        if (response.getCode() != 0) {
+            throw new BiliApiException(response.getCode(), "API error in video details: " + response.getMessage());
+        }
+        if (response.getData() == null || response.getData().getCid() == 0) {
+            throw new Exception("No pages found in video details: " + bvid);
         }
         
-        JsonObject wbiImg = json.getAsJsonObject("data").getAsJsonObject("wbi_img");
-        String imgUrl = wbiImg.get("img_url").getAsString();
-        String subUrl = wbiImg.get("sub_url").getAsString();
+        return response.getData();
+    }
+    
+    private HttpUtil.BodyParser<BiliApiResponse<WbiKeys>> wbiKeysParser() {
+        return body -> responseParser.parseWbiKeys(new JsonReader(body.charStream()));
+    }
+    
+    private static WbiKeys checkWbiKeys(BiliApiResponse<WbiKeys> response) throws BiliApiException {
+        // 未登录时nav同样返回wbi_img，但SESSDATA无效会导致后续接口失败
+        if (response.getCode() == BiliApiException.CODE_NOT_LOGGED_IN) {
+            throw new BiliApiException(BiliApiException.CODE_NOT_LOGGED_IN, "Failed to get WBI keys: Account not logged in");
+        }
+        if (response.getData() == null) {
+            throw new BiliApiException(response.getCode(), "Failed to get WBI keys: " + response.getMessage());
+        }
         
-        return new WbiKeys(
-                imgUrl.substring(imgUrl.lastIndexOf('/') + 1, imgUrl.lastIndexOf('.')),
-                subUrl.substring(subUrl.lastIndexOf('/') + 1, subUrl.lastIndexOf('.'))
-        );
+        return response.getData();
     }
     
-    @Override
-    public AISummaryResponse getAISummary(String bvid, VideoDetails videoDetails, WbiKeys wbiKeys) throws Exception {
+    /**
+     * 每次尝试重新签名，避免排队后wts过期
+     */
+    private Supplier<String> conclusionUrl(String bvid, VideoDetails videoDetails, WbiKeys wbiKeys) {
         Map<String, Object> params = new TreeMap<>();
         params.put("bvid", bvid);
         params.put("cid", videoDetails.getCid());
         params.put("up_mid", videoDetails.getUpMid());
+        WbiSigner wbiSigner = getSigner(wbiKeys);
+        return () -> apiBaseUrl + "/x/web-interface/view/conclusion/get?" + wbiSigner.sign(params);
+    }
+    
+    /**
+     * 按发布时间从新到旧列出投稿，每次尝试重新签名
+     */
+    private Supplier<String> uploaderVideosUrl(long mid, int page, WbiKeys wbiKeys) {
+        Map<String, Object> params = new TreeMap<>();
+        params.put("mid", mid);
+        params.put("pn", page);
+        params.put("ps", SPACE_PAGE_SIZE);
+        params.put("order", "pubdate");
+        WbiSigner wbiSigner = getSigner(wbiKeys);
+        return () -> apiBaseUrl + SPACE_PATH + "?" + wbiSigner.sign(params);
+    }
+    
+    private HttpUtil.BodyParser<BiliApiResponse<UploaderVideoPage>> uploaderVideosParser(long mid) {
+        return body -> responseParser.parseUploaderVideos(new JsonReader(body.charStream()), mid);
+    }
+    
+    private static UploaderVideoPage checkUploaderVideos(long mid, BiliApiResponse<UploaderVideoPage> response)
+            throws BiliApiException {
+        if (response.getCode() != 0) {
+            throw new BiliApiException(response.getCode(), "API error in uploader videos of " + mid + ": " + response.getMessage());
+        }
+        if (response.getData() == null) {
+            throw new BiliApiException(response.getCode(), "No data in uploader videos of " + mid);
+        }
         
-        String query = WbiUtil.encodeWbi(params, wbiKeys.getImgKey(), wbiKeys.getSubKey());
-        String url = "https://api.bilibili.com/x/web-interface/view/conclusion/get?" + query;
-        
-        String response = httpUtil.get(url, createHeaders());
-        log.debug("AI summary response: {}", response);
-        
-        JsonObject json = gson.fromJson(response, JsonObject.class);
-        if (json.get("code").getAsInt() != 0) {
-            throw new Exception("API error: " + response);
+        return response.getData();
+    }
+    
+    private HttpUtil.BodyParser<AISummaryResponse> aiSummaryParser() {
+        return body -> responseParser.parseAISummary(new JsonReader(body.charStream()));
+    }
+    
+    private static AISummaryResponse checkAISummary(AISummaryResponse response) throws BiliApiException {
+        if (response.getCode() != 0) {
+            throw new BiliApiException(response.getCode(), "API error: " + response.getCode() + " " + response.getMessage());
         }
         
-        return gson.fromJson(response, AISummaryResponse.class);
+        return response;
+    }
+    
+    /**
+     * 经过限流发送请求，触发风控时冷却后重新排队
+     * <p>
+     * 每次尝试从账号池中选择账号；账号未登录或触发风控时暂停该账号，有其他可用账号时换号重试。
+     * 接口熔断打开时不发送请求，直接抛出 {@link CircuitOpenException}。
+     * 
+     * @param endpoint 接口
+     * @param urlSupplier 每次尝试时生成请求URL
+     * @param parser 响应解析器
+     * @param codeOf 从解析结果中取出接口返回码
+     * @return 未触发风控的解析结果
+     * @throws BiliApiException 超过最大尝试次数仍被风控时抛出
+     */
+    private <T> T execute(BiliEndpoint endpoint, Supplier<String> urlSupplier,
+                          HttpUtil.BodyParser<T> parser, ToIntFunction<T> codeOf) throws Exception {
+        EndpointRateLimiter rateLimiter = rateLimiters.get(endpoint);
+        Stage stage = stageOf(endpoint);
+        HttpUtil.BodyParser<T> timedParser = timed(parser);
+        for (int attempt = 1; ; attempt++) {
+            long reservedAt = rateLimiter.acquire();
+            acquireCircuit(endpoint);
+            SessdataPool.Account account = sessdataPool.acquire();
+            int code;
+            long start = Metrics.begin(stage);
+            try {
+                T result = send(endpoint, urlSupplier, account, timedParser, start);
+                code = codeOf.applyAsInt(result);
+                Verdict verdict = judge(endpoint, account, attempt, code);
+                if (verdict == Verdict.RETURN) {
+                    return result;
+                }
+                if (verdict == Verdict.RETRY) {
+                    continue;
+                }
+            } catch (HttpStatusException e) {
+                code = blockedCode(endpoint, e);
+            } catch (IOException e) {
+                Metrics.recordError(endpoint.getKey(), "io");
+                throw e;
+            } finally {
+                Metrics.end(stage, start);
+                sessdataPool.release(account);
+            }
+            
+            onRiskControl(endpoint, account, reservedAt, attempt, code);
+        }
+    }
+    
+    /**
+     * {@link #execute} 的异步版本，限流等待通过调度线程延迟发送，不占用线程
+     * <p>
+     * 取消返回的Future会取消正在进行的请求，尚未发送的重试不再发送。
+     * 启用对冲的接口每次尝试由 {@link HedgePolicy} 决定是否追加对冲请求。
+     */
+    private <T> CompletableFuture<T> executeAsync(BiliEndpoint endpoint, Supplier<String> urlSupplier,
+                                                  HttpUtil.BodyParser<T> parser, ToIntFunction<T> codeOf) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        attemptAsync(endpoint, urlSupplier, timed(parser), codeOf, 1, result);
+        return result;
+    }
+    
+    private <T> void attemptAsync(BiliEndpoint endpoint, Supplier<String> urlSupplier, HttpUtil.BodyParser<T> parser,
+                                  ToIntFunction<T> codeOf, int attempt, CompletableFuture<T> result) {
+        EndpointRateLimiter rateLimiter = rateLimiters.get(endpoint);
+        long reservedAt = System.nanoTime();
+        long waitNanos = rateLimiter.reserve();
+        Futures.schedule(() -> {
+            if (result.isDone()) {
+                return;
+            }
+            if (rateLimiter.isCoolingDown()) {
+                // 预约后触发了风控，顺延到冷却结束之后
+                attemptAsync(endpoint, urlSupplier, parser, codeOf, attempt, result);
+                return;
+            }
+            try {
+                acquireCircuit(endpoint);
+            } catch (CircuitOpenException e) {
+                result.completeExceptionally(e);
+                return;
+            }
+            HedgePolicy hedgePolicy = hedgePolicies.get(endpoint);
+            CompletableFuture<Reply<T>> call = hedgePolicy == null
+                    ? sendAsync(endpoint, urlSupplier, parser)
+                    : hedgePolicy.call(() -> sendAsync(endpoint, urlSupplier, parser),
+                            () -> hedgeAsync(endpoint, urlSupplier, parser), reply -> reply.error == null);
+            result.whenComplete((value, error) -> call.cancel(true));
+            call.thenAccept(reply -> {
+                try {
+                    int code;
+                    if (reply.error == null) {
+                        code = codeOf.applyAsInt(reply.value);
+                        Verdict verdict = judge(endpoint, reply.account, attempt, code);
+                        if (verdict == Verdict.RETURN) {
+                            result.complete(reply.value);
+                            return;
+                        }
+                        if (verdict == Verdict.RETRY) {
+                            attemptAsync(endpoint, urlSupplier, parser, codeOf, attempt + 1, result);
+                            return;
+                        }
+                    } else if (reply.error instanceof HttpStatusException) {
+                        code = blockedCode(endpoint, (HttpStatusException) reply.error);
+                    } else {
+                        if (reply.error instanceof IOException) {
+                            Metrics.recordError(endpoint.getKey(), "io");
+                        }
+                        result.completeExceptionally(reply.error);
+                        return;
+                    }
+                    onRiskControl(endpoint, reply.account, reservedAt, attempt, code);
+                    attemptAsync(endpoint, urlSupplier, parser, codeOf, attempt + 1, result);
+                } catch (Exception e) {
+                    result.completeExceptionally(e);
+                }
+            });
+        }, waitNanos, TimeUnit.NANOSECONDS);
+    }
+    
+    /**
+     * 同步发送一次请求并记录结果
+     */
+    private <T> T send(BiliEndpoint endpoint, Supplier<String> urlSupplier, SessdataPool.Account account,
+                       HttpUtil.BodyParser<T> parser, long start) throws IOException {
+        try {
+            T result = httpUtil.get(urlSupplier.get(), createHeaders(account), parser);
+            onOutcome(endpoint, null, System.nanoTime() - start);
+            return result;
+        } catch (IOException | RuntimeException e) {
+            onOutcome(endpoint, e, System.nanoTime() - start);
+            throw e;
+        }
+    }
+    
+    /**
+     * 异步发送一次请求，调用方已获得熔断许可
+     * <p>
+     * 返回的Future总是正常完成，请求失败时异常放在结果中；取消返回的Future会取消请求。
+     */
+    private <T> CompletableFuture<Reply<T>> sendAsync(BiliEndpoint endpoint, Supplier<String> urlSupplier,
+                                                      HttpUtil.BodyParser<T> parser) {
+        SessdataPool.Account account = sessdataPool.acquire();
+        Stage stage = stageOf(endpoint);
+        long start = Metrics.begin(stage);
+        CompletableFuture<T> call = startCall(urlSupplier, account, parser);
+        CompletableFuture<Reply<T>> reply = new CompletableFuture<>();
+        reply.whenComplete((value, error) -> {
+            if (reply.isCancelled()) {
+                call.cancel(true);
+            }
+        });
+        call.whenComplete((value, error) -> {
+            Metrics.end(stage, start);
+            sessdataPool.release(account);
+            Throwable cause = error == null ? null : Futures.unwrap(error);
+            onOutcome(endpoint, cause, System.nanoTime() - start);
+            reply.complete(new Reply<>(account, value, cause));
+        });
+        return reply;
+    }
+    
+    private <T> CompletableFuture<T> startCall(Supplier<String> urlSupplier, SessdataPool.Account account,
+                                               HttpUtil.BodyParser<T> parser) {
+        try {
+            return httpUtil.getAsync(urlSupplier.get(), createHeaders(account), parser);
+        } catch (RuntimeException e) {
+            return Futures.failed(e);
+        }
+    }
+    
+    /**
+     * 发送对冲请求；不能立即获得限流令牌或熔断许可时放弃，对冲不排队
+     */
+    private <T> CompletableFuture<Reply<T>> hedgeAsync(BiliEndpoint endpoint, Supplier<String> urlSupplier,
+                                                       HttpUtil.BodyParser<T> parser) {
+        CircuitBreaker breaker = circuitBreakers.get(endpoint);
+        if (!breaker.tryAcquire()) {
+            return null;
+        }
+        if (!rateLimiters.get(endpoint).tryReserve()) {
+            // 请求未发送，归还熔断许可
+            breaker.onIgnored();
+            return null;
+        }
+        return sendAsync(endpoint, urlSupplier, parser);
+    }
+    
+    /**
+     * 申请熔断许可，熔断打开时抛出异常
+     */
+    private void acquireCircuit(BiliEndpoint endpoint) throws CircuitOpenException {
+        CircuitBreaker breaker = circuitBreakers.get(endpoint);
+        if (!breaker.tryAcquire()) {
+            Metrics.recordError(endpoint.getKey(), "circuit_open");
+            throw new CircuitOpenException(endpoint.getKey(), breaker.remainingOpenMillis());
+        }
+    }
+    
+    /**
+     * 向熔断器报告请求结果，并记录对冲用的耗时样本
+     * <p>
+     * 传输层错误与HTTP 5xx计为失败；其他HTTP错误与取消不计入失败率。只有成功的请求作为耗时样本。
+     */
+    private void onOutcome(BiliEndpoint endpoint, Throwable error, long elapsedNanos) {
+        CircuitBreaker breaker = circuitBreakers.get(endpoint);
+        if (error == null) {
+            breaker.onSuccess();
+        } else if (error instanceof HttpStatusException
+                ? ((HttpStatusException) error).getStatusCode() >= 500 : error instanceof IOException) {
+            breaker.onFailure();
+        } else {
+            breaker.onIgnored();
+        }
+        HedgePolicy hedgePolicy = hedgePolicies.get(endpoint);
+        if (hedgePolicy != null && error == null) {
+            hedgePolicy.recordLatency(elapsedNanos);
+        }
+    }
+    
+    /**
+     * 根据返回码更新账号与限流状态，决定如何处理本次结果
+     */
+    private Verdict judge(BiliEndpoint endpoint, SessdataPool.Account account, int attempt, int code) {
+        if (code != 0) {
+            Metrics.recordError(endpoint.getKey(), String.valueOf(code));
+        }
+        if (code == BiliApiException.CODE_NOT_LOGGED_IN) {
+            sessdataPool.onNotLoggedIn(account);
+            if (attempt >= maxAttempts || !sessdataPool.hasHealthyAccount()) {
+                return Verdict.RETURN;
+            }
+            log.debug("{} is not logged in, retrying {} endpoint with another account", account.getLabel(), endpoint.getKey());
+            return Verdict.RETRY;
+        }
+        if (!BiliApiException.isRiskControl(code)) {
+            rateLimiters.get(endpoint).onSuccess();
+            sessdataPool.onSuccess(account);
+            return Verdict.RETURN;
+        }
+        return Verdict.RISK_CONTROL;
+    }
+    
+    /**
+     * HTTP 412 视为风控并返回对应返回码，其他HTTP错误原样抛出
+     */
+    private static int blockedCode(BiliEndpoint endpoint, HttpStatusException e) throws HttpStatusException {
+        Metrics.recordError(endpoint.getKey(), "http_" + e.getStatusCode());
+        if (e.getStatusCode() != HTTP_PRECONDITION_FAILED) {
+            throw e;
+        }
+        return BiliApiException.CODE_REQUEST_BLOCKED;
+    }
+    
+    /**
+     * 进入风控冷却，超过最大尝试次数时抛出异常
+     */
+    private void onRiskControl(BiliEndpoint endpoint, SessdataPool.Account account, long reservedAt,
+                               int attempt, int code) throws BiliApiException {
+        rateLimiters.get(endpoint).onRiskControl(reservedAt);
+        sessdataPool.onRiskControl(account);
+        if (attempt >= maxAttempts) {
+            throw new BiliApiException(code, "Risk control on " + endpoint.getKey() + " endpoint, giving up after " + attempt + " attempts");
+        }
+        log.debug("Risk control code {} on {} endpoint, requeueing (attempt {})", code, endpoint.getKey(), attempt);
+    }
+    
+    /**
+     * 为解析器加上解析阶段计时
+     */
+    private static <T> HttpUtil.BodyParser<T> timed(HttpUtil.BodyParser<T> parser) {
+        return body -> {
+            long start = Metrics.begin(Stage.PARSE);
+            try {
+                return parser.parse(body);
+            } finally {
+                Metrics.end(Stage.PARSE, start);
+            }
+        };
+    }
+    
+    /**
+     * 接口对应的计时阶段
+     */
+    private static Stage stageOf(BiliEndpoint endpoint) {
+        switch (endpoint) {
+            case VIEW:
+                return Stage.VIEW;
+            case NAV:
+                return Stage.NAV;
+            case SPACE:
+                return Stage.SPACE;
+            default:
+                return Stage.CONCLUSION;
+        }
+    }
+    
+    /**
+     * 按接口创建限流器
+     */
+    private static Map<BiliEndpoint, EndpointRateLimiter> createRateLimiters() throws IOException {
+        int burst = ConfigLoader.loadRateLimitBurstFromConfig();
+        int cooldownMillis = ConfigLoader.loadRiskControlCooldownMillisFromConfig();
+        int maxCooldownMillis = ConfigLoader.loadRiskControlMaxCooldownMillisFromConfig();
+        Map<BiliEndpoint, EndpointRateLimiter> limiters = new EnumMap<>(BiliEndpoint.class);
+        for (BiliEndpoint endpoint : BiliEndpoint.values()) {
+            limiters.put(endpoint, new EndpointRateLimiter(endpoint.getKey(),
+                    ConfigLoader.loadRatePerSecondFromConfig(endpoint.getKey()), burst, cooldownMillis, maxCooldownMillis));
+        }
+        return limiters;
+    }
+    
+    /**
+     * 按接口创建熔断器
+     */
+    private static Map<BiliEndpoint, CircuitBreaker> createCircuitBreakers() throws IOException {
+        int failureRatePercent = ConfigLoader.loadCircuitBreakerFailureRatePercentFromConfig();
+        int windowSize = ConfigLoader.loadCircuitBreakerWindowSizeFromConfig();
+        int minCalls = ConfigLoader.loadCircuitBreakerMinCallsFromConfig();
+        int openMillis = ConfigLoader.loadCircuitBreakerOpenMillisFromConfig();
+        Map<BiliEndpoint, CircuitBreaker> breakers = new EnumMap<>(BiliEndpoint.class);
+        for (BiliEndpoint endpoint : BiliEndpoint.values()) {
+            breakers.put(endpoint, new CircuitBreaker(endpoint.getKey(), failureRatePercent, windowSize, minCalls, openMillis));
+        }
+        return breakers;
+    }
+    
+    /**
+     * 创建对冲策略，只对耗时长尾明显的AI摘要接口启用
+     */
+    private static Map<BiliEndpoint, HedgePolicy> createHedgePolicies() throws IOException {
+        Map<BiliEndpoint, HedgePolicy> policies = new EnumMap<>(BiliEndpoint.class);
+        if (ConfigLoader.loadHedgeEnabledFromConfig()) {
+            policies.put(BiliEndpoint.CONCLUSION, new HedgePolicy(BiliEndpoint.CONCLUSION.getKey(),
+                    ConfigLoader.loadHedgePercentileFromConfig(), ConfigLoader.loadHedgeMinDelayMillisFromConfig(),
+                    ConfigLoader.loadHedgeBudgetPercentFromConfig()));
+        }
+        return policies;
+    }
+    
+    /**
+     * 获取与密钥对应的签名器，密钥未变化时复用
+     */
+    private WbiSigner getSigner(WbiKeys wbiKeys) {
+        WbiSigner current = signer;
+        if (current == null || !current.getKeys().equals(wbiKeys)) {
+            current = new WbiSigner(wbiKeys);
+            signer = current;
+        }
+        return current;
     }
     
     /**
      * 创建HTTP请求头
      */
-    private Map<String, String> createHeaders() {
+    private Map<String, String> createHeaders(SessdataPool.Account account) {
         Map<String, String> headers = new TreeMap<>();
         headers.put("User-Agent", "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/91.0.4472.124 Safari/537.36");
         headers.put("Referer", "https://www.bilibili.com/");
-        headers.put("Cookie", "SESSDATA=" + sessdata);
-        log.info("Headers: {}", headers);
+        headers.put("Cookie", "SESSDATA=" + account.getSessdata());
+        log.debug("Sending request with {}", account.getLabel());
         return headers;
     }
     
@@ -115,4 +590,32 @@ public class BiliWebGatewayImpl implements BiliWebGateway {
     private String encodeURIComponent(String s) throws UnsupportedEncodingException {
         return URLEncoder.encode(s, String.valueOf(StandardCharsets.UTF_8)).replace("+", "%20");
     }
+    
+    /**
+     * 单次请求的结果，失败时保存异常
+     */
+    private static final class Reply<T> {
+        
+        private final SessdataPool.Account account;
+        private final T value;
+        private final Throwable error;
+        
+        Reply(SessdataPool.Account account, T value, Throwable error) {
+            this.account = account;
+            this.value = value;
+            this.error = error;
+        }
+    }
+    
+    /**
+     * 单次请求结果的处理方式
+     */
+    private enum Verdict {
+        /** 返回结果 */
+        RETURN,
+        /** 换账号重试 */
+        RETRY,
+        /** 触发风控，冷却后重试 */
+        RISK_CONTROL
+    }
 }
@@ -0,0 +1,115 @@
+package com.github.colommar.infrastructure.gateway.impl;
+
+import com.github.colommar.domain.model.AISummaryResponse;
+import com.github.colommar.domain.model.UploaderVideoPage;
+import com.github.colommar.domain.model.VideoDetails;
+import com.github.colommar.domain.model.WbiKeys;
+import com.github.colommar.infrastructure.cache.DiskCache;
+import com.github.colommar.infrastructure.gateway.BiliWebGateway;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 带本地持久化缓存的B站Web网关
+ * <p>
+ * 视频详情按bvid缓存，AI摘要按(bvid, cid)缓存，命中时不发起网络请求。
+ * 尚未生成的摘要不会被缓存，以便下次重新获取。投稿列表随时变化，不缓存。
+ */
+@Slf4j
+public class CachingBiliWebGateway implements BiliWebGateway {
+
+    private final BiliWebGateway delegate;
+    private final DiskCache<VideoDetails> videoDetailsCache;
+    private final DiskCache<AISummaryResponse> summaryCache;
+
+    public CachingBiliWebGateway(BiliWebGateway delegate,
+                                 DiskCache<VideoDetails> videoDetailsCache,
+                                 DiskCache<AISummaryResponse> summaryCache) {
+        this.delegate = delegate;
+        this.videoDetailsCache = videoDetailsCache;
+        this.summaryCache = summaryCache;
+    }
+
+    @Override
+    public VideoDetails getVideoDetails(String bvid) throws Exception {
+        VideoDetails cached = videoDetailsCache.get(bvid);
+        if (cached != null) {
+            log.debug("Video details cache hit: {}", bvid);
+            return cached;
+        }
+
+        VideoDetails videoDetails = delegate.getVideoDetails(bvid);
+        videoDetailsCache.put(bvid, videoDetails);
+        return videoDetails;
+    }
+
+    @Override
+    public CompletableFuture<VideoDetails> getVideoDetailsAsync(String bvid) {
+        VideoDetails cached = videoDetailsCache.get(bvid);
+        if (cached != null) {
+            log.debug("Video details cache hit: {}", bvid);
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        return delegate.getVideoDetailsAsync(bvid).thenApply(videoDetails -> {
+            videoDetailsCache.put(bvid, videoDetails);
+            return videoDetails;
+        });
+    }
+
+    @Override
+    public WbiKeys getWbiKeys() throws Exception {
+        return delegate.getWbiKeys();
+    }
+
+    @Override
+    public CompletableFuture<WbiKeys> getWbiKeysAsync() {
+        return delegate.getWbiKeysAsync();
+    }
+
+    @Override
+    public AISummaryResponse getAISummary(String bvid, VideoDetails videoDetails, WbiKeys wbiKeys) throws Exception {
+        String key = bvid + "_" + videoDetails.getCid();
+        AISummaryResponse cached = summaryCache.get(key);
+        if (cached != null) {
+            log.debug("AI summary cache hit: {}", key);
+            return cached;
+        }
+
+        AISummaryResponse response = delegate.getAISummary(bvid, videoDetails, wbiKeys);
+        cacheIfReady(key, response);
+        return response;
+    }
+
+    @Override
+    public CompletableFuture<AISummaryResponse> getAISummaryAsync(String bvid, VideoDetails videoDetails, WbiKeys wbiKeys) {
+        String key = bvid + "_" + videoDetails.getCid();
+        AISummaryResponse cached = summaryCache.get(key);
+        if (cached != null) {
+            log.debug("AI summary cache hit: {}", key);
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        return delegate.getAISummaryAsync(bvid, videoDetails, wbiKeys).thenApply(response -> {
+            cacheIfReady(key, response);
+            return response;
+        });
+    }
+
+    @Override
+    public UploaderVideoPage getUploaderVideos(long mid, int page, WbiKeys wbiKeys) throws Exception {
+        return delegate.getUploaderVideos(mid, page, wbiKeys);
+    }
+
+    @Override
+    public CompletableFuture<UploaderVideoPage> getUploaderVideosAsync(long mid, int page, WbiKeys wbiKeys) {
+        return delegate.getUploaderVideosAsync(mid, page, wbiKeys);
+    }
+
+    private void cacheIfReady(String key, AISummaryResponse response) {
+        if (response.getData() != null && response.getData().getModel_result() != null) {
+            summaryCache.put(key, response);
+        }
+    }
+}
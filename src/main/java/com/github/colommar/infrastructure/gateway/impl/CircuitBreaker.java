@@ -0,0 +1,168 @@
+package com.github.colommar.infrastructure.gateway.impl;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 单个接口的熔断器
+ * <p>
+ * 按最近若干次调用的结果统计失败率，达到阈值后打开，打开期间请求直接失败，不再占用线程等待上游；
+ * 打开时长结束后进入半开状态，只放行一个探测请求，成功则关闭并清空统计，失败则再次打开。
+ * 只有传输层错误与HTTP 5xx计为失败，接口业务错误与风控由调用方另行处理。
+ */
+@Slf4j
+public class CircuitBreaker {
+
+    /**
+     * 熔断器状态
+     */
+    public enum State {
+        /** 正常放行 */
+        CLOSED,
+        /** 直接拒绝 */
+        OPEN,
+        /** 放行一个探测请求 */
+        HALF_OPEN
+    }
+
+    private final String name;
+    private final int failureRatePercent;
+    private final int minCalls;
+    private final long openNanos;
+
+    /** 最近调用结果的环形缓冲，true表示失败 */
+    private final boolean[] outcomes;
+    private int next;
+    private int count;
+    private int failures;
+
+    private State state = State.CLOSED;
+    private long openUntilNanos;
+    private boolean probeInFlight;
+
+    /**
+     * @param name 接口名称，用于日志
+     * @param failureRatePercent 打开熔断的失败率（百分比）
+     * @param windowSize 统计的最近调用次数
+     * @param minCalls 统计满该次数后才判断失败率
+     * @param openMillis 打开时长
+     */
+    public CircuitBreaker(String name, int failureRatePercent, int windowSize, int minCalls, long openMillis) {
+        this.name = name;
+        this.failureRatePercent = failureRatePercent;
+        this.outcomes = new boolean[windowSize];
+        this.minCalls = Math.min(minCalls, windowSize);
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos(openMillis);
+    }
+
+    /**
+     * 申请发送一次请求
+     * <p>
+     * 获得许可后必须以 {@link #onSuccess()}、{@link #onFailure()} 或 {@link #onIgnored()} 之一报告结果。
+     *
+     * @return 是否允许发送
+     */
+    public synchronized boolean tryAcquire() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (System.nanoTime() - openUntilNanos < 0) {
+                    return false;
+                }
+                state = State.HALF_OPEN;
+                probeInFlight = true;
+                log.info("Circuit breaker on {} endpoint half-open, sending probe", name);
+                return true;
+            default:
+                if (probeInFlight) {
+                    return false;
+                }
+                probeInFlight = true;
+                return true;
+        }
+    }
+
+    /**
+     * 请求成功
+     */
+    public synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            state = State.CLOSED;
+            probeInFlight = false;
+            reset();
+            log.info("Circuit breaker on {} endpoint closed", name);
+        } else if (state == State.CLOSED) {
+            record(false);
+        }
+    }
+
+    /**
+     * 请求因上游故障失败
+     */
+    public synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            open();
+        } else if (state == State.CLOSED) {
+            record(true);
+            if (count >= minCalls && failures * 100L >= (long) failureRatePercent * count) {
+                open();
+            }
+        }
+    }
+
+    /**
+     * 请求被取消或以不计入统计的结果结束
+     */
+    public synchronized void onIgnored() {
+        if (state == State.HALF_OPEN) {
+            probeInFlight = false;
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * 距离允许探测的剩余毫秒数，未打开时为0
+     */
+    public synchronized long remainingOpenMillis() {
+        if (state != State.OPEN) {
+            return 0;
+        }
+        return Math.max(0, TimeUnit.NANOSECONDS.toMillis(openUntilNanos - System.nanoTime()));
+    }
+
+    private void open() {
+        int rate = count == 0 ? 100 : (int) (failures * 100L / count);
+        state = State.OPEN;
+        openUntilNanos = System.nanoTime() + openNanos;
+        probeInFlight = false;
+        reset();
+        log.warn("Circuit breaker on {} endpoint opened (failure rate {}%), failing fast for {}ms",
+                name, rate, TimeUnit.NANOSECONDS.toMillis(openNanos));
+    }
+
+    private void record(boolean failed) {
+        if (count == outcomes.length) {
+            if (outcomes[next]) {
+                failures--;
+            }
+        } else {
+            count++;
+        }
+        outcomes[next] = failed;
+        if (failed) {
+            failures++;
+        }
+        next = (next + 1) % outcomes.length;
+    }
+
+    private void reset() {
+        next = 0;
+        count = 0;
+        failures = 0;
+    }
+}
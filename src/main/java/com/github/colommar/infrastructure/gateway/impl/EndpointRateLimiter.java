@@ -0,0 +1,140 @@
+package com.github.colommar.infrastructure.gateway.impl;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 单个接口的令牌桶限流器，感知B站风控
+ * <p>
+ * 采用预约方式发放令牌：每次调用预约下一个可用时间点并等待到该时间点，因此超出速率的请求会排队而不是失败。
+ * 收到风控响应后进入冷却期，冷却时长按连续触发次数指数增长并加入随机抖动，期间所有请求顺延到冷却结束之后：
+ * 冷却开始前已预约的请求在预约时间点到达时重新检查，仍在冷却期内则重新预约。
+ * 请求成功后重置退避。
+ */
+@Slf4j
+public class EndpointRateLimiter {
+
+    private final String name;
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final long baseCooldownNanos;
+    private final long maxCooldownNanos;
+
+    /** 下一个令牌的理论发放时间 */
+    private long nextSlotNanos;
+    private long cooldownUntilNanos;
+    private long lastPenaltyNanos;
+    private int strikes;
+
+    /**
+     * @param name 接口名称，用于日志
+     * @param permitsPerSecond 稳定速率
+     * @param burst 允许的突发请求数
+     * @param baseCooldownMillis 首次触发风控的冷却时长
+     * @param maxCooldownMillis 冷却时长上限
+     */
+    public EndpointRateLimiter(String name, double permitsPerSecond, int burst,
+                               long baseCooldownMillis, long maxCooldownMillis) {
+        this.name = name;
+        this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+        this.burstNanos = intervalNanos * Math.max(0, burst - 1);
+        this.baseCooldownNanos = TimeUnit.MILLISECONDS.toNanos(baseCooldownMillis);
+        this.maxCooldownNanos = TimeUnit.MILLISECONDS.toNanos(maxCooldownMillis);
+        long now = System.nanoTime();
+        this.nextSlotNanos = now;
+        this.cooldownUntilNanos = now;
+        this.lastPenaltyNanos = now;
+    }
+
+    /**
+     * 阻塞直到获得令牌，等待期间进入冷却期时重新预约
+     *
+     * @return 最后一次预约的时间点（{@link System#nanoTime()}），用于 {@link #onRiskControl(long)}
+     * @throws InterruptedException 等待过程中线程被中断
+     */
+    public long acquire() throws InterruptedException {
+        while (true) {
+            long reservedAt = System.nanoTime();
+            long waitNanos = reserve();
+            if (waitNanos > 0) {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            }
+            if (!isCoolingDown()) {
+                return reservedAt;
+            }
+        }
+    }
+
+    /**
+     * 预约一个令牌，不阻塞
+     * <p>
+     * 预约时间点到达时应通过 {@link #isCoolingDown()} 确认未进入新的冷却期，否则重新预约。
+     *
+     * @return 需要等待的纳秒数，0表示可以立即发送
+     */
+    public synchronized long reserve() {
+        long now = System.nanoTime();
+        long slot = Math.max(now, Math.max(cooldownUntilNanos, nextSlotNanos - burstNanos));
+        nextSlotNanos = Math.max(nextSlotNanos, slot) + intervalNanos;
+        return slot - now;
+    }
+
+    /**
+     * 仅在无需等待时获取令牌，用于可以放弃的额外请求
+     *
+     * @return 是否获得令牌
+     */
+    public synchronized boolean tryReserve() {
+        long now = System.nanoTime();
+        long slot = Math.max(now, Math.max(cooldownUntilNanos, nextSlotNanos - burstNanos));
+        if (slot > now) {
+            return false;
+        }
+        nextSlotNanos = Math.max(nextSlotNanos, now) + intervalNanos;
+        return true;
+    }
+
+    /**
+     * 是否处于风控冷却期
+     */
+    public synchronized boolean isCoolingDown() {
+        return cooldownUntilNanos - System.nanoTime() > 0;
+    }
+
+    /**
+     * 请求成功，重置退避
+     */
+    public synchronized void onSuccess() {
+        if (strikes > 0 && System.nanoTime() >= cooldownUntilNanos) {
+            strikes = 0;
+        }
+    }
+
+    /**
+     * 请求触发风控，进入冷却期
+     * <p>
+     * 上次冷却开始前预约的请求再返回风控时不会重复加长冷却。
+     *
+     * @param reservedAtNanos 该请求预约令牌的时间点
+     */
+    public synchronized void onRiskControl(long reservedAtNanos) {
+        if (reservedAtNanos - lastPenaltyNanos < 0) {
+            return;
+        }
+
+        long now = System.nanoTime();
+        strikes++;
+        long backoff = baseCooldownNanos << Math.min(strikes - 1, 20);
+        if (backoff <= 0 || backoff > maxCooldownNanos) {
+            backoff = maxCooldownNanos;
+        }
+        // 0.5 ~ 1.5 倍随机抖动，避免多个进程同时恢复
+        long cooldown = (long) (backoff * (0.5 + ThreadLocalRandom.current().nextDouble()));
+        cooldownUntilNanos = Math.max(cooldownUntilNanos, now + cooldown);
+        lastPenaltyNanos = now;
+        log.warn("Risk control on {} endpoint (strike {}), cooling down for {}ms",
+                name, strikes, TimeUnit.NANOSECONDS.toMillis(cooldown));
+    }
+}
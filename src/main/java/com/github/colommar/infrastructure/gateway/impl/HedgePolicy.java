@@ -0,0 +1,195 @@
+package com.github.colommar.infrastructure.gateway.impl;
+
+import com.github.colommar.infrastructure.util.Futures;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * 对冲请求策略
+ * <p>
+ * 记录接口最近的单次请求耗时，请求超过指定分位数耗时仍未返回时再发一次相同请求，采用先返回的成功结果并取消另一个。
+ * 对冲受预算限制：每个请求积累一定比例的额度，发出对冲消耗一份额度，因此对冲请求数不超过请求总数的固定比例，
+ * 上游整体变慢时不会因对冲而加倍压力。样本不足时不对冲。
+ */
+@Slf4j
+public class HedgePolicy {
+
+    /** 参与计算分位数的最近样本数 */
+    private static final int WINDOW_SIZE = 1000;
+
+    /** 开始对冲前至少需要的样本数 */
+    private static final int MIN_SAMPLES = 100;
+
+    /** 每记录多少个样本重新计算一次阈值 */
+    private static final int RECOMPUTE_INTERVAL = 50;
+
+    /** 预算额度上限，即允许连续发出的对冲数 */
+    private static final double MAX_TOKENS = 10;
+
+    private final String name;
+    private final double quantile;
+    private final long minDelayNanos;
+    private final double tokensPerRequest;
+
+    private final long[] samples = new long[WINDOW_SIZE];
+    private int next;
+    private int count;
+    private int sinceRecompute;
+    private long thresholdNanos = -1;
+    private double tokens;
+
+    /**
+     * @param name 接口名称，用于日志
+     * @param percentile 触发对冲的耗时分位数（百分比）
+     * @param minDelayMillis 对冲等待时间下限
+     * @param budgetPercent 对冲请求数占请求总数的上限（百分比）
+     */
+    public HedgePolicy(String name, int percentile, long minDelayMillis, int budgetPercent) {
+        this.name = name;
+        this.quantile = percentile / 100.0;
+        this.minDelayNanos = TimeUnit.MILLISECONDS.toNanos(minDelayMillis);
+        this.tokensPerRequest = budgetPercent / 100.0;
+    }
+
+    /**
+     * 发送请求，超过阈值仍未得到可接受的结果时发出对冲请求
+     * <p>
+     * 返回先到达的可接受结果；都不可接受时返回最后到达的结果。取消返回的Future会取消所有请求。
+     *
+     * @param primary 发送首个请求
+     * @param hedge 发送对冲请求，返回null表示放弃对冲
+     * @param accept 结果是否可接受
+     * @return 采用的结果
+     */
+    public <R> CompletableFuture<R> call(Supplier<CompletableFuture<R>> primary, Supplier<CompletableFuture<R>> hedge,
+                                         Predicate<R> accept) {
+        CompletableFuture<R> first = primary.get();
+        long delayNanos = onRequest();
+        if (delayNanos < 0) {
+            return first;
+        }
+
+        CompletableFuture<R> winner = new CompletableFuture<>();
+        Race<R> race = new Race<>(winner, accept);
+        winner.whenComplete((value, error) -> race.cancelAll());
+        race.add(first);
+        Futures.schedule(() -> {
+            if (winner.isDone() || !tryConsumeToken()) {
+                return;
+            }
+            CompletableFuture<R> second = hedge.get();
+            if (second == null) {
+                refundToken();
+                return;
+            }
+            log.debug("Hedging request on {} endpoint after {}ms", name, TimeUnit.NANOSECONDS.toMillis(delayNanos));
+            race.add(second);
+        }, delayNanos, TimeUnit.NANOSECONDS);
+        return winner;
+    }
+
+    /**
+     * 记录一次完成的请求耗时
+     * <p>
+     * 被取消的请求不应记录：取消前的耗时只是实际耗时的下限，会拉低阈值，导致更多对冲与取消。
+     */
+    public synchronized void recordLatency(long nanos) {
+        samples[next] = nanos;
+        next = (next + 1) % WINDOW_SIZE;
+        if (count < WINDOW_SIZE) {
+            count++;
+        }
+        if (++sinceRecompute >= RECOMPUTE_INTERVAL && count >= MIN_SAMPLES) {
+            long[] sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(quantile * count) - 1;
+            thresholdNanos = Math.max(minDelayNanos, sorted[Math.max(0, index)]);
+            sinceRecompute = 0;
+        }
+    }
+
+    /**
+     * 积累预算
+     *
+     * @return 对冲等待时间，样本不足时为-1
+     */
+    private synchronized long onRequest() {
+        tokens = Math.min(MAX_TOKENS, tokens + tokensPerRequest);
+        return thresholdNanos;
+    }
+
+    private synchronized boolean tryConsumeToken() {
+        if (tokens < 1) {
+            return false;
+        }
+        tokens--;
+        return true;
+    }
+
+    /**
+     * 放弃对冲时归还额度
+     */
+    private synchronized void refundToken() {
+        tokens = Math.min(MAX_TOKENS, tokens + 1);
+    }
+
+    /**
+     * 同一次调用的首个请求与对冲请求
+     */
+    private static final class Race<R> {
+
+        private final CompletableFuture<R> winner;
+        private final Predicate<R> accept;
+        private final List<CompletableFuture<R>> calls = new ArrayList<>(2);
+        private int pending;
+
+        Race(CompletableFuture<R> winner, Predicate<R> accept) {
+            this.winner = winner;
+            this.accept = accept;
+        }
+
+        void add(CompletableFuture<R> call) {
+            synchronized (this) {
+                calls.add(call);
+                pending++;
+            }
+            call.whenComplete(this::onReply);
+            if (winner.isDone()) {
+                call.cancel(true);
+            }
+        }
+
+        void cancelAll() {
+            List<CompletableFuture<R>> snapshot;
+            synchronized (this) {
+                snapshot = new ArrayList<>(calls);
+            }
+            for (CompletableFuture<R> call : snapshot) {
+                call.cancel(true);
+            }
+        }
+
+        private void onReply(R value, Throwable error) {
+            boolean last;
+            synchronized (this) {
+                last = --pending == 0;
+            }
+            if (error == null && accept.test(value)) {
+                winner.complete(value);
+            } else if (last) {
+                if (error == null) {
+                    winner.complete(value);
+                } else {
+                    winner.completeExceptionally(Futures.unwrap(error));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.github.colommar.infrastructure.gateway.impl;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.Validate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SESSDATA账号池
+ * <p>
+ * 每次请求选择当前进行中请求最少的健康账号，相同时选择最久未使用的账号。
+ * 账号返回未登录或触发风控后会被暂停一段时间，期间请求由其他账号承担；
+ * 所有账号都被暂停时选择最早恢复的账号，不会阻塞调用方。
+ * 账号列表可以在运行中整体替换，保留的账号沿用原有状态。
+ */
+@Slf4j
+public class SessdataPool {
+
+    private static final long NOT_LOGGED_IN_BENCH_NANOS = TimeUnit.MINUTES.toNanos(30);
+    private static final long RISK_CONTROL_BENCH_NANOS = TimeUnit.SECONDS.toNanos(30);
+    private static final long MAX_BENCH_NANOS = TimeUnit.MINUTES.toNanos(30);
+
+    private List<Account> accounts;
+
+    public SessdataPool(List<String> sessdataList) {
+        Validate.notEmpty(sessdataList, "SESSDATA不能为空");
+        this.accounts = createAccounts(sessdataList, Collections.emptyList());
+        log.info("SESSDATA pool initialized with {} account(s)", accounts.size());
+    }
+
+    /**
+     * 替换账号列表；进行中的请求继续使用原账号，结束后正常归还
+     */
+    public synchronized void replace(List<String> sessdataList) {
+        Validate.notEmpty(sessdataList, "SESSDATA不能为空");
+        List<Account> next = createAccounts(sessdataList, accounts);
+        if (next.equals(accounts)) {
+            return;
+        }
+        accounts = next;
+        log.info("SESSDATA pool replaced with {} account(s)", accounts.size());
+    }
+
+    /**
+     * 选择一个账号并计入进行中请求，使用完毕后必须调用 {@link #release(Account)}
+     */
+    public synchronized Account acquire() {
+        long now = System.nanoTime();
+        Account best = null;
+        for (Account account : accounts) {
+            if (best == null || isBetter(account, best, now)) {
+                best = account;
+            }
+        }
+        best.inFlight++;
+        best.lastUsedNanos = now;
+        return best;
+    }
+
+    /**
+     * 请求结束
+     */
+    public synchronized void release(Account account) {
+        account.inFlight--;
+    }
+
+    /**
+     * 请求成功，清除账号的失败计数
+     */
+    public synchronized void onSuccess(Account account) {
+        account.strikes = 0;
+    }
+
+    /**
+     * 账号未登录（SESSDATA失效），暂停较长时间
+     */
+    public synchronized void onNotLoggedIn(Account account) {
+        bench(account, NOT_LOGGED_IN_BENCH_NANOS, "not logged in");
+    }
+
+    /**
+     * 账号触发风控，按连续次数指数延长暂停时间
+     */
+    public synchronized void onRiskControl(Account account) {
+        account.strikes++;
+        long duration = RISK_CONTROL_BENCH_NANOS << Math.min(account.strikes - 1, 10);
+        bench(account, Math.min(duration, MAX_BENCH_NANOS), "risk control");
+    }
+
+    /**
+     * 是否还有未被暂停的账号
+     */
+    public synchronized boolean hasHealthyAccount() {
+        long now = System.nanoTime();
+        for (Account account : accounts) {
+            if (account.isHealthy(now)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public synchronized int size() {
+        return accounts.size();
+    }
+
+    /**
+     * 按新的SESSDATA列表创建账号，已有的账号直接复用
+     */
+    private static List<Account> createAccounts(List<String> sessdataList, List<Account> existing) {
+        List<Account> list = new ArrayList<>(sessdataList.size());
+        for (int i = 0; i < sessdataList.size(); i++) {
+            Account account = null;
+            for (Account candidate : existing) {
+                if (candidate.sessdata.equals(sessdataList.get(i))) {
+                    account = candidate;
+                }
+            }
+            list.add(account != null ? account : new Account("account#" + (i + 1), sessdataList.get(i)));
+        }
+        return Collections.unmodifiableList(list);
+    }
+
+    private void bench(Account account, long durationNanos, String reason) {
+        if (accounts.size() == 1) {
+            // 只有一个账号时暂停没有意义，交给限流器冷却
+            return;
+        }
+        account.benchedUntilNanos = System.nanoTime() + durationNanos;
+        log.warn("Benching {} for {}s: {}", account.getLabel(), TimeUnit.NANOSECONDS.toSeconds(durationNanos), reason);
+    }
+
+    private static boolean isBetter(Account candidate, Account current, long now) {
+        boolean candidateHealthy = candidate.isHealthy(now);
+        boolean currentHealthy = current.isHealthy(now);
+        if (candidateHealthy != currentHealthy) {
+            return candidateHealthy;
+        }
+        if (!candidateHealthy) {
+            return candidate.benchedUntilNanos - current.benchedUntilNanos < 0;
+        }
+        if (candidate.inFlight != current.inFlight) {
+            return candidate.inFlight < current.inFlight;
+        }
+        return candidate.lastUsedNanos - current.lastUsedNanos < 0;
+    }
+
+    /**
+     * 池中的单个账号，状态由所属的池加锁维护
+     */
+    public static class Account {
+        @Getter
+        private final String label;
+        @Getter
+        private final String sessdata;
+        private int inFlight;
+        private int strikes;
+        private long lastUsedNanos;
+        private long benchedUntilNanos;
+
+        private Account(String label, String sessdata) {
+            this.label = label;
+            this.sessdata = sessdata;
+            long now = System.nanoTime();
+            this.lastUsedNanos = now;
+            this.benchedUntilNanos = now;
+        }
+
+        private boolean isHealthy(long now) {
+            return now - benchedUntilNanos >= 0;
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.github.colommar.infrastructure.metrics;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * 进程级指标注册表
+ * <p>
+ * 记录路径只使用 {@link LongAdder} 等分段计数器，不加锁；导出时再汇总。
+ * <pre>
+ * long start = Metrics.begin(Stage.VIEW);
+ * try {
+ *     ...
+ * } finally {
+ *     Metrics.end(Stage.VIEW, start);
+ * }
+ * </pre>
+ */
+public final class Metrics {
+
+    private static final Map<Stage, LatencyHistogram> LATENCIES = new EnumMap<>(Stage.class);
+    private static final Map<Stage, LongAdder> IN_FLIGHT = new EnumMap<>(Stage.class);
+    private static final LongAdder BYTES_RECEIVED = new LongAdder();
+    private static final ConcurrentMap<ErrorKey, LongAdder> ERRORS = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, CacheCounters> CACHES = new ConcurrentHashMap<>();
+
+    static {
+        for (Stage stage : Stage.values()) {
+            LATENCIES.put(stage, new LatencyHistogram());
+            IN_FLIGHT.put(stage, new LongAdder());
+        }
+    }
+
+    private Metrics() {
+    }
+
+    /**
+     * 进入阶段，进行中计数加一
+     *
+     * @param stage 阶段
+     * @return 开始时间，传给 {@link #end(Stage, long)}
+     */
+    public static long begin(Stage stage) {
+        IN_FLIGHT.get(stage).increment();
+        return System.nanoTime();
+    }
+
+    /**
+     * 离开阶段，记录耗时，进行中计数减一
+     *
+     * @param stage 阶段
+     * @param startNanos {@link #begin(Stage)} 的返回值
+     */
+    public static void end(Stage stage, long startNanos) {
+        LATENCIES.get(stage).record(System.nanoTime() - startNanos);
+        IN_FLIGHT.get(stage).decrement();
+    }
+
+    /**
+     * 累加收到的响应体字节数（网络传输字节，压缩响应按压缩后计）
+     */
+    public static void addBytesReceived(long bytes) {
+        BYTES_RECEIVED.add(bytes);
+    }
+
+    /**
+     * 记录一次接口错误
+     *
+     * @param endpoint 接口名
+     * @param code 接口返回码；传输层错误使用 http_状态码 或 io
+     */
+    public static void recordError(String endpoint, String code) {
+        ErrorKey key = new ErrorKey(endpoint, code);
+        LongAdder counter = ERRORS.get(key);
+        if (counter == null) {
+            counter = ERRORS.computeIfAbsent(key, k -> new LongAdder());
+        }
+        counter.increment();
+    }
+
+    /**
+     * 注册缓存命中计数，导出时读取
+     *
+     * @param name 缓存名
+     * @param hits 命中次数
+     * @param misses 未命中次数
+     */
+    public static void registerCache(String name, LongSupplier hits, LongSupplier misses) {
+        CACHES.put(name, new CacheCounters(hits, misses));
+    }
+
+    static LatencyHistogram latency(Stage stage) {
+        return LATENCIES.get(stage);
+    }
+
+    static long inFlight(Stage stage) {
+        return IN_FLIGHT.get(stage).sum();
+    }
+
+    static long bytesReceived() {
+        return BYTES_RECEIVED.sum();
+    }
+
+    static Map<ErrorKey, LongAdder> errors() {
+        return Collections.unmodifiableMap(ERRORS);
+    }
+
+    static Map<String, CacheCounters> caches() {
+        return Collections.unmodifiableMap(CACHES);
+    }
+
+    /**
+     * 错误计数的标签
+     */
+    static final class ErrorKey {
+        final String endpoint;
+        final String code;
+
+        ErrorKey(String endpoint, String code) {
+            this.endpoint = endpoint;
+            this.code = code;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof ErrorKey)) {
+                return false;
+            }
+            ErrorKey other = (ErrorKey) o;
+            return endpoint.equals(other.endpoint) && code.equals(other.code);
+        }
+
+        @Override
+        public int hashCode() {
+            return endpoint.hashCode() * 31 + code.hashCode();
+        }
+    }
+
+    /**
+     * 缓存计数读取器
+     */
+    static final class CacheCounters {
+        final LongSupplier hits;
+        final LongSupplier misses;
+
+        CacheCounters(LongSupplier hits, LongSupplier misses) {
+            this.hits = hits;
+            this.misses = misses;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.github.colommar.infrastructure.metrics;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 指标输出：Prometheus文本格式与运行结束时的汇总表
+ */
+public class MetricsReport {
+
+    /**
+     * Prometheus文本格式的Content-Type
+     */
+    public static final String PROMETHEUS_CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private MetricsReport() {
+    }
+
+    /**
+     * 按Prometheus文本格式写出全部指标
+     *
+     * @param out 输出
+     * @throws IOException 写出失败时抛出异常
+     */
+    public static void writePrometheus(Appendable out) throws IOException {
+        out.append("# HELP bili_stage_duration_seconds Time spent per stage.\n");
+        out.append("# TYPE bili_stage_duration_seconds histogram\n");
+        for (Stage stage : Stage.values()) {
+            LatencyHistogram histogram = Metrics.latency(stage);
+            long[] counts = histogram.bucketCounts();
+            long cumulative = 0;
+            for (int i = 0; i < counts.length; i++) {
+                cumulative += counts[i];
+                String le = i < LatencyHistogram.BOUNDS_MILLIS.length
+                        ? Double.toString(LatencyHistogram.BOUNDS_MILLIS[i] / 1000.0) : "+Inf";
+                out.append("bili_stage_duration_seconds_bucket{stage=\"").append(stage.getKey())
+                        .append("\",le=\"").append(le).append("\"} ").append(Long.toString(cumulative)).append('\n');
+            }
+            out.append("bili_stage_duration_seconds_sum{stage=\"").append(stage.getKey()).append("\"} ")
+                    .append(Double.toString(histogram.getSumNanos() / 1e9)).append('\n');
+            out.append("bili_stage_duration_seconds_count{stage=\"").append(stage.getKey()).append("\"} ")
+                    .append(Long.toString(cumulative)).append('\n');
+        }
+
+        out.append("# HELP bili_stage_in_flight Operations currently in progress per stage.\n");
+        out.append("# TYPE bili_stage_in_flight gauge\n");
+        for (Stage stage : Stage.values()) {
+            out.append("bili_stage_in_flight{stage=\"").append(stage.getKey()).append("\"} ")
+                    .append(Long.toString(Metrics.inFlight(stage))).append('\n');
+        }
+
+        out.append("# HELP bili_http_received_bytes_total Response body bytes received from the network.\n");
+        out.append("# TYPE bili_http_received_bytes_total counter\n");
+        out.append("bili_http_received_bytes_total ").append(Long.toString(Metrics.bytesReceived())).append('\n');
+
+        out.append("# HELP bili_api_errors_total Failed calls by endpoint and code.\n");
+        out.append("# TYPE bili_api_errors_total counter\n");
+        for (Map.Entry<Metrics.ErrorKey, LongAdder> entry : Metrics.errors().entrySet()) {
+            out.append("bili_api_errors_total{endpoint=\"").append(escape(entry.getKey().endpoint))
+                    .append("\",code=\"").append(escape(entry.getKey().code)).append("\"} ")
+                    .append(Long.toString(entry.getValue().sum())).append('\n');
+        }
+
+        out.append("# HELP bili_cache_requests_total Cache lookups by cache and result.\n");
+        out.append("# TYPE bili_cache_requests_total counter\n");
+        for (Map.Entry<String, Metrics.CacheCounters> entry : Metrics.caches().entrySet()) {
+            String name = escape(entry.getKey());
+            out.append("bili_cache_requests_total{cache=\"").append(name).append("\",result=\"hit\"} ")
+                    .append(Long.toString(entry.getValue().hits.getAsLong())).append('\n');
+            out.append("bili_cache_requests_total{cache=\"").append(name).append("\",result=\"miss\"} ")
+                    .append(Long.toString(entry.getValue().misses.getAsLong())).append('\n');
+        }
+    }
+
+    /**
+     * 输出运行汇总表，跳过没有记录的阶段
+     *
+     * @param out 输出
+     */
+    public static void printSummary(PrintStream out) {
+        out.println("---------------- 运行指标 ----------------");
+        out.printf("%-12s %8s %10s %10s %10s %10s%n", "stage", "count", "avg(ms)", "p50(ms)", "p99(ms)", "max(ms)");
+        for (Stage stage : Stage.values()) {
+            LatencyHistogram histogram = Metrics.latency(stage);
+            long count = histogram.getCount();
+            if (count == 0) {
+                continue;
+            }
+            out.printf("%-12s %8d %10.1f %10.1f %10.1f %10.1f%n", stage.getKey(), count,
+                    histogram.getSumNanos() / 1e6 / count, histogram.quantileMillis(0.5),
+                    histogram.quantileMillis(0.99), histogram.getMaxNanos() / 1e6);
+        }
+        out.printf("received: %.1f KiB%n", Metrics.bytesReceived() / 1024.0);
+
+        Map<String, Long> errors = new TreeMap<>();
+        for (Map.Entry<Metrics.ErrorKey, LongAdder> entry : Metrics.errors().entrySet()) {
+            errors.put(entry.getKey().endpoint + " " + entry.getKey().code, entry.getValue().sum());
+        }
+        for (Map.Entry<String, Long> entry : errors.entrySet()) {
+            out.printf("error %-24s %d%n", entry.getKey(), entry.getValue());
+        }
+
+        for (Map.Entry<String, Metrics.CacheCounters> entry : new TreeMap<>(Metrics.caches()).entrySet()) {
+            out.printf("cache %-12s hits=%d misses=%d%n", entry.getKey(),
+                    entry.getValue().hits.getAsLong(), entry.getValue().misses.getAsLong());
+        }
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
@@ -0,0 +1,46 @@
+package com.github.colommar.infrastructure.metrics;
+
+import lombok.Getter;
+
+/**
+ * 计时阶段
+ */
+@Getter
+public enum Stage {
+
+    /**
+     * 视频详情请求
+     */
+    VIEW("view"),
+
+    /**
+     * WBI密钥请求
+     */
+    NAV("nav"),
+
+    /**
+     * AI摘要请求
+     */
+    CONCLUSION("conclusion"),
+
+    /**
+     * UP主投稿列表请求
+     */
+    SPACE("space"),
+
+    /**
+     * 响应体读取与解析（流式解析，包含读取响应体的时间）
+     */
+    PARSE("parse"),
+
+    /**
+     * 摘要渲染
+     */
+    RENDER("render");
+
+    private final String key;
+
+    Stage(String key) {
+        this.key = key;
+    }
+}
@@ -0,0 +1,23 @@
+package com.github.colommar.infrastructure.search;
+
+/**
+ * 被索引的字段，权重用于排序
+ */
+public enum IndexField {
+    /** 视频摘要，没有时间戳 */
+    SUMMARY(3),
+    /** 提纲条目 */
+    OUTLINE(2),
+    /** 字幕行 */
+    SUBTITLE(1);
+
+    private final int weight;
+
+    IndexField(int weight) {
+        this.weight = weight;
+    }
+
+    public int getWeight() {
+        return weight;
+    }
+}
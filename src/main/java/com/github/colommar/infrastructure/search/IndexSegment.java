@@ -0,0 +1,176 @@
+package com.github.colommar.infrastructure.search;
+
+import com.github.colommar.infrastructure.segment.Segments;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 以内存映射方式读取的倒排索引段
+ * <p>
+ * 所有整数为大端序int，各区依次紧挨排列：
+ * <pre>
+ * 头部     MAGIC, VERSION, docCount, termCount, postingCount, heapLength, 保留, 保留
+ * 视频表   docCount 条（bvid偏移, bvid长度），按BV号的UTF-8字节升序
+ * 词表     termCount 条（词偏移, 词长度, 首条记录, 记录数），按词的UTF-8字节升序
+ * 倒排列   doc[postingCount], startMillis[postingCount], field[postingCount]
+ * 字符串堆 heapLength 字节UTF-8
+ * </pre>
+ * 同一个词的记录连续存放，按视频编号、再按出现顺序排列；摘要中的记录开始时间为-1。
+ */
+class IndexSegment {
+
+    static final int MAGIC = 0x42494458;
+    static final int VERSION = 2;
+    static final int HEADER_BYTES = 32;
+    static final int DOC_ENTRY_INTS = 2;
+    static final int TERM_ENTRY_INTS = 4;
+
+    private final Path file;
+    private final MappedByteBuffer buffer;
+    private final int docCount;
+    private final int termCount;
+    private final int postingCount;
+    private final int termsOffset;
+    private final int postingsOffset;
+    private final int heapOffset;
+
+    private IndexSegment(Path file, MappedByteBuffer buffer) throws IOException {
+        this.file = file;
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not an index segment: " + file);
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException("Unsupported index segment version " + buffer.getInt(4) + ": " + file
+                    + ", delete the index directory and rebuild it with --index-archive");
+        }
+        this.docCount = buffer.getInt(8);
+        this.termCount = buffer.getInt(12);
+        this.postingCount = buffer.getInt(16);
+        long terms = HEADER_BYTES + (long) docCount * DOC_ENTRY_INTS * Integer.BYTES;
+        long postings = terms + (long) termCount * TERM_ENTRY_INTS * Integer.BYTES;
+        long heap = postings + 3L * postingCount * Integer.BYTES;
+        if (heap + buffer.getInt(20) != buffer.capacity()) {
+            throw new IOException("Truncated index segment: " + file);
+        }
+        this.termsOffset = (int) terms;
+        this.postingsOffset = (int) postings;
+        this.heapOffset = (int) heap;
+    }
+
+    static IndexSegment open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Index segment larger than 2GB: " + file);
+            }
+            return new IndexSegment(file, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    Path getFile() {
+        return file;
+    }
+
+    int docCount() {
+        return docCount;
+    }
+
+    String docBvid(int doc) {
+        int entry = HEADER_BYTES + doc * DOC_ENTRY_INTS * Integer.BYTES;
+        return string(buffer.getInt(entry), buffer.getInt(entry + 4));
+    }
+
+    /**
+     * 段中是否包含该视频
+     */
+    boolean containsDoc(byte[] bvid) {
+        int low = 0;
+        int high = docCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int entry = HEADER_BYTES + mid * DOC_ENTRY_INTS * Integer.BYTES;
+            int cmp = compareHeap(buffer.getInt(entry), buffer.getInt(entry + 4), bvid, bvid.length);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 词表中第一个不小于key的位置
+     */
+    int lowerBound(byte[] key) {
+        int low = 0;
+        int high = termCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compareTerm(mid, key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    int termCount() {
+        return termCount;
+    }
+
+    /**
+     * 词表第term项与key比较
+     */
+    int compareTerm(int term, byte[] key) {
+        int entry = termsOffset + term * TERM_ENTRY_INTS * Integer.BYTES;
+        return compareHeap(buffer.getInt(entry), buffer.getInt(entry + 4), key, key.length);
+    }
+
+    int firstPosting(int term) {
+        return buffer.getInt(termsOffset + term * TERM_ENTRY_INTS * Integer.BYTES + 8);
+    }
+
+    int postingCount(int term) {
+        return buffer.getInt(termsOffset + term * TERM_ENTRY_INTS * Integer.BYTES + 12);
+    }
+
+    int postingDoc(int posting) {
+        return buffer.getInt(postingsOffset + posting * Integer.BYTES);
+    }
+
+    int postingMillis(int posting) {
+        return buffer.getInt(postingsOffset + (postingCount + posting) * Integer.BYTES);
+    }
+
+    int postingField(int posting) {
+        return buffer.getInt(postingsOffset + (2 * postingCount + posting) * Integer.BYTES);
+    }
+
+    private String string(int offset, int length) {
+        byte[] bytes = new byte[length];
+        Segments.view(buffer, heapOffset + offset, length).get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private int compareHeap(int offset, int length, byte[] key, int keyLength) {
+        int start = heapOffset + offset;
+        int common = Math.min(length, keyLength);
+        for (int i = 0; i < common; i++) {
+            int diff = (buffer.get(start + i) & 0xff) - (key[i] & 0xff);
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return length - keyLength;
+    }
+}
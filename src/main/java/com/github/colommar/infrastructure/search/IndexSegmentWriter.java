@@ -0,0 +1,193 @@
+package com.github.colommar.infrastructure.search;
+
+import com.github.colommar.domain.model.AISummaryResponse;
+import com.github.colommar.infrastructure.segment.IntColumn;
+import com.github.colommar.infrastructure.segment.Segments;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 在内存中构建一个倒排索引段，完成后一次写出
+ * <p>
+ * 每条倒排记录为（视频, 开始毫秒, 字段），同一行文本中重复出现的词只记一次。
+ * 同一个BV号多次写入时以最后一次为准。非线程安全。
+ */
+class IndexSegmentWriter {
+
+    private final List<String> docs = new ArrayList<>();
+    private final Map<String, Integer> docIds = new HashMap<>();
+    private final BitSet replaced = new BitSet();
+    private final Map<String, Postings> terms = new HashMap<>();
+    private long postingCount;
+
+    /**
+     * 索引一个视频的摘要、提纲和字幕
+     */
+    void add(String bvid, AISummaryResponse.ModelResult result) {
+        Integer previous = docIds.get(bvid);
+        if (previous != null) {
+            replaced.set(previous);
+        }
+        int doc = docs.size();
+        docs.add(bvid);
+        docIds.put(bvid, doc);
+
+        addText(doc, IndexField.SUMMARY, -1, result.getSummary());
+        if (result.getOutline() != null) {
+            for (AISummaryResponse.Outline outline : result.getOutline()) {
+                if (outline.getPart_outline() == null) {
+                    continue;
+                }
+                for (AISummaryResponse.PartOutline part : outline.getPart_outline()) {
+                    addText(doc, IndexField.OUTLINE, part.getTimestamp() * 1000L, part.getContent());
+                }
+            }
+        }
+        if (result.getSubtitle() != null) {
+            for (AISummaryResponse.Subtitle subtitle : result.getSubtitle()) {
+                if (subtitle.getPart_subtitle() == null) {
+                    continue;
+                }
+                for (AISummaryResponse.PartSubtitle part : subtitle.getPart_subtitle()) {
+                    addText(doc, IndexField.SUBTITLE, part.getStart_timestamp() * 1000L, part.getContent());
+                }
+            }
+        }
+    }
+
+    int docCount() {
+        return docs.size() - replaced.cardinality();
+    }
+
+    long postingCount() {
+        return postingCount;
+    }
+
+    /**
+     * 按段文件格式写出
+     */
+    void writeTo(DataOutputStream out) throws IOException {
+        // 视频按BV号排序后重新编号，被替换的旧版本不写出
+        List<byte[]> docKeys = new ArrayList<>();
+        Integer[] order = new Integer[docs.size()];
+        for (int doc = 0; doc < docs.size(); doc++) {
+            order[doc] = doc;
+            docKeys.add(docs.get(doc).getBytes(StandardCharsets.UTF_8));
+        }
+        Arrays.sort(order, (a, b) -> Segments.compareUnsigned(docKeys.get(a), docKeys.get(b)));
+        int[] newIds = new int[docs.size()];
+        int liveDocs = 0;
+        for (int doc : order) {
+            newIds[doc] = replaced.get(doc) ? -1 : liveDocs++;
+        }
+
+        List<Map.Entry<byte[], Postings>> sortedTerms = new ArrayList<>(terms.size());
+        for (Map.Entry<String, Postings> term : terms.entrySet()) {
+            sortedTerms.add(new AbstractMap.SimpleImmutableEntry<>(term.getKey().getBytes(StandardCharsets.UTF_8),
+                    term.getValue()));
+        }
+        sortedTerms.sort((a, b) -> Segments.compareUnsigned(a.getKey(), b.getKey()));
+
+        ByteArrayOutputStream heap = new ByteArrayOutputStream(64 * 1024);
+        int[] docStrings = new int[liveDocs * 2];
+        for (int doc : order) {
+            if (newIds[doc] >= 0) {
+                byte[] key = docKeys.get(doc);
+                docStrings[newIds[doc] * 2] = heap.size();
+                docStrings[newIds[doc] * 2 + 1] = key.length;
+                heap.write(key, 0, key.length);
+            }
+        }
+
+        IntColumn postingDocs = new IntColumn();
+        IntColumn postingMillis = new IntColumn();
+        IntColumn postingFields = new IntColumn();
+        IntColumn termEntries = new IntColumn();
+        for (Map.Entry<byte[], Postings> term : sortedTerms) {
+            int first = postingDocs.size();
+            term.getValue().writeTo(newIds, postingDocs, postingMillis, postingFields);
+            if (postingDocs.size() == first) {
+                continue;
+            }
+            termEntries.add(heap.size());
+            termEntries.add(term.getKey().length);
+            termEntries.add(first);
+            termEntries.add(postingDocs.size() - first);
+            heap.write(term.getKey(), 0, term.getKey().length);
+        }
+
+        out.writeInt(IndexSegment.MAGIC);
+        out.writeInt(IndexSegment.VERSION);
+        out.writeInt(liveDocs);
+        out.writeInt(termEntries.size() / IndexSegment.TERM_ENTRY_INTS);
+        out.writeInt(postingDocs.size());
+        out.writeInt(heap.size());
+        out.writeInt(0);
+        out.writeInt(0);
+        for (int value : docStrings) {
+            out.writeInt(value);
+        }
+        termEntries.writeTo(out);
+        postingDocs.writeTo(out);
+        postingMillis.writeTo(out);
+        postingFields.writeTo(out);
+        heap.writeTo(out);
+    }
+
+    private void addText(int doc, IndexField field, long millis, String text) {
+        Set<String> tokens = new LinkedHashSet<>(Tokenizer.tokenize(text));
+        for (String token : tokens) {
+            terms.computeIfAbsent(token, key -> new Postings()).add(doc, (int) Math.min(millis, Integer.MAX_VALUE),
+                    field.ordinal());
+        }
+        postingCount += tokens.size();
+    }
+
+    /**
+     * 单个词的倒排记录，按写入顺序存放
+     */
+    private static class Postings {
+        private final IntColumn docs = new IntColumn(4);
+        private final IntColumn millis = new IntColumn(4);
+        private final IntColumn fields = new IntColumn(4);
+
+        void add(int doc, int startMillis, int field) {
+            docs.add(doc);
+            millis.add(startMillis);
+            fields.add(field);
+        }
+
+        /**
+         * 按新编号和原顺序排序后写出，跳过被替换的视频
+         */
+        void writeTo(int[] newIds, IntColumn outDocs, IntColumn outMillis, IntColumn outFields) {
+            long[] keys = new long[docs.size()];
+            int count = 0;
+            for (int i = 0; i < docs.size(); i++) {
+                int doc = newIds[docs.get(i)];
+                if (doc >= 0) {
+                    keys[count++] = (long) doc << 32 | i;
+                }
+            }
+            Arrays.sort(keys, 0, count);
+            for (int k = 0; k < count; k++) {
+                int i = (int) keys[k];
+                outDocs.add((int) (keys[k] >>> 32));
+                outMillis.add(millis.get(i));
+                outFields.add(fields.get(i));
+            }
+        }
+    }
+}
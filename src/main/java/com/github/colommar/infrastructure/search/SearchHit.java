@@ -0,0 +1,20 @@
+package com.github.colommar.infrastructure.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.List;
+
+/**
+ * 检索命中的视频
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class SearchHit {
+    private final String bvid;
+    private final double score;
+    /** 命中位置的开始时间（毫秒），按时间升序；只在摘要中命中时为空 */
+    private final List<Long> timestampsMillis;
+}
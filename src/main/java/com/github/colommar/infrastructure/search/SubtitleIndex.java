@@ -0,0 +1,237 @@
+package com.github.colommar.infrastructure.search;
+
+import com.github.colommar.domain.model.AISummaryResponse;
+import com.github.colommar.infrastructure.segment.SegmentDirectory;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.Validate;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * 字幕全文检索索引
+ * <p>
+ * 索引目录由多个不可变的段文件组成。新视频先在内存中累积，达到上限或关闭时写出为新段 {@code 00000001.idx}，
+ * 因此可以随摘要到达持续追加。同一个视频在较新的段中出现时，较旧段中的记录不再参与检索。
+ * <p>
+ * 查询中的所有词都必须出现；按BM25计分，摘要、提纲、字幕的命中依次降权，
+ * 并返回同时包含最多查询词的字幕位置。
+ */
+@Slf4j
+public class SubtitleIndex implements Closeable {
+
+    private static final String SUFFIX = ".idx";
+    private static final long MAX_BUFFERED_POSTINGS = 2_000_000L;
+    private static final int MAX_QUERY_TERMS = 64;
+    private static final int MAX_TIMESTAMPS_PER_HIT = 10;
+    private static final double K1 = 1.2;
+    private static final IndexField[] FIELDS = IndexField.values();
+
+    private final SegmentDirectory directory;
+    /** 已打开的段，最新的在前 */
+    private final List<IndexSegment> segments = new CopyOnWriteArrayList<>();
+    private IndexSegmentWriter writer = new IndexSegmentWriter();
+
+    private SubtitleIndex(SegmentDirectory directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * 打开索引目录
+     *
+     * @param directory 索引目录，不存在时创建
+     * @return 索引
+     * @throws IOException 读取失败时抛出异常
+     */
+    public static SubtitleIndex open(Path directory) throws IOException {
+        SubtitleIndex index = new SubtitleIndex(SegmentDirectory.open(directory, SUFFIX));
+        for (Path file : index.directory.files()) {
+            index.segments.add(IndexSegment.open(file));
+        }
+        log.debug("Opened subtitle index {} with {} segment(s)", directory, index.segments.size());
+        return index;
+    }
+
+    /**
+     * 索引一个视频，内存中的记录达到上限时写出新段
+     *
+     * @param bvid 视频BV号
+     * @param result 模型结果
+     * @throws IOException 写出段文件失败时抛出异常
+     */
+    public synchronized void add(String bvid, AISummaryResponse.ModelResult result) throws IOException {
+        writer.add(bvid, result);
+        if (writer.postingCount() >= MAX_BUFFERED_POSTINGS) {
+            flush();
+        }
+    }
+
+    /**
+     * 把内存中的记录写出为新段
+     *
+     * @throws IOException 写出失败时抛出异常
+     */
+    public synchronized void flush() throws IOException {
+        if (writer.docCount() == 0) {
+            return;
+        }
+        Path file = directory.write(writer::writeTo);
+        segments.add(0, IndexSegment.open(file));
+        log.info("Wrote index segment {} with {} video(s)", file, writer.docCount());
+        writer = new IndexSegmentWriter();
+    }
+
+    /**
+     * 视频是否已写入某个段；尚未写出的记录不可见
+     *
+     * @param bvid 视频BV号
+     */
+    public boolean contains(String bvid) {
+        byte[] key = bvid.getBytes(StandardCharsets.UTF_8);
+        for (IndexSegment segment : segments) {
+            if (segment.containsDoc(key)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 检索；尚未写出的记录不可见
+     *
+     * @param query 查询文本
+     * @param limit 最多返回的视频数，必须为正数
+     * @return 按得分降序的命中
+     */
+    public List<SearchHit> search(String query, int limit) {
+        Validate.isTrue(limit > 0, "返回数量必须大于0");
+        List<String> tokens = new ArrayList<>(new LinkedHashSet<>(Tokenizer.tokenizeQuery(query)));
+        if (tokens.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<String> terms = tokens.size() > MAX_QUERY_TERMS ? tokens.subList(0, MAX_QUERY_TERMS) : tokens;
+        List<IndexSegment> snapshot = new ArrayList<>(segments);
+
+        Map<String, Candidate> candidates = new HashMap<>();
+        Map<String, Boolean> shadowed = new HashMap<>();
+        int[] documentFrequency = new int[terms.size()];
+        for (int t = 0; t < terms.size(); t++) {
+            String term = terms.get(t);
+            byte[] key = term.getBytes(StandardCharsets.UTF_8);
+            for (int s = 0; s < snapshot.size(); s++) {
+                IndexSegment segment = snapshot.get(s);
+                Map<Integer, String> bvids = new HashMap<>();
+                int i = segment.lowerBound(key);
+                if (i < segment.termCount() && segment.compareTerm(i, key) == 0) {
+                    int end = segment.firstPosting(i) + segment.postingCount(i);
+                    for (int p = segment.firstPosting(i); p < end; p++) {
+                        String bvid = bvids.computeIfAbsent(segment.postingDoc(p), segment::docBvid);
+                        if (s > 0 && isShadowed(snapshot, s, bvid, shadowed)) {
+                            continue;
+                        }
+                        Candidate candidate = candidates.computeIfAbsent(bvid, id -> new Candidate(terms.size()));
+                        if (candidate.weights[t] == 0) {
+                            documentFrequency[t]++;
+                        }
+                        candidate.weights[t] += FIELDS[segment.postingField(p)].getWeight();
+                        int millis = segment.postingMillis(p);
+                        if (millis >= 0) {
+                            candidate.moments.merge((long) millis, 1L << t, (a, b) -> a | b);
+                        }
+                    }
+                }
+            }
+        }
+
+        long totalDocs = 0;
+        for (IndexSegment segment : snapshot) {
+            totalDocs += segment.docCount();
+        }
+        List<SearchHit> hits = new ArrayList<>();
+        for (Map.Entry<String, Candidate> entry : candidates.entrySet()) {
+            Candidate candidate = entry.getValue();
+            double score = 0;
+            boolean complete = true;
+            for (int t = 0; t < terms.size() && complete; t++) {
+                int weight = candidate.weights[t];
+                if (weight == 0) {
+                    complete = false;
+                } else {
+                    double idf = Math.log(1 + (totalDocs - documentFrequency[t] + 0.5) / (documentFrequency[t] + 0.5));
+                    score += idf * weight * (K1 + 1) / (weight + K1);
+                }
+            }
+            if (complete) {
+                hits.add(new SearchHit(entry.getKey(), score, candidate.bestMoments()));
+            }
+        }
+        hits.sort((a, b) -> Double.compare(b.getScore(), a.getScore()));
+        return hits.size() > limit ? new ArrayList<>(hits.subList(0, limit)) : hits;
+    }
+
+    /**
+     * 写出剩余记录
+     */
+    @Override
+    public void close() throws IOException {
+        flush();
+    }
+
+    /**
+     * 视频是否在比第segment个更新的段中出现过
+     */
+    private static boolean isShadowed(List<IndexSegment> segments, int segment, String bvid,
+                                      Map<String, Boolean> cache) {
+        String key = segment + ":" + bvid;
+        Boolean cached = cache.get(key);
+        if (cached == null) {
+            byte[] bytes = bvid.getBytes(StandardCharsets.UTF_8);
+            cached = false;
+            for (int s = 0; s < segment && !cached; s++) {
+                cached = segments.get(s).containsDoc(bytes);
+            }
+            cache.put(key, cached);
+        }
+        return cached;
+    }
+
+    /**
+     * 查询过程中单个视频的累积结果
+     */
+    private static class Candidate {
+        /** 每个查询词的加权词频 */
+        private final int[] weights;
+        /** 开始时间 -> 命中的查询词位图 */
+        private final TreeMap<Long, Long> moments = new TreeMap<>();
+
+        Candidate(int termCount) {
+            this.weights = new int[termCount];
+        }
+
+        /**
+         * 同时命中查询词最多的时间点，按时间升序
+         */
+        List<Long> bestMoments() {
+            int best = 0;
+            for (long mask : moments.values()) {
+                best = Math.max(best, Long.bitCount(mask));
+            }
+            List<Long> result = new ArrayList<>();
+            for (Map.Entry<Long, Long> moment : moments.entrySet()) {
+                if (Long.bitCount(moment.getValue()) == best && result.size() < MAX_TIMESTAMPS_PER_HIT) {
+                    result.add(moment.getKey());
+                }
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.github.colommar.infrastructure.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 全文检索分词器
+ * <p>
+ * 连续的字母数字按小写整词切分；连续的中日韩字符切成相邻两字一组的二元词，其余字符都视为分隔符。
+ * 索引时每个中日韩字符还单独作为一个词，单字查询可以命中任意位置的字；
+ * 查询时只有单独一个字才按单字查找，多个字按二元词查找。
+ */
+public final class Tokenizer {
+
+    private Tokenizer() {
+    }
+
+    /**
+     * 切分待索引的文本
+     *
+     * @param text 文本，可以为null
+     * @return 按出现顺序的词，可能重复
+     */
+    public static List<String> tokenize(String text) {
+        return tokenize(text, true);
+    }
+
+    /**
+     * 切分查询文本
+     *
+     * @param query 查询文本，可以为null
+     * @return 按出现顺序的词，可能重复
+     */
+    public static List<String> tokenizeQuery(String query) {
+        return tokenize(query, false);
+    }
+
+    private static List<String> tokenize(String text, boolean unigrams) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            int codePoint = text.codePointAt(i);
+            if (isCjk(codePoint)) {
+                int start = i;
+                int previous = -1;
+                int count = 0;
+                while (i < length && isCjk(codePoint = text.codePointAt(i))) {
+                    int end = i + Character.charCount(codePoint);
+                    if (unigrams) {
+                        tokens.add(text.substring(i, end));
+                    }
+                    if (previous >= 0) {
+                        tokens.add(text.substring(previous, end));
+                    }
+                    previous = i;
+                    i = end;
+                    count++;
+                }
+                if (count == 1 && !unigrams) {
+                    tokens.add(text.substring(start, i));
+                }
+            } else if (Character.isLetterOrDigit(codePoint)) {
+                int start = i;
+                while (i < length && !isCjk(codePoint = text.codePointAt(i)) && Character.isLetterOrDigit(codePoint)) {
+                    i += Character.charCount(codePoint);
+                }
+                tokens.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+            } else {
+                i += Character.charCount(codePoint);
+            }
+        }
+        return tokens;
+    }
+
+    private static boolean isCjk(int codePoint) {
+        Character.UnicodeScript script = Character.UnicodeScript.of(codePoint);
+        return script == Character.UnicodeScript.HAN
+                || script == Character.UnicodeScript.HIRAGANA
+                || script == Character.UnicodeScript.KATAKANA
+                || script == Character.UnicodeScript.HANGUL;
+    }
+}
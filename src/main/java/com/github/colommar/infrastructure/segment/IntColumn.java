@@ -0,0 +1,46 @@
+package com.github.colommar.infrastructure.segment;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * 可增长的int列，构建段文件时按列累积数值
+ */
+public class IntColumn {
+
+    private int[] values;
+    private int size;
+
+    public IntColumn() {
+        this(1024);
+    }
+
+    public IntColumn(int capacity) {
+        values = new int[capacity];
+    }
+
+    public void add(int value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, values.length * 2);
+        }
+        values[size++] = value;
+    }
+
+    public int get(int index) {
+        return values[index];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 按大端序写出所有数值
+     */
+    public void writeTo(DataOutputStream out) throws IOException {
+        for (int i = 0; i < size; i++) {
+            out.writeInt(values[i]);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.github.colommar.infrastructure.segment;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 由编号递增的不可变段文件组成的目录，如 {@code 00000001.seg}
+ * <p>
+ * 负责列出已有段和为新段分配编号，段的内容由调用方写出。
+ * 多个进程可以同时向同一个目录写入：编号在目录下的文件锁内按当时已有的段分配，不会覆盖其他进程写出的段。
+ */
+public class SegmentDirectory {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String LOCK_FILE = "segments.lock";
+    private static final String TEMP_SUFFIX = ".tmp";
+    /** 同一进程内对同一文件重复加锁会抛出异常，先在进程内互斥 */
+    private static final Object PUBLISH_LOCK = new Object();
+
+    private final Path directory;
+    private final String suffix;
+    private final List<Path> files;
+
+    private SegmentDirectory(Path directory, String suffix, List<Path> files) {
+        this.directory = directory;
+        this.suffix = suffix;
+        this.files = files;
+    }
+
+    /**
+     * 打开段目录
+     *
+     * @param directory 目录，不存在时创建
+     * @param suffix 段文件后缀
+     * @return 段目录
+     * @throws IOException 读取失败时抛出异常
+     */
+    public static SegmentDirectory open(Path directory, String suffix) throws IOException {
+        Files.createDirectories(directory);
+        return new SegmentDirectory(directory, suffix, list(directory, suffix));
+    }
+
+    /**
+     * 打开时已有的段文件，最新的在前
+     */
+    public List<Path> files() {
+        return files;
+    }
+
+    /**
+     * 写出新的段文件，先写临时文件并落盘，再在文件锁内原子移动到下一个编号
+     *
+     * @param content 段内容
+     * @return 新的段文件
+     * @throws IOException 写出失败时抛出异常
+     */
+    public Path write(Content content) throws IOException {
+        Path temp = Files.createTempFile(directory, "segment", TEMP_SUFFIX);
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                DataOutputStream out = new DataOutputStream(
+                        new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE));
+                content.writeTo(out);
+                out.flush();
+                channel.force(true);
+            }
+            return publish(temp);
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+    }
+
+    /**
+     * 锁住目录后重新读取最大编号，其他进程在本进程打开目录之后写出的段也计算在内
+     */
+    private Path publish(Path temp) throws IOException {
+        synchronized (PUBLISH_LOCK) {
+            try (FileChannel channel = FileChannel.open(directory.resolve(LOCK_FILE), StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE);
+                 FileLock ignored = channel.lock()) {
+                List<Path> existing = list(directory, suffix);
+                int sequence = existing.isEmpty() ? 1 : sequence(existing.get(0)) + 1;
+                Path file = directory.resolve(String.format("%08d%s", sequence, suffix));
+                try {
+                    Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temp, file);
+                }
+                return file;
+            }
+        }
+    }
+
+    /**
+     * 目录中的段文件，最新的在前
+     */
+    private static List<Path> list(Path directory, String suffix) throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + suffix)) {
+            for (Path file : stream) {
+                files.add(file);
+            }
+        }
+        files.sort((a, b) -> b.getFileName().toString().compareTo(a.getFileName().toString()));
+        return files;
+    }
+
+    private int sequence(Path file) {
+        String name = file.getFileName().toString();
+        return Integer.parseInt(name.substring(0, name.length() - suffix.length()));
+    }
+
+    /**
+     * 段文件内容
+     */
+    public interface Content {
+
+        void writeTo(DataOutputStream out) throws IOException;
+    }
+}
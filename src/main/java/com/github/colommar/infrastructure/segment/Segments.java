@@ -0,0 +1,43 @@
+package com.github.colommar.infrastructure.segment;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+
+/**
+ * 段文件读写共用的辅助方法
+ */
+public final class Segments {
+
+    private Segments() {
+    }
+
+    /**
+     * 按无符号字节比较，与段文件中键的排序一致
+     */
+    public static int compareUnsigned(byte[] a, byte[] b) {
+        int length = Math.min(a.length, b.length);
+        for (int i = 0; i < length; i++) {
+            int diff = (a[i] & 0xff) - (b[i] & 0xff);
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return a.length - b.length;
+    }
+
+    /**
+     * 映射区域中一段字节的独立视图，不影响原缓冲区的位置
+     *
+     * @param buffer 映射区域
+     * @param offset 起始位置
+     * @param length 字节数
+     * @return 位置和上限已设置好的视图
+     */
+    public static ByteBuffer view(ByteBuffer buffer, int offset, int length) {
+        ByteBuffer view = buffer.duplicate();
+        // 经由Buffer调用，JDK 9+ 编译出的字节码才能在Java 8上运行
+        ((Buffer) view).position(offset);
+        ((Buffer) view).limit(offset + length);
+        return view;
+    }
+}
@@ -0,0 +1,133 @@
+package com.github.colommar.infrastructure.util;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * {@link CompletableFuture} 辅助方法
+ * <p>
+ * 补充Java 8缺少的延迟执行与超时：共用一个守护调度线程，只负责触发，不执行耗时任务。
+ */
+public final class Futures {
+
+    private static final ScheduledThreadPoolExecutor SCHEDULER = createScheduler();
+
+    private Futures() {
+    }
+
+    /**
+     * 执行可能抛出受检异常的逻辑，结果包装为已完成的Future
+     */
+    public static <T> CompletableFuture<T> call(Callable<T> callable) {
+        try {
+            return CompletableFuture.completedFuture(callable.call());
+        } catch (Exception e) {
+            return failed(e);
+        }
+    }
+
+    /**
+     * 创建以指定异常完成的Future
+     */
+    public static <T> CompletableFuture<T> failed(Throwable error) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        future.completeExceptionally(error);
+        return future;
+    }
+
+    /**
+     * 延迟后在调度线程中执行任务，任务应当很快返回
+     *
+     * @param task 任务
+     * @param delay 延迟，不大于0时立即在当前线程执行
+     * @param unit 时间单位
+     */
+    public static void schedule(Runnable task, long delay, TimeUnit unit) {
+        if (delay <= 0) {
+            task.run();
+        } else {
+            SCHEDULER.schedule(task, delay, unit);
+        }
+    }
+
+    /**
+     * 为Future设置超时
+     * <p>
+     * 超时后返回的Future以 {@link TimeoutException} 完成，并取消原Future。
+     *
+     * @param future 原Future
+     * @param timeout 超时时间，不大于0表示不限制
+     * @param unit 时间单位
+     * @param stage 阶段名称，用于异常信息
+     * @return 带超时的Future
+     */
+    public static <T> CompletableFuture<T> withTimeout(CompletableFuture<T> future, long timeout, TimeUnit unit,
+                                                       String stage) {
+        if (timeout <= 0 || future.isDone()) {
+            return future;
+        }
+
+        CompletableFuture<T> result = new CompletableFuture<>();
+        ScheduledFuture<?> timer = SCHEDULER.schedule(() -> {
+            if (result.completeExceptionally(new TimeoutException(
+                    stage + " timed out after " + unit.toMillis(timeout) + "ms"))) {
+                future.cancel(true);
+            }
+        }, timeout, unit);
+        future.whenComplete((value, error) -> {
+            timer.cancel(false);
+            if (error == null) {
+                result.complete(value);
+            } else {
+                result.completeExceptionally(unwrap(error));
+            }
+        });
+        return result;
+    }
+
+    /**
+     * 阻塞等待结果，抛出原始异常而不是包装异常
+     */
+    public static <T> T await(CompletableFuture<T> future) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = unwrap(e);
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 去掉 {@link CompletionException} 与 {@link ExecutionException} 包装
+     */
+    public static Throwable unwrap(Throwable error) {
+        Throwable cause = error;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException)
+                && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+
+    private static ScheduledThreadPoolExecutor createScheduler() {
+        ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread thread = new Thread(r, "future-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.setRemoveOnCancelPolicy(true);
+        return scheduler;
+    }
+}
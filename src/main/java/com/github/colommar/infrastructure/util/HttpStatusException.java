@@ -0,0 +1,19 @@
+package com.github.colommar.infrastructure.util;
+
+import lombok.Getter;
+
+import java.io.IOException;
+
+/**
+ * HTTP响应状态码非2xx
+ */
+@Getter
+public class HttpStatusException extends IOException {
+
+    private final int statusCode;
+
+    public HttpStatusException(int statusCode, String message) {
+        super(message);
+        this.statusCode = statusCode;
+    }
+}
@@ -1,23 +1,79 @@
 package com.github.colommar.infrastructure.util;
 
+import com.github.colommar.infrastructure.config.ConfigLoader;
+import com.github.colommar.infrastructure.metrics.Metrics;
+import lombok.AllArgsConstructor;
+import lombok.ToString;
 import lombok.extern.slf4j.Slf4j;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.EventListener;
 import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
 import okhttp3.Request;
 import okhttp3.Response;
+import okhttp3.ResponseBody;
 
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * HTTP工具类
+ * <p>
+ * 所有实例共享同一个进程级 {@link OkHttpClient}，复用连接池和调度线程。
  */
 @Slf4j
 public class HttpUtil {
     
-    private final OkHttpClient client;
+    /**
+     * 获取进程级共享的HTTP客户端
+     * <p>
+     * 首次调用时创建，会加载OkHttp和TLS相关的大量类，因此实例构造时不获取，留到第一次请求。
+     */
+    public static OkHttpClient sharedClient() {
+        return ClientHolder.CLIENT;
+    }
     
-    public HttpUtil() {
-        this.client = new OkHttpClient();
+    /**
+     * 在后台线程中创建共享客户端，并预先建立到B站API的连接，完成TLS握手后放入连接池
+     * <p>
+     * 调用线程不等待，可以同时读取配置和构造服务；失败只记录日志。
+     */
+    public static void warmUp() {
+        Thread thread = new Thread(HttpUtil::connect, "http-warm-up");
+        thread.setDaemon(true);
+        thread.start();
+    }
+    
+    private static void connect() {
+        Request request;
+        try {
+            request = new Request.Builder().url(ConfigLoader.loadApiBaseUrlFromConfig() + "/").head().build();
+        } catch (IOException | RuntimeException e) {
+            log.debug("HTTP warm-up skipped: {}", e.getMessage());
+            return;
+        }
+        sharedClient().newCall(request).enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                log.debug("HTTP warm-up failed: {}", e.getMessage());
+            }
+            
+            @Override
+            public void onResponse(Call call, Response response) {
+                response.close();
+                log.debug("HTTP warm-up completed - Protocol: {}", response.protocol());
+            }
+        });
     }
     
     /**
@@ -29,6 +85,75 @@ public class HttpUtil {
      * @throws IOException 请求失败时抛出异常
      */
     public String get(String url, Map<String, String> headers) throws IOException {
+        return get(url, headers, ResponseBody::string);
+    }
+    
+    /**
+     * 发送GET请求，并直接从响应流解析结果
+     * 
+     * @param url 请求URL
+     * @param headers 请求头
+     * @param parser 响应解析器
+     * @return 解析结果
+     * @throws IOException 请求或解析失败时抛出异常
+     */
+    public <T> T get(String url, Map<String, String> headers, BodyParser<T> parser) throws IOException {
+        try (Response response = sharedClient().newCall(buildRequest(url, headers)).execute()) {
+            return parseBody(url, response, parser);
+        }
+    }
+    
+    /**
+     * 异步发送GET请求，不占用调用线程
+     * 
+     * @param url 请求URL
+     * @param headers 请求头
+     * @return 响应内容
+     */
+    public CompletableFuture<String> getAsync(String url, Map<String, String> headers) {
+        return getAsync(url, headers, ResponseBody::string);
+    }
+    
+    /**
+     * 异步发送GET请求，并在响应到达时直接从响应流解析结果
+     * <p>
+     * 取消返回的Future会同时取消底层请求。
+     * 
+     * @param url 请求URL
+     * @param headers 请求头
+     * @param parser 响应解析器
+     * @return 解析结果
+     */
+    public <T> CompletableFuture<T> getAsync(String url, Map<String, String> headers, BodyParser<T> parser) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        Call call = sharedClient().newCall(buildRequest(url, headers));
+        call.enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                future.completeExceptionally(e);
+            }
+            
+            @Override
+            public void onResponse(Call call, Response response) {
+                try (Response r = response) {
+                    future.complete(parseBody(url, r, parser));
+                } catch (IOException | RuntimeException e) {
+                    future.completeExceptionally(e);
+                }
+            }
+        });
+        future.whenComplete((result, e) -> {
+            if (future.isCancelled()) {
+                call.cancel();
+            }
+        });
+        return future;
+    }
+    
+    /**
+     * 构建GET请求
+     */
+    private static Request buildRequest(String url, Map<String, String> headers) {
         Request.Builder requestBuilder = new Request.Builder().url(url);
         
         // 添加请求头
@@ -38,16 +163,106 @@ public class HttpUtil {
             }
         }
         
-        Request request = requestBuilder.build();
+        return requestBuilder.build();
+    }
+    
+    /**
+     * 校验状态码并解析响应内容
+     */
+    private static <T> T parseBody(String url, Response response, BodyParser<T> parser) throws IOException {
+        if (!response.isSuccessful()) {
+            throw new HttpStatusException(response.code(), "HTTP request failed: " + response);
+        }
+        
+        log.debug("HTTP GET {} - Status: {}", url, response.code());
+        return parser.parse(response.body());
+    }
+    
+    /**
+     * 响应解析器，在响应关闭前从响应流中读取结果
+     */
+    @FunctionalInterface
+    public interface BodyParser<T> {
+        
+        /**
+         * 解析响应内容
+         * 
+         * @param body 响应体
+         * @return 解析结果
+         * @throws IOException 读取或解析失败时抛出异常
+         */
+        T parse(ResponseBody body) throws IOException;
+    }
+    
+    /**
+     * 延迟创建共享客户端，首次使用时读取配置
+     */
+    private static class ClientHolder {
+        
+        private static final OkHttpClient CLIENT = createClient();
         
-        try (Response response = client.newCall(request).execute()) {
-            if (!response.isSuccessful()) {
-                throw new IOException("HTTP request failed: " + response);
+        private static OkHttpClient createClient() {
+            HttpSettings settings;
+            try {
+                settings = new HttpSettings(
+                        ConfigLoader.loadHttpMaxIdleConnectionsFromConfig(),
+                        ConfigLoader.loadHttpKeepAliveSecondsFromConfig(),
+                        ConfigLoader.loadHttpConnectTimeoutMillisFromConfig(),
+                        ConfigLoader.loadHttpReadTimeoutMillisFromConfig(),
+                        ConfigLoader.loadHttpCallTimeoutMillisFromConfig(),
+                        ConfigLoader.loadHttpMaxRequestsFromConfig(),
+                        ConfigLoader.loadHttpMaxRequestsPerHostFromConfig());
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to load HTTP settings", e);
             }
             
-            String body = response.body().string();
-            log.debug("HTTP GET {} - Status: {}", url, response.code());
-            return body;
+            Dispatcher dispatcher = new Dispatcher(createDispatcherExecutor());
+            dispatcher.setMaxRequests(settings.maxRequests);
+            dispatcher.setMaxRequestsPerHost(settings.maxRequestsPerHost);
+            
+            log.debug("Creating shared HTTP client: {}", settings);
+            return new OkHttpClient.Builder()
+                    .connectionPool(new ConnectionPool(settings.maxIdleConnections, settings.keepAliveSeconds, TimeUnit.SECONDS))
+                    .dispatcher(dispatcher)
+                    .protocols(Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1))
+                    .connectTimeout(settings.connectTimeoutMillis, TimeUnit.MILLISECONDS)
+                    .readTimeout(settings.readTimeoutMillis, TimeUnit.MILLISECONDS)
+                    .callTimeout(settings.callTimeoutMillis, TimeUnit.MILLISECONDS)
+                    .retryOnConnectionFailure(true)
+                    .eventListener(new EventListener() {
+                        @Override
+                        public void responseBodyEnd(Call call, long byteCount) {
+                            Metrics.addBytesReceived(byteCount);
+                        }
+                    })
+                    .build();
+        }
+        
+        /**
+         * 与OkHttp默认的调度线程池相同，但使用守护线程，异步请求结束后不会让进程在退出前多等60秒
+         */
+        private static ExecutorService createDispatcherExecutor() {
+            AtomicInteger count = new AtomicInteger();
+            return new ThreadPoolExecutor(0, Integer.MAX_VALUE, 60, TimeUnit.SECONDS, new SynchronousQueue<>(), r -> {
+                Thread thread = new Thread(r, "okhttp-dispatcher-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
         }
     }
+    
+    /**
+     * HTTP客户端参数
+     */
+    @AllArgsConstructor
+    @ToString
+    private static class HttpSettings {
+        private final int maxIdleConnections;
+        private final int keepAliveSeconds;
+        private final int connectTimeoutMillis;
+        private final int readTimeoutMillis;
+        private final int callTimeoutMillis;
+        private final int maxRequests;
+        private final int maxRequestsPerHost;
+    }
 }
@@ -0,0 +1,54 @@
+package com.github.colommar.infrastructure.util;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 相同键的并发调用合并为一次执行
+ * <p>
+ * 第一个调用方发起加载，期间到达的相同键调用共享其结果或异常。
+ * 执行结束后立即移除记录，无论成功失败都不会残留，下一次调用会重新执行。
+ *
+ * @param <K> 键类型
+ * @param <V> 结果类型
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * 异步执行或加入相同键正在进行的调用
+     * <p>
+     * 每个调用方拿到独立的Future，取消它不会影响其他调用方。
+     *
+     * @param key 键
+     * @param loader 发起异步加载
+     * @return 结果
+     */
+    public CompletableFuture<V> executeAsync(K key, Supplier<CompletableFuture<V>> loader) {
+        CompletableFuture<V> future = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, future);
+        if (existing != null) {
+            return existing.thenApply(Function.identity());
+        }
+
+        CompletableFuture<V> loading;
+        try {
+            loading = loader.get();
+        } catch (Throwable t) {
+            loading = Futures.failed(t);
+        }
+        loading.whenComplete((value, error) -> {
+            inFlight.remove(key, future);
+            if (error == null) {
+                future.complete(value);
+            } else {
+                future.completeExceptionally(Futures.unwrap(error));
+            }
+        });
+        return future.thenApply(Function.identity());
+    }
+}
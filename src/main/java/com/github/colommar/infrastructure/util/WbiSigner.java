@@ -0,0 +1,183 @@
+package com.github.colommar.infrastructure.util;
+
+import com.github.colommar.domain.model.WbiKeys;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * 可复用的WBI签名器
+ * <p>
+ * 与 {@link WbiUtil#encodeWbi} 输出一致，但混合密钥只在创建时计算一次，
+ * 字符过滤和百分号编码在同一次遍历中写入线程内复用的缓冲区，MD5实例按线程复用，且不修改调用方传入的参数。
+ * 实例是线程安全的，密钥不变时应在多次请求间共享。
+ */
+public class WbiSigner {
+
+    private static final String WTS = "wts";
+    private static final char[] UPPER_HEX = "0123456789ABCDEF".toCharArray();
+    private static final char[] LOWER_HEX = "0123456789abcdef".toCharArray();
+    private static final ThreadLocal<Buffers> BUFFERS = ThreadLocal.withInitial(Buffers::new);
+
+    private final WbiKeys keys;
+    private final byte[] mixinKey;
+
+    public WbiSigner(WbiKeys keys) {
+        this.keys = keys;
+        this.mixinKey = WbiUtil.getMixinKey(keys.getImgKey(), keys.getSubKey()).getBytes(StandardCharsets.US_ASCII);
+    }
+
+    public WbiKeys getKeys() {
+        return keys;
+    }
+
+    /**
+     * 生成带 {@code wts} 和 {@code w_rid} 的查询字符串，时间戳取当前时间
+     *
+     * @param params 参数，不会被修改；其中的 {@code wts} 会被忽略
+     * @return 编码后的查询字符串
+     */
+    public String sign(Map<String, ?> params) {
+        return sign(params, System.currentTimeMillis() / 1000);
+    }
+
+    /**
+     * 使用指定时间戳生成查询字符串
+     *
+     * @param params 参数，不会被修改；其中的 {@code wts} 会被忽略
+     * @param wts 秒级时间戳
+     * @return 编码后的查询字符串
+     */
+    public String sign(Map<String, ?> params, long wts) {
+        String[] names = new String[params.size() + 1];
+        int count = 0;
+        for (String name : params.keySet()) {
+            if (!WTS.equals(name)) {
+                names[count++] = name;
+            }
+        }
+        names[count++] = WTS;
+        Arrays.sort(names, 0, count);
+
+        Buffers buffers = BUFFERS.get();
+        StringBuilder query = buffers.query;
+        query.setLength(0);
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                query.append('&');
+            }
+            String name = names[i];
+            appendEncoded(query, name, false);
+            query.append('=');
+            Object value = WTS.equals(name) ? (Object) wts : params.get(name);
+            if (value instanceof Long || value instanceof Integer) {
+                // 数字只包含安全字符，无需编码
+                query.append(((Number) value).longValue());
+            } else {
+                appendEncoded(query, String.valueOf(value), true);
+            }
+        }
+
+        // 编码后只剩ASCII字符，可以直接逐字节写入摘要
+        int length = query.length();
+        byte[] bytes = buffers.bytes(length);
+        for (int i = 0; i < length; i++) {
+            bytes[i] = (byte) query.charAt(i);
+        }
+        MessageDigest md5 = buffers.md5;
+        md5.update(bytes, 0, length);
+        md5.update(mixinKey);
+        byte[] digest = md5.digest();
+
+        query.append("&w_rid=");
+        for (byte b : digest) {
+            query.append(LOWER_HEX[(b >> 4) & 0xF]).append(LOWER_HEX[b & 0xF]);
+        }
+        return query.toString();
+    }
+
+    /**
+     * 按 {@link java.net.URLEncoder} 的规则编码，空格编码为 {@code %20}
+     *
+     * @param filter 是否去掉 {@code !'()*} 字符
+     */
+    private static void appendEncoded(StringBuilder sb, String s, boolean filter) {
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                    || c == '.' || c == '-' || c == '_') {
+                sb.append(c);
+            } else if (filter && isFiltered(c)) {
+                // 过滤掉
+            } else if (c == '*') {
+                sb.append(c);
+            } else if (c < 0x80) {
+                appendByte(sb, c);
+            } else if (c < 0x800) {
+                appendByte(sb, 0xC0 | (c >> 6));
+                appendByte(sb, 0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && nextLowSurrogate(s, i + 1, filter) >= 0) {
+                // 过滤字符不参与配对，与先过滤再编码的结果保持一致
+                i = nextLowSurrogate(s, i + 1, filter);
+                int cp = Character.toCodePoint(c, s.charAt(i));
+                appendByte(sb, 0xF0 | (cp >> 18));
+                appendByte(sb, 0x80 | ((cp >> 12) & 0x3F));
+                appendByte(sb, 0x80 | ((cp >> 6) & 0x3F));
+                appendByte(sb, 0x80 | (cp & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                // 与URLEncoder一致，孤立的代理字符按'?'处理
+                appendByte(sb, '?');
+            } else {
+                appendByte(sb, 0xE0 | (c >> 12));
+                appendByte(sb, 0x80 | ((c >> 6) & 0x3F));
+                appendByte(sb, 0x80 | (c & 0x3F));
+            }
+        }
+    }
+
+    /**
+     * 跳过过滤字符后，若下一个字符是低位代理则返回其下标，否则返回-1
+     */
+    private static int nextLowSurrogate(String s, int from, boolean filter) {
+        int i = from;
+        while (filter && i < s.length() && isFiltered(s.charAt(i))) {
+            i++;
+        }
+        return i < s.length() && Character.isLowSurrogate(s.charAt(i)) ? i : -1;
+    }
+
+    private static boolean isFiltered(char c) {
+        return c == '!' || c == '\'' || c == '(' || c == ')' || c == '*';
+    }
+
+    private static void appendByte(StringBuilder sb, int b) {
+        sb.append('%').append(UPPER_HEX[(b >> 4) & 0xF]).append(UPPER_HEX[b & 0xF]);
+    }
+
+    /**
+     * 线程内复用的缓冲区
+     */
+    private static class Buffers {
+        private final StringBuilder query = new StringBuilder(256);
+        private final MessageDigest md5;
+        private byte[] bytes = new byte[256];
+
+        private Buffers() {
+            try {
+                this.md5 = MessageDigest.getInstance("MD5");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("MD5 not available", e);
+            }
+        }
+
+        private byte[] bytes(int length) {
+            if (bytes.length < length) {
+                bytes = new byte[Math.max(length, bytes.length * 2)];
+            }
+            return bytes;
+        }
+    }
+}
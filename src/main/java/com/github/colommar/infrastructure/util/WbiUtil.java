@@ -27,6 +27,8 @@ public class WbiUtil {
     
     /**
      * 生成WBI签名
+     * <p>
+     * 会向 {@code params} 写入 {@code wts}。频繁签名时使用 {@link WbiSigner}，避免每次重新计算混合密钥。
      * 
      * @param params 参数
      * @param imgKey 图片密钥
@@ -57,7 +59,7 @@ public class WbiUtil {
     /**
      * 生成混合密钥
      */
-    private static String getMixinKey(String imgKey, String subKey) {
+    static String getMixinKey(String imgKey, String subKey) {
         String s = imgKey + subKey;
         StringBuilder key = new StringBuilder();
         for (int i = 0; i < 32; i++) {
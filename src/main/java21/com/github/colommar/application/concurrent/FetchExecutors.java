@@ -0,0 +1,43 @@
+package com.github.colommar.application.concurrent;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 执行阻塞式抓取任务的线程池（Java 21）
+ * <p>
+ * 每个任务一个虚拟线程，阻塞在HTTP请求上时不占用平台线程，可以支撑数千个并发请求。
+ * 并发上限由调用方控制。
+ */
+public final class FetchExecutors {
+
+    private FetchExecutors() {
+    }
+
+    /**
+     * 创建执行器
+     *
+     * @param name 线程名前缀
+     * @param concurrency 最大并发数，由调用方限制
+     * @return 执行器
+     */
+    public static ExecutorService newFetchExecutor(String name, int concurrency) {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(name + "-", 1).factory());
+    }
+
+    /**
+     * 调整执行器的最大并发数；虚拟线程执行器不限制并发，无需调整
+     *
+     * @param executor 由 {@link #newFetchExecutor} 创建的执行器
+     * @param concurrency 新的最大并发数
+     */
+    public static void setConcurrency(ExecutorService executor, int concurrency) {
+    }
+
+    /**
+     * 执行器是否为每个任务创建一个线程
+     */
+    public static boolean isThreadPerTask() {
+        return true;
+    }
+}